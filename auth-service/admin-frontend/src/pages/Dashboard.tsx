@@ -4,23 +4,88 @@ import PeopleIcon from '@mui/icons-material/People';
 import DevicesIcon from '@mui/icons-material/Devices';
 import SecurityIcon from '@mui/icons-material/Security';
 import { adminDashboardAPI } from '../services/api';
-import type { DashboardStatsAdmin } from '../services/api';
+import type { DashboardStatsAdmin, DashboardDeltaAdmin } from '../services/api';
+
+const STREAM_RETRY_MS = 5000;
+
+// Add a stream delta to the last snapshot
+const applyDelta = (stats: DashboardStatsAdmin | null, delta: DashboardDeltaAdmin): DashboardStatsAdmin | null => {
+  if (!stats) {
+    return stats;
+  }
+  return {
+    userStats: {
+      totalUsers: stats.userStats.totalUsers + delta.totalUsersDelta,
+      activeUsers: stats.userStats.activeUsers + delta.activeUsersDelta,
+      inactiveUsers: stats.userStats.inactiveUsers + delta.totalUsersDelta - delta.activeUsersDelta,
+    },
+    sessionStats: {
+      totalActiveSessions: Math.max(0, stats.sessionStats.totalActiveSessions + delta.activeSessionsDelta),
+      sessionsLast24Hours: stats.sessionStats.sessionsLast24Hours + delta.sessionsLast24HoursDelta,
+      totalRefreshTokens: Math.max(0, stats.sessionStats.totalRefreshTokens + delta.totalRefreshTokensDelta),
+    },
+    sessionsByEntity: delta.entity
+      ? stats.sessionsByEntity.map((entityStat) =>
+          entityStat.entity === delta.entity
+            ? { ...entityStat, activeSessions: Math.max(0, entityStat.activeSessions + delta.activeSessionsDelta) }
+            : entityStat
+        )
+      : stats.sessionsByEntity,
+    recentActivity: delta.recentActivity
+      ? [delta.recentActivity, ...stats.recentActivity].slice(0, Math.max(stats.recentActivity.length, 1))
+      : stats.recentActivity,
+  };
+};
 
 const Dashboard = () => {
   const [stats, setStats] = useState<DashboardStatsAdmin | null>(null);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
-    loadStats();
+    const controller = new AbortController();
+    const sleep = (ms: number) => new Promise((resolve) => setTimeout(resolve, ms));
+
+    // Load the statistics (this also refreshes an expired token), then follow the live stream.
+    // The server ends the stream before the token expires, so each round starts with a reload.
+    const run = async () => {
+      while (!controller.signal.aborted) {
+        const loaded = await loadStats();
+        if (controller.signal.aborted) {
+          return;
+        }
+        if (loaded) {
+          try {
+            await adminDashboardAPI.streamDashboardStats(
+              {
+                onSnapshot: (snapshot) => setStats(snapshot),
+                onDelta: (delta) => setStats((current) => applyDelta(current, delta)),
+              },
+              controller.signal
+            );
+            continue;
+          } catch (error) {
+            if (controller.signal.aborted) {
+              return;
+            }
+            console.error('Dashboard stream failed:', error);
+          }
+        }
+        await sleep(STREAM_RETRY_MS);
+      }
+    };
+    run();
+
+    return () => controller.abort();
   }, []);
 
-  const loadStats = async () => {
+  const loadStats = async (): Promise<boolean> => {
     try {
-      setLoading(true);
       const response = await adminDashboardAPI.getDashboardStats();
       setStats(response.data);
+      return true;
     } catch (error) {
       console.error('Failed to load dashboard stats:', error);
+      return false;
     } finally {
       setLoading(false);
     }
@@ -197,6 +197,7 @@ const LogsPage = () => {
         id: 'durationMs',
         label: 'Duration',
         editable: false,
+        filterable: false,
         minWidth: 100,
         render: (row: AppLogAdmin) => formatDuration(row.durationMs),
       },
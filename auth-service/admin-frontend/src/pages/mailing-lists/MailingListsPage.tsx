@@ -259,6 +259,7 @@ const MailingListsPage = () => {
         id: 'userCount',
         label: 'Users',
         editable: false,
+        filterable: false,
         minWidth: 80,
         render: (row: MailingListAdmin) => (
           <Chip label={row.userCount} size="small" color="primary" variant="outlined" />
@@ -115,6 +115,7 @@ const SessionsPage = () => {
         id: 'revoked',
         label: 'Status',
         editable: false,
+        filterable: false,
         minWidth: 120,
         render: (row: SessionAdmin) => (
           <StatusChip status={row.revoked ? 'REVOKED' : 'ACTIVE'} />
@@ -313,6 +313,7 @@ const UsersPage = () => {
         id: 'roles',
         label: 'Roles',
         editable: false,
+        filterable: false,
         minWidth: 200,
         render: (row: UserAdmin) => (
           <Box sx={{ display: 'flex', flexWrap: 'wrap', gap: 0.5 }}>
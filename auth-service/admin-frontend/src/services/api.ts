@@ -341,6 +341,24 @@ export interface DashboardStatsAdmin {
   }>;
 }
 
+// Incremental change pushed over the dashboard stream; added to the last snapshot
+export interface DashboardDeltaAdmin {
+  type: 'LOGIN' | 'SESSIONS_REVOKED' | 'USER_STATUS_CHANGED' | 'USER_CREATED' | 'USER_DELETED';
+  entity: string | null;
+  activeSessionsDelta: number;
+  sessionsLast24HoursDelta: number;
+  totalRefreshTokensDelta: number;
+  activeUsersDelta: number;
+  totalUsersDelta: number;
+  recentActivity: DashboardStatsAdmin['recentActivity'][number] | null;
+  timestamp: string;
+}
+
+export interface DashboardStreamHandlers {
+  onSnapshot: (snapshot: DashboardStatsAdmin) => void;
+  onDelta: (delta: DashboardDeltaAdmin) => void;
+}
+
 // Theme Preferences Request
 export interface ThemePreferencesRequest {
   theme: string;
@@ -526,6 +544,61 @@ export const adminDashboardAPI = {
     const response = await apiClient.get<ApiResponse<DashboardStatsAdmin>>('/auth/admin/stats/dashboard');
     return response.data;
   },
+
+  /**
+   * Read the live dashboard stream (Server-Sent Events) until it ends or the signal aborts.
+   * EventSource cannot send the Authorization header, so the stream is read with fetch.
+   * The server ends the stream shortly before the access token expires; callers reconnect
+   * after refreshing the token (e.g. by calling getDashboardStats first).
+   * Resolves when the stream ends; rejects with the HTTP status on an error response.
+   */
+  streamDashboardStats: async (handlers: DashboardStreamHandlers, signal: AbortSignal): Promise<void> => {
+    const token = localStorage.getItem('token');
+    const response = await fetch(`${API_BASE_URL}/auth/admin/stats/dashboard/stream`, {
+      headers: {
+        Accept: 'text/event-stream',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      signal,
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`Dashboard stream failed: ${response.status}`);
+    }
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        return;
+      }
+      buffer += value.replace(/\r\n?/g, '\n');
+      let end: number;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, end);
+        buffer = buffer.slice(end + 2);
+        let event = 'message';
+        const data: string[] = [];
+        for (const line of block.split('\n')) {
+          if (line.startsWith('event:')) {
+            event = line.slice(6).trim();
+          } else if (line.startsWith('data:')) {
+            data.push(line.slice(5).replace(/^ /, ''));
+          }
+          // Lines starting with ':' are heartbeats
+        }
+        if (data.length === 0) {
+          continue;
+        }
+        const payload = JSON.parse(data.join('\n'));
+        if (event === 'snapshot') {
+          handlers.onSnapshot(payload as DashboardStatsAdmin);
+        } else if (event === 'delta') {
+          handlers.onDelta(payload as DashboardDeltaAdmin);
+        }
+      }
+    }
+  },
 };
 
 // Admin Entity API
@@ -0,0 +1,128 @@
+package com.template.business.auth.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JWT verification on the {@link JwtAuthenticationFilter} path: verify the token,
+ * validate it against the user, read the entity name.
+ * <p>
+ * Benchmarks:
+ * <ul>
+ *   <li>{@code fourParses} - the previous filter: four full parses, each building a new
+ *       key and parser (username, validation twice, entity name)</li>
+ *   <li>{@code singleParse} - {@link JwtUtil#verify(String)} with an empty verified-token
+ *       cache (first request with a token)</li>
+ *   <li>{@code cacheHit} - {@link JwtUtil#verify(String)} with the token already cached</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pjmh,skip-frontend compile exec:exec}
+ * (see {@code docs/IMPROVEMENTS.md}).
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "9ff7ff40e4641ffc5e1078ce57f682723c7371612ecc84a0e9c60e786f90cfb0";
+    private static final long EXPIRATION_MS = 900_000L;
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private Map<?, ?> uncachedTokens;
+    private String token;
+    private UserDetails user;
+
+    @Setup
+    public void setup() {
+        cached = jwtUtil();
+        uncached = jwtUtil();
+        Field verifiedTokens = ReflectionUtils.findField(JwtUtil.class, "verifiedTokens");
+        ReflectionUtils.makeAccessible(verifiedTokens);
+        uncachedTokens = (Map<?, ?>) ReflectionUtils.getField(verifiedTokens, uncached);
+
+        token = cached.generateToken("jdoe", List.of("USER", "ADMIN"), "auth-service", 42L);
+        user = User.withUsername("jdoe").password("").authorities(new SimpleGrantedAuthority("ROLE_USER")).build();
+    }
+
+    @Benchmark
+    public void fourParses(Blackhole blackhole) {
+        String username = claims(token).getSubject();
+        boolean valid = claims(token).getSubject().equals(user.getUsername())
+                && !claims(token).getExpiration().before(new Date());
+        blackhole.consume(username);
+        blackhole.consume(valid);
+        blackhole.consume(claims(token).get("entityName", String.class));
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole blackhole) {
+        uncachedTokens.clear();
+        VerifiedToken verified = uncached.verify(token);
+        blackhole.consume(uncached.validateToken(verified, user));
+        blackhole.consume(verified.getEntityName());
+    }
+
+    @Benchmark
+    public void cacheHit(Blackhole blackhole) {
+        VerifiedToken verified = cached.verify(token);
+        blackhole.consume(cached.validateToken(verified, user));
+        blackhole.consume(verified.getEntityName());
+    }
+
+    /**
+     * One parse as the filter used to do it, with a new key and parser every time
+     */
+    private static Claims claims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        set(jwtUtil, "secret", SECRET);
+        set(jwtUtil, "expiration", EXPIRATION_MS);
+        set(jwtUtil, "verifiedCacheMaxSize", 10000);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static void set(JwtUtil jwtUtil, String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtUtil.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, value);
+    }
+}
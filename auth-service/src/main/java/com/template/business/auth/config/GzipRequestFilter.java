@@ -0,0 +1,233 @@
+package com.template.business.auth.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses request bodies sent with {@code Content-Encoding: gzip}.
+ *
+ * <p>Clients such as business-app-backend gzip large bodies (mostly bulk log uploads to
+ * {@code /api/v1/logs/batch}). Controllers read the request as usual; the body is inflated
+ * while it is read, so it is never held uncompressed in memory as a whole. The inflated size
+ * is capped by {@code request.gzip.max-inflated-mb} to protect against compression bombs.
+ *
+ * <p>Non-blocking reads ({@link ServletInputStream#setReadListener}) are delegated to the
+ * container: the compressed body is collected as it arrives and inflated once it is complete,
+ * so the listener is only called when the whole body can be read without blocking.
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    @Value("${request.gzip.enabled:true}")
+    private boolean enabled;
+
+    @Value("${request.gzip.max-inflated-mb:64}")
+    private long maxInflatedMb;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(new GzipRequest(request, maxInflatedMb * 1024 * 1024), response);
+    }
+
+    /**
+     * Request whose body is the inflated original body.
+     */
+    private static final class GzipRequest extends HttpServletRequestWrapper {
+        private final long maxBytes;
+        private ServletInputStream inputStream;
+
+        private GzipRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new InflatingInputStream(super.getInputStream(), maxBytes);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHiddenHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHiddenHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        private static boolean isHiddenHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Servlet stream over the inflated body, failing once more than the cap has been read.
+     * The gzip stream is opened on first read, so a read listener can still switch the source
+     * to the collected body.
+     */
+    private static final class InflatingInputStream extends ServletInputStream {
+        private final ServletInputStream compressed;
+        private final long maxBytes;
+        private InputStream inflated;
+        private long read;
+        private boolean finished;
+        private ReadListener readListener;
+        private volatile byte[] collected; // Whole compressed body, once received in non-blocking mode
+
+        private InflatingInputStream(ServletInputStream compressed, long maxBytes) {
+            this.compressed = compressed;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inflated().read();
+            count(b < 0 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = inflated().read(buffer, offset, length);
+            count(n);
+            return n;
+        }
+
+        private InputStream inflated() throws IOException {
+            if (inflated == null) {
+                if (readListener != null && collected == null) {
+                    throw new IllegalStateException("Request body read before isReady() returned true");
+                }
+                InputStream source = collected != null ? new ByteArrayInputStream(collected) : compressed;
+                inflated = new GZIPInputStream(source, 8192);
+            }
+            return inflated;
+        }
+
+        private void count(int n) throws IOException {
+            if (n < 0) {
+                finished = true;
+                return;
+            }
+            read += n;
+            if (read > maxBytes) {
+                throw new IOException("Inflated request body exceeds " + maxBytes + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return readListener == null || collected != null;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (this.readListener != null) {
+                throw new IllegalStateException("Read listener already set");
+            }
+            if (inflated != null) {
+                throw new IllegalStateException("Request body already read in blocking mode");
+            }
+            this.readListener = readListener;
+            compressed.setReadListener(new ReadListener() {
+                private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+                private final byte[] buffer = new byte[8192];
+
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (compressed.isReady()) {
+                        int n = compressed.read(buffer);
+                        if (n < 0) {
+                            return;
+                        }
+                        body.write(buffer, 0, n);
+                        if (body.size() > maxBytes) {
+                            throw new IOException("Compressed request body exceeds " + maxBytes + " bytes");
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    collected = body.toByteArray();
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inflated != null) {
+                inflated.close();
+            } else {
+                compressed.close();
+            }
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.template.business.auth.config;
 
+import com.template.business.auth.security.BCryptCostCalibrator;
+import com.template.business.auth.security.BoundedPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 /**
  * Configuration class for password encoding in the authentication service.
  * <p>
@@ -31,27 +38,71 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  *   <li>User registration processes for encoding new passwords</li>
  * </ul>
  * </p>
+ * <p>
+ * All hashing runs on a bounded executor ({@link BoundedPasswordEncoder}) so that
+ * login bursts cannot take every request thread and CPU core. When saturated,
+ * callers get HTTP 503 with {@code Retry-After}.
+ * </p>
+ * <p>
+ * The BCrypt cost is calibrated at startup ({@link BCryptCostCalibrator}) to the
+ * strongest value that fits the latency target on the current hardware, unless a
+ * fixed cost is configured. New hashes are stored with an algorithm prefix
+ * ({@code {bcrypt}$2a$12$...}); legacy unprefixed BCrypt hashes are still accepted
+ * and are upgraded on the next successful login.
+ * </p>
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>{@code auth.password-hashing.threads} - Hashing threads (0 = number of CPUs)</li>
+ *   <li>{@code auth.password-hashing.queue-capacity} - Maximum requests waiting for a thread</li>
+ *   <li>{@code auth.password-hashing.wait-timeout-ms} - Maximum time a caller waits</li>
+ *   <li>{@code auth.password-hashing.retry-after-seconds} - Retry-After hint when saturated</li>
+ *   <li>{@code auth.password-hashing.cost} - Fixed BCrypt cost (0 = calibrate at startup)</li>
+ *   <li>{@code auth.password-hashing.target-ms} - Calibration latency target per hash</li>
+ *   <li>{@code auth.password-hashing.min-cost} / {@code max-cost} - Calibration bounds</li>
+ * </ul>
+ * </p>
  *
  * @author Template Business
  * @version 1.0
  * @see org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder
  * @see org.springframework.security.crypto.password.PasswordEncoder
  */
+@Slf4j
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     /**
      * Creates and configures a BCrypt password encoder bean.
      * <p>
-     * The BCryptPasswordEncoder uses a default strength of 10 (2^10 rounds)
-     * which provides a good balance between security and performance.
+     * The BCrypt strength is either fixed by configuration or calibrated on startup.
      * Each password is automatically salted with a randomly generated salt.
+     * The encoder is wrapped so that hashing runs on a bounded executor.
      * </p>
      *
-     * @return a configured BCryptPasswordEncoder instance
+     * @return a delegating BCrypt encoder running on the bounded hashing executor
      */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-hashing.wait-timeout-ms:5000}") long waitTimeoutMs,
+            @Value("${auth.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${auth.password-hashing.cost:0}") int fixedCost,
+            @Value("${auth.password-hashing.target-ms:80}") long targetMs,
+            @Value("${auth.password-hashing.min-cost:10}") int minCost,
+            @Value("${auth.password-hashing.max-cost:16}") int maxCost) {
+        int cost = fixedCost > 0 ? fixedCost : BCryptCostCalibrator.calibrate(targetMs, minCost, maxCost);
+        log.info("Password encoder: algorithm={}, cost={} ({})", BCRYPT_ID, cost,
+                fixedCost > 0 ? "configured" : "calibrated");
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        // Hashes stored before the {bcrypt} prefix was introduced
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, waitTimeoutMs, retryAfterSeconds);
     }
 }
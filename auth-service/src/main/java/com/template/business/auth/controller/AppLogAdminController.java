@@ -7,6 +7,7 @@ import com.template.business.auth.dto.AppLogDTO;
 import com.template.business.auth.dto.LogStatusDTO;
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.SearchRequest;
+import com.template.business.auth.exception.CustomValidationException;
 import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.service.AppLogAdminService;
 import lombok.RequiredArgsConstructor;
@@ -69,6 +70,9 @@ public class AppLogAdminController {
         try {
             PageResponse<AppLogDTO> response = appLogAdminService.searchLogs(request);
             return ResponseEntity.ok(ApiResponse.success("Logs retrieved successfully", response));
+        } catch (CustomValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to search logs: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -1,15 +1,19 @@
 package com.template.business.auth.controller;
 
 import com.template.business.auth.dto.ApiResponse;
+import com.template.business.auth.dto.AppLogBatchResultDTO;
 import com.template.business.auth.dto.AppLogCreateRequest;
 import com.template.business.auth.dto.AppLogDTO;
 import com.template.business.auth.exception.ResourceNotFoundException;
+import com.template.business.auth.exception.ServiceBusyException;
 import com.template.business.auth.service.AppLogService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +22,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
 /**
  * REST controller for application logging.
  *
@@ -60,6 +67,9 @@ public class AppLogController {
             log.warn("Failed to create log - resource not found: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (ServiceBusyException e) {
+            // Ingestion queue full - handled by GlobalExceptionHandler (503 + Retry-After)
+            throw e;
         } catch (Exception e) {
             log.error("Failed to create log entry: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -83,10 +93,53 @@ public class AppLogController {
             appLogService.createLogAsync(request);
             return ResponseEntity.status(HttpStatus.ACCEPTED)
                     .body(ApiResponse.success("Log creation accepted", "Log entry will be created asynchronously"));
+        } catch (ResourceNotFoundException e) {
+            log.warn("Failed to accept log - resource not found: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ServiceBusyException e) {
+            // Ingestion queue full - handled by GlobalExceptionHandler (503 + Retry-After)
+            throw e;
         } catch (Exception e) {
             log.error("Failed to accept async log entry: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to accept log entry"));
         }
     }
+
+    /**
+     * Create log entries in bulk
+     * Accepts a JSON array or NDJSON (one object per line), read incrementally
+     */
+    @Operation(
+        summary = "Create log entries in bulk",
+        description = "Accepts a JSON array or NDJSON (application/x-ndjson) of log entries. "
+                + "Returns 202 Accepted with the number of accepted records and the rejected ones with their reason. "
+                + "If the ingestion queue stays full, the upload stops and 503 with Retry-After is returned; "
+                + "the records after the accepted count were not processed and should be sent again."
+    )
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<AppLogBatchResultDTO>> createLogBatch(InputStream body) {
+        try {
+            AppLogBatchResultDTO result = appLogService.createLogBatch(body);
+            log.debug("Bulk log upload: received={}, accepted={}, rejected={}",
+                    result.getReceived(), result.getAccepted(), result.getRejected());
+            if (result.getRetryAfterSeconds() != null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(result.getRetryAfterSeconds()))
+                        .body(ApiResponse.<AppLogBatchResultDTO>builder()
+                                .success(false)
+                                .message("Log ingestion queue is full. Please retry the remaining records later.")
+                                .data(result)
+                                .timestamp(LocalDateTime.now())
+                                .build());
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Log batch processed", result));
+        } catch (Exception e) {
+            log.error("Failed to process log batch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to process log batch"));
+        }
+    }
 }
@@ -3,12 +3,14 @@ package com.template.business.auth.controller;
 import com.template.business.auth.dto.*;
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.SearchRequest;
-import com.template.business.auth.entity.ApplicationEntity;
 import com.template.business.auth.entity.User;
-import com.template.business.auth.repository.EntityRepository;
+import com.template.business.auth.exception.CustomValidationException;
+import com.template.business.auth.exception.ServiceBusyException;
 import com.template.business.auth.security.CustomAuthenticationProvider;
 import com.template.business.auth.security.JwtUtil;
+import com.template.business.auth.service.DashboardStreamService;
 import com.template.business.auth.service.DatabaseUserDetailsService;
+import com.template.business.auth.service.ReferenceDataCache;
 import com.template.business.auth.service.RefreshTokenService;
 import com.template.business.auth.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,7 +18,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -24,6 +28,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -70,7 +75,8 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
     private final com.template.business.auth.service.DashboardStatisticsService dashboardStatisticsService;
-    private final EntityRepository entityRepository;
+    private final DashboardStreamService dashboardStreamService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Value("${ldap.enabled}")
     private boolean ldapEnabled;
@@ -87,6 +93,10 @@ public class AuthController {
      *   <li>Returns complete user profile with authentication method indicator</li>
      * </ol>
      *
+     * <p>Database round trips per login: one user + roles query (skipped
+     * when the user snapshot is cached; the controller reuses the provider's lookup),
+     * one set-based session-limit UPDATE, and the refresh token sequence + INSERT.
+     *
      * @param request login credentials containing username, password, and optional entityCode
      * @return {@link ApiResponse} containing {@link LoginResponse} with JWT token and user data
      */
@@ -117,14 +127,13 @@ public class AuthController {
         try {
             log.info("Login attempt for user: {} with entity: {}", username, request.getEntityCode());
 
-            // Validate that entity exists and get its ID
-            ApplicationEntity entity = entityRepository.findByName(request.getEntityCode()).orElse(null);
-            if (entity == null) {
+            // Validate that entity exists and get its ID (reference data cache - no query)
+            String entityId = referenceDataCache.findEntityIdByName(request.getEntityCode()).orElse(null);
+            if (entityId == null) {
                 log.warn("Login failed: Entity {} does not exist", request.getEntityCode());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(ApiResponse.error("Entity '" + request.getEntityCode() + "' does not exist"));
             }
-            String entityId = entity.getId();
 
             // Authenticate using custom provider (LDAP + DB fallback)
             Authentication authentication = authenticationProvider.authenticate(
@@ -135,22 +144,17 @@ public class AuthController {
             // The authentication object's details contain info about the auth method
             String authMethod = determineAuthMethod(authentication);
 
-            // Get user details from database (needed for response and roles)
-            User user = databaseUserDetailsService.getUserByUsername(username);
+            // Get user details (needed for response and roles) - usually cached by the provider's lookup
+            UserSnapshot user = databaseUserDetailsService.getUserSnapshot(username);
 
             // Extract roles - prioritize database roles if user exists
             List<String> roles;
 
             log.debug("Filtering roles for entityId: {}", entityId);
-            if (user != null && user.getUserRoles() != null && !user.getUserRoles().isEmpty()) {
+            if (user != null && user.hasRoleAssignments()) {
                 // LDAP is only for authentication - roles ALWAYS come from database
                 // Filter roles by specific entity (entityCode is mandatory)
-                roles = user.getUserRoles().stream()
-                        .filter(ur -> "ACTIVE".equals(ur.getStatus()))
-                        .filter(ur -> entityId.equals(ur.getId().getEntity()))
-                        .map(ur -> ur.getId().getRole())
-                        .distinct()
-                        .collect(Collectors.toList());
+                roles = user.getActiveRoles(entityId);
             } else {
                 // Fallback to authentication authorities (only if user not in database)
                 roles = authentication.getAuthorities().stream()
@@ -158,21 +162,22 @@ public class AuthController {
                         .collect(Collectors.toList());
             }
 
-            // Generate JWT access token (short-lived) with entityName for validation
-            String accessToken = jwtUtil.generateToken(username, roles, request.getEntityCode());
-
             // Generate refresh token (long-lived) and store in database
-            String refreshToken = refreshTokenService.createRefreshToken(
+            IssuedRefreshToken refreshToken = refreshTokenService.issueRefreshToken(
                     username,
                     request.getEntityCode(),
                     httpRequest,
                     "LOGIN" // This is an initial login
             );
 
+            // Generate JWT access token (short-lived) with entityName and session ID
+            String accessToken = jwtUtil.generateToken(username, roles, request.getEntityCode(),
+                    refreshToken.getSessionId());
+
             // Build response - ALWAYS include all user data from database (if available)
             LoginResponse.LoginResponseBuilder responseBuilder = LoginResponse.builder()
                     .token(accessToken)
-                    .refreshToken(refreshToken)
+                    .refreshToken(refreshToken.getToken())
                     .type("Bearer")
                     .username(username)
                     .roles(roles)
@@ -199,6 +204,9 @@ public class AuthController {
 
             return ResponseEntity.ok(ApiResponse.success("Login successful", loginResponse));
 
+        } catch (ServiceBusyException e) {
+            // Password hashing saturated - handled by GlobalExceptionHandler (503 + Retry-After)
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for user {}: {}", username, e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -240,6 +248,9 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("User registered successfully", user));
 
+        } catch (ServiceBusyException e) {
+            // Password hashing saturated - handled by GlobalExceptionHandler (503 + Retry-After)
+            throw e;
         } catch (Exception e) {
             log.error("Registration failed for user {}: {}", request.getUsername(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -488,6 +499,9 @@ public class AuthController {
         try {
             PageResponse<SessionDTO> response = refreshTokenService.searchSessions(request);
             return ResponseEntity.ok(ApiResponse.success("Sessions retrieved successfully", response));
+        } catch (CustomValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to search sessions: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -591,6 +605,38 @@ public class AuthController {
         }
     }
 
+    /**
+     * ADMIN: Stream live dashboard statistics (Server-Sent Events).
+     *
+     * <p>Sends the current statistics as a {@code snapshot} event, then
+     * {@link com.template.business.auth.dto.DashboardDeltaDTO} {@code delta} events for
+     * logins, session revocations and user creation, deletion and status changes, plus
+     * periodic snapshots and heartbeats. Replaces polling {@code /admin/stats/dashboard}.
+     * The stream ends shortly before the access token expires. Requires ADMIN role.
+     *
+     * <p>Browsers' {@code EventSource} cannot send the Authorization header, so clients read
+     * the stream with {@code fetch} (see the admin frontend's {@code adminDashboardAPI}).
+     *
+     * @param authorization the Bearer access token
+     * @return the event stream
+     */
+    @Operation(
+        summary = "Stream dashboard statistics (Admin)",
+        description = "Server-Sent Events stream of dashboard snapshots and deltas. Requires ADMIN role.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stream opened"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Too many open dashboard streams")
+    })
+    @GetMapping(value = "/admin/stats/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamDashboardStats(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        // Subscriber limit (ServiceBusyException) is handled by GlobalExceptionHandler (503 + Retry-After)
+        long tokenExpiresAt = jwtUtil.extractExpiration(authorization.substring(7)).getTime();
+        return dashboardStreamService.subscribe(tokenExpiresAt);
+    }
+
     /**
      * Health check endpoint.
      *
@@ -72,6 +72,9 @@ public class EntityAdminController {
         try {
             PageResponse<EntityAdminDTO> response = entityAdminService.searchEntities(request);
             return ResponseEntity.ok(ApiResponse.success("Entities retrieved successfully", response));
+        } catch (CustomValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to search entities: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
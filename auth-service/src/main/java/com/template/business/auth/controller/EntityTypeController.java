@@ -2,8 +2,7 @@ package com.template.business.auth.controller;
 
 import com.template.business.auth.dto.ApiResponse;
 import com.template.business.auth.dto.EntityTypeDTO;
-import com.template.business.auth.entity.EntityType;
-import com.template.business.auth.repository.EntityTypeRepository;
+import com.template.business.auth.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,7 +17,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for entity type lookup operations.
@@ -36,7 +34,7 @@ import java.util.stream.Collectors;
 @Tag(name = "Entity Types", description = "Entity type lookup operations. Entity types define categories with ID generation tags.")
 public class EntityTypeController {
 
-    private final EntityTypeRepository entityTypeRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Get all entity types
@@ -50,10 +48,7 @@ public class EntityTypeController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<EntityTypeDTO>>> getAllEntityTypes() {
         try {
-            List<EntityType> entityTypes = entityTypeRepository.findAll();
-            List<EntityTypeDTO> dtos = entityTypes.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<EntityTypeDTO> dtos = referenceDataCache.getEntityTypes();
 
             log.info("Retrieved {} entity types", dtos.size());
 
@@ -64,17 +59,4 @@ public class EntityTypeController {
                     .body(ApiResponse.error("Failed to retrieve entity types"));
         }
     }
-
-    /**
-     * Convert entity to DTO
-     */
-    private EntityTypeDTO convertToDTO(EntityType entityType) {
-        return EntityTypeDTO.builder()
-                .tag(entityType.getTag())
-                .type(entityType.getType())
-                .description(entityType.getDescription())
-                .createDate(entityType.getCreateDate())
-                .createUser(entityType.getCreateUser())
-                .build();
-    }
 }
@@ -1,6 +1,7 @@
 package com.template.business.auth.controller;
 
 import com.template.business.auth.dto.ApiResponse;
+import com.template.business.auth.util.MetricsSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,15 +17,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Health check endpoints for monitoring and load balancers.
  *
- * <p>Provides two endpoints:
+ * <p>Provides three endpoints:
  * <ul>
  *   <li>/health - Public endpoint, no authentication required</li>
  *   <li>/healthDB - Protected endpoint, requires Bearer token, checks database connectivity</li>
+ *   <li>/healthMetrics - Protected endpoint, requires Bearer token, returns runtime counters</li>
  * </ul>
  *
  * @author Template Business
@@ -38,6 +42,7 @@ import java.util.Map;
 public class HealthController {
 
     private final JdbcTemplate jdbcTemplate;
+    private final List<MetricsSource> metricsSources;
 
     @Value("${ldap.enabled:false}")
     private boolean ldapEnabled;
@@ -109,4 +114,28 @@ public class HealthController {
 
         return ResponseEntity.ok(ApiResponse.success("Service and database are healthy", healthData));
     }
+
+    /**
+     * Runtime metrics - protected endpoint (requires authentication).
+     * Returns the counters of all registered {@link MetricsSource} components
+     * (caches, queues, executors), grouped by component.
+     *
+     * @return Metrics grouped by component name
+     */
+    @Operation(
+        summary = "Runtime metrics",
+        description = "Returns runtime counters (cache hit rates, queue depths, timings) of internal components.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/healthMetrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> healthMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("timestamp", LocalDateTime.now().toString());
+        metrics.put("service", "auth-service");
+        for (MetricsSource source : metricsSources) {
+            metrics.put(source.getMetricsName(), source.getMetrics());
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Runtime metrics", metrics));
+    }
 }
@@ -15,6 +15,7 @@ import com.template.business.auth.dto.MailingCreateRequest;
 import com.template.business.auth.dto.MailingDTO;
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.SearchRequest;
+import com.template.business.auth.exception.CustomValidationException;
 import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.service.MailingAdminService;
 
@@ -70,6 +71,9 @@ public class MailingAdminController {
         try {
             PageResponse<MailingDTO> response = mailingAdminService.searchMailings(request);
             return ResponseEntity.ok(ApiResponse.success("Mailings retrieved successfully", response));
+        } catch (CustomValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to search mailings: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
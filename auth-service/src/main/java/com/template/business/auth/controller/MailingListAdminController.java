@@ -56,6 +56,9 @@ public class MailingListAdminController {
         try {
             PageResponse<MailingListDTO> response = mailingListAdminService.searchMailingLists(request);
             return ResponseEntity.ok(ApiResponse.success("Mailing lists retrieved successfully", response));
+        } catch (CustomValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to search mailing lists: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
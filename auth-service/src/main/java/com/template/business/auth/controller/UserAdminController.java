@@ -8,6 +8,8 @@ import com.template.business.auth.dto.UserAdminDTO;
 import com.template.business.auth.dto.UserRoleAssignRequest;
 import com.template.business.auth.dto.UserStatusUpdateRequest;
 import com.template.business.auth.dto.UserUpdateRequest;
+import com.template.business.auth.exception.CustomValidationException;
+import com.template.business.auth.exception.ServiceBusyException;
 import com.template.business.auth.service.UserAdminService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -69,6 +71,9 @@ public class UserAdminController {
         try {
             UserAdminDTO user = userAdminService.createUser(request);
             return ResponseEntity.ok(ApiResponse.success("User created successfully", user));
+        } catch (ServiceBusyException e) {
+            // Password hashing saturated - handled by GlobalExceptionHandler (503 + Retry-After)
+            throw e;
         } catch (Exception e) {
             log.error("Failed to create user: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -88,6 +93,9 @@ public class UserAdminController {
         try {
             PageResponse<UserAdminDTO> response = userAdminService.searchUsers(request);
             return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", response));
+        } catch (CustomValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to search users: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -186,6 +194,9 @@ public class UserAdminController {
             } else {
                 return ResponseEntity.ok(ApiResponse.success("Password reset successfully. Temporary password: " + resultPassword, resultPassword));
             }
+        } catch (ServiceBusyException e) {
+            // Password hashing saturated - handled by GlobalExceptionHandler (503 + Retry-After)
+            throw e;
         } catch (Exception e) {
             log.error("Failed to reset password for user {}: {}", username, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
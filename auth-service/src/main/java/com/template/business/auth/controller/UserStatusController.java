@@ -2,8 +2,7 @@ package com.template.business.auth.controller;
 
 import com.template.business.auth.dto.ApiResponse;
 import com.template.business.auth.dto.UserStatusDTO;
-import com.template.business.auth.entity.UserStatus;
-import com.template.business.auth.repository.UserStatusRepository;
+import com.template.business.auth.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,7 +17,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for user status lookup operations.
@@ -36,7 +34,7 @@ import java.util.stream.Collectors;
 @Tag(name = "User Status", description = "User status lookup operations. Defines possible account states.")
 public class UserStatusController {
 
-    private final UserStatusRepository userStatusRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Get all user status values
@@ -50,10 +48,7 @@ public class UserStatusController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<UserStatusDTO>>> getAllUserStatuses() {
         try {
-            List<UserStatus> statuses = userStatusRepository.findAll();
-            List<UserStatusDTO> dtos = statuses.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<UserStatusDTO> dtos = referenceDataCache.getUserStatuses();
 
             log.info("Retrieved {} user status values", dtos.size());
 
@@ -64,16 +59,4 @@ public class UserStatusController {
                     .body(ApiResponse.error("Failed to retrieve user statuses"));
         }
     }
-
-    /**
-     * Convert entity to DTO
-     */
-    private UserStatusDTO convertToDTO(UserStatus userStatus) {
-        return UserStatusDTO.builder()
-                .status(userStatus.getStatus())
-                .description(userStatus.getDescription())
-                .createDate(userStatus.getCreateDate())
-                .createUser(userStatus.getCreateUser())
-                .build();
-    }
 }
@@ -0,0 +1,35 @@
+package com.template.business.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk log upload. Every record that is not listed in {@code rejections}
+ * was accepted (queued for writing).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppLogBatchResultDTO {
+
+    private int received; // Records read from the body
+    private int accepted;
+    private int rejected;
+    private List<Rejection> rejections;
+    private String error; // Set when the body could not be read to the end; later records were not processed
+    private Long retryAfterSeconds; // Set when the upload stopped because the ingestion queue was full
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+        private int index; // Zero-based position of the record in the body
+        private String reason;
+    }
+}
@@ -34,7 +34,10 @@ public class AppLogCreateRequest {
 
     private String notifiable; // Y/N - default N
 
-    // Note: username is automatically populated from the authenticated user (JWT token)
+    // Note: username is automatically populated from the authenticated user (JWT token).
+    // Only callers with the log shipper role (app-log.shipper-role) may set it, to send
+    // spooled logs on behalf of their users.
+    private String username;
 
     @NotBlank(message = "Create user is required")
     private String createUser; // System/service that created the log
@@ -0,0 +1,28 @@
+package com.template.business.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Incremental change to {@link DashboardStatsDTO} pushed over the dashboard stream (admin).
+ * Clients add the deltas to the last snapshot they received.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDeltaDTO {
+    private String type; // LOGIN, SESSIONS_REVOKED, USER_STATUS_CHANGED, USER_CREATED, USER_DELETED
+    private String entity; // null when the change spans entities (only totals are affected)
+    private long activeSessionsDelta;
+    private long sessionsLast24HoursDelta;
+    private long totalRefreshTokensDelta;
+    private long activeUsersDelta;
+    private long totalUsersDelta; // inactiveUsers changes by totalUsersDelta - activeUsersDelta
+    private DashboardStatsDTO.RecentActivity recentActivity; // new entry for the top of the list (LOGIN only)
+    private Date timestamp;
+}
@@ -1,63 +1,73 @@
 package com.template.business.auth.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
+import java.util.Date;
 import java.util.List;
 
 /**
  * DTO for dashboard statistics (admin)
+ * <p>
+ * Immutable: one snapshot is cached by
+ * {@link com.template.business.auth.service.DashboardStatisticsService} and shared by
+ * every caller and dashboard stream subscriber. The lists are copied on construction
+ * and {@link #getGeneratedAt()} returns a copy.
+ * </p>
  */
-@Data
+@Value
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
 public class DashboardStatsDTO {
-    private UserStats userStats;
-    private SessionStats sessionStats;
-    private List<EntitySessionStats> sessionsByEntity;
-    private List<RecentActivity> recentActivity;
+    UserStats userStats;
+    SessionStats sessionStats;
+    List<EntitySessionStats> sessionsByEntity;
+    List<RecentActivity> recentActivity;
+    Date generatedAt; // when this snapshot was computed
 
-    @Data
+    public DashboardStatsDTO(UserStats userStats, SessionStats sessionStats,
+                             List<EntitySessionStats> sessionsByEntity,
+                             List<RecentActivity> recentActivity, Date generatedAt) {
+        this.userStats = userStats;
+        this.sessionStats = sessionStats;
+        this.sessionsByEntity = sessionsByEntity != null ? List.copyOf(sessionsByEntity) : List.of();
+        this.recentActivity = recentActivity != null ? List.copyOf(recentActivity) : List.of();
+        this.generatedAt = generatedAt != null ? new Date(generatedAt.getTime()) : null;
+    }
+
+    public Date getGeneratedAt() {
+        return generatedAt != null ? new Date(generatedAt.getTime()) : null;
+    }
+
+    @Value
     @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
     public static class UserStats {
-        private long totalUsers;
-        private long activeUsers;
-        private long inactiveUsers;
+        long totalUsers;
+        long activeUsers;
+        long inactiveUsers;
     }
 
-    @Data
+    @Value
     @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
     public static class SessionStats {
-        private long totalActiveSessions;
-        private long sessionsLast24Hours;
-        private long totalRefreshTokens;
+        long totalActiveSessions;
+        long sessionsLast24Hours;
+        long totalRefreshTokens;
     }
 
-    @Data
+    @Value
     @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
     public static class EntitySessionStats {
-        private String entity;
-        private long activeSessions;
-        private long totalUsers;
+        String entity;
+        long activeSessions;
+        long totalUsers;
     }
 
-    @Data
+    @Value
     @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
     public static class RecentActivity {
-        private String username;
-        private String action; // LOGIN, LOGOUT, TOKEN_REFRESH
-        private String ipAddress;
-        private String timestamp;
+        String username;
+        String action; // LOGIN, LOGOUT, TOKEN_REFRESH
+        String ipAddress;
+        String timestamp;
     }
 }
@@ -0,0 +1,17 @@
+package com.template.business.auth.dto;
+
+import lombok.Value;
+
+/**
+ * A newly issued refresh token together with the ID of the session row it created.
+ * <p>
+ * The plain token is returned to the client exactly once; only its hash is stored.
+ * The session ID is embedded in the access token issued alongside it ({@code sid} claim).
+ * </p>
+ */
+@Value
+public class IssuedRefreshToken {
+
+    Long sessionId;
+    String token;
+}
@@ -21,6 +21,9 @@ public class PageResponse<T> {
     private boolean first;
     private boolean last;
     private boolean empty;
+    private boolean hasNext;
+    private boolean totalCapped; // bounded count reached its limit: totalElements is a lower bound
+    private String nextCursor; // keyset pagination only, null on the last page
 
     public static <T> PageResponse<T> of(Page<T> page) {
         return PageResponse.<T>builder()
@@ -32,6 +35,7 @@ public class PageResponse<T> {
                 .first(page.isFirst())
                 .last(page.isLast())
                 .empty(page.isEmpty())
+                .hasNext(page.hasNext())
                 .build();
     }
 }
@@ -13,10 +13,14 @@ import java.util.Map;
 @AllArgsConstructor
 public class SearchRequest {
     private Map<String, String> filters;
+    private Map<String, String> filterModes; // field -> "contains" (default, "equals" for ID fields), "startsWith" or "equals"
     private Map<String, DateRange> dateRanges;
     private SortInfo sort;
     private int page;
     private int pageSize;
+    private String totalMode; // "exact" (default), "bounded" (count up to a limit) or "none" (hasNext only)
+    private boolean keyset; // seek pagination: page is ignored, continue from "after"
+    private String after; // nextCursor of the previous keyset page (null for the first page)
 
     @Data
     @Builder
@@ -0,0 +1,127 @@
+package com.template.business.auth.dto;
+
+import com.template.business.auth.entity.User;
+import lombok.Builder;
+import lombok.ToString;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of a user and their active roles.
+ * <p>
+ * Cached by {@link com.template.business.auth.service.DatabaseUserDetailsService} so
+ * that logins, refreshes and authenticated requests do not reload the user from the
+ * database. Holds only what those paths read: credentials, status, profile fields
+ * for the login response and active roles grouped by entity ID.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Value
+@Builder
+@ToString(exclude = {"password", "image"})
+public class UserSnapshot {
+
+    String username;
+    String password;
+    String status;
+    String firstName;
+    String lastName;
+    String email;
+    String company;
+    String theme;
+    String paletteId;
+    String image;
+
+    /**
+     * Active role names keyed by entity ID.
+     */
+    Map<String, List<String>> activeRolesByEntity;
+
+    /**
+     * Whether the user has any role assignment at all (active or not).
+     */
+    boolean roleAssignments;
+
+    /**
+     * Creates a snapshot from a user entity whose roles are already loaded.
+     *
+     * @param user the user entity
+     * @return an immutable snapshot of the user
+     */
+    public static UserSnapshot from(User user) {
+        Map<String, List<String>> rolesByEntity = user.getUserRoles() == null
+                ? Collections.emptyMap()
+                : user.getUserRoles().stream()
+                        .filter(ur -> "ACTIVE".equals(ur.getStatus()))
+                        .collect(Collectors.groupingBy(
+                                ur -> ur.getId().getEntity(),
+                                Collectors.collectingAndThen(
+                                        Collectors.mapping(ur -> ur.getId().getRole(), Collectors.toList()),
+                                        roles -> roles.stream().distinct().collect(Collectors.toUnmodifiableList()))));
+
+        return UserSnapshot.builder()
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .status(user.getStatus())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .company(user.getCompany())
+                .theme(user.getTheme())
+                .paletteId(user.getPaletteId())
+                .image(user.getImage())
+                .activeRolesByEntity(Map.copyOf(rolesByEntity))
+                .roleAssignments(user.getUserRoles() != null && !user.getUserRoles().isEmpty())
+                .build();
+    }
+
+    /**
+     * Checks whether the user account is active.
+     *
+     * @return true if status is ACTIVE
+     */
+    public boolean isActive() {
+        return "ACTIVE".equals(status);
+    }
+
+    /**
+     * Returns the user's active roles for one entity.
+     *
+     * @param entity the entity ID
+     * @return active role names, empty if none
+     */
+    public List<String> getActiveRoles(String entity) {
+        if (entity == null) {
+            return Collections.emptyList();
+        }
+        return activeRolesByEntity.getOrDefault(entity, Collections.emptyList());
+    }
+
+    /**
+     * Returns the user's active roles across all entities.
+     *
+     * @return distinct active role names
+     */
+    public Set<String> getAllActiveRoles() {
+        Set<String> roles = new LinkedHashSet<>();
+        activeRolesByEntity.values().forEach(roles::addAll);
+        return roles;
+    }
+
+    /**
+     * Checks whether the user has at least one role assignment, active or not.
+     *
+     * @return true if the user has role assignments in the database
+     */
+    public boolean hasRoleAssignments() {
+        return roleAssignments;
+    }
+}
@@ -26,7 +26,7 @@ public class AppLog {
     @Id
     @Column(name = "ID", nullable = false, insertable = false, updatable = false)
     @org.hibernate.annotations.Generated(event = EventType.INSERT)
-    private Long id; // ID is generated by database trigger (T_APP_LOG_BIFER)
+    private Long id; // Assigned from T_APP_LOG_SEQ01 by AppLogIngestionService (trigger T_APP_LOG_BIFER for other writers)
 
     @Column(name = "ENTITY", length = 100)
     private String entity; // FK to D_ENTITIES.ID
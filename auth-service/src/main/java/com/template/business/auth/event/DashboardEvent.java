@@ -0,0 +1,79 @@
+package com.template.business.auth.event;
+
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * In-process event describing a change that affects the admin dashboard figures.
+ * <p>
+ * Published by the session and user administration services through Spring's
+ * {@link org.springframework.context.ApplicationEventPublisher} and turned into
+ * dashboard deltas by {@link com.template.business.auth.service.DashboardStreamService}
+ * after the surrounding transaction commits.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Value
+public class DashboardEvent {
+
+    public enum Type {
+        LOGIN,
+        SESSIONS_REVOKED,
+        USER_STATUS_CHANGED,
+        USER_CREATED,
+        USER_DELETED
+    }
+
+    Type type;
+    String username;
+
+    /**
+     * Entity whose sessions changed, or null when the change spans entities.
+     */
+    String entity;
+
+    String ipAddress;
+
+    /**
+     * Sessions revoked by this change (for a login: revoked by the session limit).
+     */
+    int revokedSessions;
+
+    /**
+     * +1 when a user became ACTIVE, -1 when an ACTIVE user was deactivated, 0 otherwise.
+     */
+    int activeUsersDelta;
+
+    /**
+     * +1 when a user was created, -1 when one was deleted, 0 otherwise.
+     */
+    int totalUsersDelta;
+
+    Date timestamp;
+
+    public static DashboardEvent login(String username, String entity, String ipAddress, int revokedSessions) {
+        return new DashboardEvent(Type.LOGIN, username, entity, ipAddress, revokedSessions, 0, 0, new Date());
+    }
+
+    public static DashboardEvent sessionsRevoked(String username, String entity, int count) {
+        return new DashboardEvent(Type.SESSIONS_REVOKED, username, entity, null, count, 0, 0, new Date());
+    }
+
+    public static DashboardEvent userStatusChanged(String username, String oldStatus, String newStatus) {
+        int delta = ("ACTIVE".equals(newStatus) ? 1 : 0) - ("ACTIVE".equals(oldStatus) ? 1 : 0);
+        return new DashboardEvent(Type.USER_STATUS_CHANGED, username, null, null, 0, delta, 0, new Date());
+    }
+
+    public static DashboardEvent userCreated(String username, String status) {
+        return new DashboardEvent(Type.USER_CREATED, username, null, null, 0,
+                "ACTIVE".equals(status) ? 1 : 0, 1, new Date());
+    }
+
+    public static DashboardEvent userDeleted(String username, String status) {
+        return new DashboardEvent(Type.USER_DELETED, username, null, null, 0,
+                "ACTIVE".equals(status) ? -1 : 0, -1, new Date());
+    }
+}
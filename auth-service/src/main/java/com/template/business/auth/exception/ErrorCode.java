@@ -23,6 +23,7 @@ public enum ErrorCode {
     UNSUPPORTED_MEDIA_TYPE("007", "The provided content type is not supported."),
     MALFORMED_REQUEST("008", "The request body is missing or malformed."),
     MISSING_PARAMETER("009", "A required request parameter is missing."),
+    SERVICE_BUSY("010", "The service is temporarily busy. Please retry later."),
 
     // Authentication errors (100-199)
     AUTHENTICATION_ERROR("100", "Authentication failed. Please check your credentials."),
@@ -0,0 +1,52 @@
+package com.template.business.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a bounded internal resource is saturated and the
+ * request should be retried later.
+ *
+ * <p>Mapped to HTTP 503 with a {@code Retry-After} header by
+ * {@link GlobalExceptionHandler}. Used to fail fast instead of queueing
+ * CPU-heavy work (e.g. password hashing) without limit.
+ *
+ * <p>Example usage:
+ * <pre>
+ * throw new ServiceBusyException(
+ *     ErrorCode.SERVICE_BUSY,
+ *     "Password hashing capacity exhausted",
+ *     2
+ * );
+ * </pre>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Getter
+public class ServiceBusyException extends BaseException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor with error code and retry hint (uses default message).
+     *
+     * @param errorCode the error code
+     * @param retryAfterSeconds seconds the client should wait before retrying
+     */
+    public ServiceBusyException(ErrorCode errorCode, long retryAfterSeconds) {
+        super(errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Constructor with error code, custom message and retry hint.
+     *
+     * @param errorCode the error code
+     * @param customMessage custom error message
+     * @param retryAfterSeconds seconds the client should wait before retrying
+     */
+    public ServiceBusyException(ErrorCode errorCode, String customMessage, long retryAfterSeconds) {
+        super(errorCode, customMessage);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
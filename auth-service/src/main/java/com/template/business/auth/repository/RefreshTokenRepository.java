@@ -1,6 +1,7 @@
 package com.template.business.auth.repository;
 
 import com.template.business.auth.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -74,6 +75,30 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
             @Param("now") Date now
     );
 
+    /**
+     * Revoke the oldest active tokens of a user and application so that at most
+     * {@code keep} active tokens remain (session limit enforcement in one statement).
+     * A token is revoked when at least {@code keep} newer active tokens exist.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now " +
+           "WHERE rt.username = :username " +
+           "AND rt.entity = :entity " +
+           "AND rt.revoked = false " +
+           "AND rt.expiresAt > :now " +
+           "AND (SELECT COUNT(n) FROM RefreshToken n " +
+           "     WHERE n.username = :username " +
+           "     AND n.entity = :entity " +
+           "     AND n.revoked = false " +
+           "     AND n.expiresAt > :now " +
+           "     AND (n.createDate > rt.createDate OR (n.createDate = rt.createDate AND n.id > rt.id))) >= :keep")
+    int revokeExcessActiveTokens(
+            @Param("username") String username,
+            @Param("entity") String entity,
+            @Param("now") Date now,
+            @Param("keep") long keep
+    );
+
     /**
      * Revoke all tokens for a user across all applications
      */
@@ -87,29 +112,63 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     );
 
     /**
-     * Revoke a specific token by its hash
+     * Atomically consume a refresh token for rotation (compare-and-swap).
+     * Revokes the token only if it is still active; the affected-row count (1 or 0)
+     * decides which of several concurrent refreshes with the same token wins.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now, rt.lastUsedAt = :now " +
+           "WHERE rt.id = :id " +
+           "AND rt.revoked = false " +
+           "AND rt.expiresAt > :now")
+    int revokeIfActive(
+            @Param("id") Long id,
+            @Param("now") Date now
+    );
+
+    /**
+     * Revoke a specific token by its hash (already revoked tokens keep their revocation time)
      */
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now " +
-           "WHERE rt.tokenHash = :tokenHash")
+           "WHERE rt.tokenHash = :tokenHash AND rt.revoked = false")
     int revokeTokenByHash(
             @Param("tokenHash") String tokenHash,
             @Param("now") Date now
     );
 
     /**
-     * Delete expired tokens (cleanup job)
+     * Revoke a specific token by its ID, provided the hash matches (primary key lookup)
+     * Already revoked tokens keep their revocation time
      */
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    int deleteExpiredTokens(@Param("now") Date now);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now " +
+           "WHERE rt.id = :id AND rt.tokenHash = :tokenHash AND rt.revoked = false")
+    int revokeTokenByIdAndHash(
+            @Param("id") Long id,
+            @Param("tokenHash") String tokenHash,
+            @Param("now") Date now
+    );
+
+    /**
+     * Find IDs of expired tokens, one chunk at a time (cleanup job)
+     * The page size becomes a row limit (FETCH FIRST / LIMIT, depending on the dialect)
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiresAt < :now ORDER BY rt.id")
+    List<Long> findExpiredTokenIds(@Param("now") Date now, Pageable pageable);
 
     /**
-     * Delete revoked tokens older than specified date (cleanup job)
+     * Find IDs of revoked tokens older than specified date, one chunk at a time (cleanup job)
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.revoked = true AND rt.revokedAt < :date ORDER BY rt.id")
+    List<Long> findRevokedTokenIdsOlderThan(@Param("date") Date date, Pageable pageable);
+
+    /**
+     * Delete tokens by ID (one cleanup chunk)
      */
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.revoked = true AND rt.revokedAt < :date")
-    int deleteRevokedTokensOlderThan(@Param("date") Date date);
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 
     /**
      * Find all tokens for admin monitoring (with pagination support via JpaRepository)
@@ -118,6 +177,31 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
            "ORDER BY rt.lastUsedAt DESC, rt.createDate DESC")
     List<RefreshToken> findAllActiveTokens(@Param("now") Date now);
 
+    /**
+     * Count all active tokens (dashboard)
+     */
+    @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.revoked = false AND rt.expiresAt > :now")
+    long countAllActiveTokens(@Param("now") Date now);
+
+    /**
+     * Count tokens created after the given date (dashboard)
+     */
+    long countByCreateDateAfter(Date date);
+
+    /**
+     * Active sessions per entity: [entity, active sessions, distinct users] (dashboard)
+     */
+    @Query("SELECT rt.entity, COUNT(rt), COUNT(DISTINCT rt.username) FROM RefreshToken rt " +
+           "WHERE rt.revoked = false AND rt.expiresAt > :now " +
+           "GROUP BY rt.entity ORDER BY rt.entity")
+    List<Object[]> countActiveTokensByEntity(@Param("now") Date now);
+
+    /**
+     * Most recent tokens of a creation type, newest first; the page size limits the rows (dashboard)
+     */
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.creationType = :creationType ORDER BY rt.createDate DESC")
+    List<RefreshToken> findRecentByCreationType(@Param("creationType") String creationType, Pageable pageable);
+
     /**
      * Find tokens by IP address (security monitoring)
      */
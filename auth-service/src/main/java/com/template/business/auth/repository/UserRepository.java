@@ -1,8 +1,12 @@
 package com.template.business.auth.repository;
 
 import com.template.business.auth.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,7 +16,26 @@ public interface UserRepository extends JpaRepository<User, String>, JpaSpecific
 
     Optional<User> findByUsername(String username);
 
+    /**
+     * Loads a user together with their role assignments in a single query.
+     */
+    @EntityGraph(attributePaths = {"userRoles", "userRoles.role"})
+    Optional<User> findWithRolesByUsername(String username);
+
     boolean existsByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    long countByStatus(String status);
+
+    /**
+     * Replaces a password hash only if it has not changed since it was read
+     * (used for transparent rehash on login, so a concurrent reset is never overwritten).
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword " +
+           "WHERE u.username = :username AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("username") String username,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
 }
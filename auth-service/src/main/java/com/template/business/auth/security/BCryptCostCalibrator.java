@@ -0,0 +1,74 @@
+package com.template.business.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt cost (log2 rounds) for the machine the service is running on.
+ * <p>
+ * Each BCrypt cost step doubles the hashing time, so the right value depends on the
+ * hardware. At startup this calibrator times a few hashes per candidate cost, starting
+ * at the configured minimum, and returns the highest cost whose median hash time stays
+ * within the latency target. It never returns less than the minimum cost, so a slow
+ * machine does not silently weaken stored hashes.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ * @see com.template.business.auth.config.PasswordEncoderConfig
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Finds the strongest BCrypt cost that fits the latency target.
+     *
+     * @param targetMs maximum acceptable time for one hash, in milliseconds
+     * @param minCost lowest cost that may be returned
+     * @param maxCost highest cost that will be tried
+     * @return the selected BCrypt cost
+     */
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        int selected = minCost;
+
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            long medianMs = measureMedianMs(cost);
+            log.info("BCrypt calibration: cost={} median={} ms (target {} ms)", cost, medianMs, targetMs);
+
+            if (medianMs > targetMs) {
+                break;
+            }
+            selected = cost;
+
+            // Next step roughly doubles the time - skip measuring it if it cannot fit
+            if (medianMs * 2 > targetMs) {
+                break;
+            }
+        }
+
+        log.info("BCrypt calibration selected cost {}", selected);
+        return selected;
+    }
+
+    private static long measureMedianMs(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        String hash = encoder.encode(SAMPLE_PASSWORD); // warm-up, also gives a hash to verify
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,184 @@
+package com.template.business.auth.security;
+
+import com.template.business.auth.exception.ErrorCode;
+import com.template.business.auth.exception.InternalApiException;
+import com.template.business.auth.exception.ServiceBusyException;
+import com.template.business.auth.util.MetricsSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password encoder that runs all hashing work on a dedicated, bounded thread pool.
+ * <p>
+ * BCrypt is deliberately CPU-heavy. Running it on request threads without a limit
+ * lets a burst of logins pin every core and starve cheap requests (token refresh,
+ * log ingestion). This encoder delegates to the real encoder on a fixed pool sized
+ * to the CPU count with a bounded wait queue:
+ * <ul>
+ *   <li>If the queue is full, the call fails immediately with {@link ServiceBusyException}</li>
+ *   <li>If the work does not complete within the wait timeout, the call fails the same way</li>
+ *   <li>Callers see HTTP 503 with a {@code Retry-After} header</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Queue time (submit to start) and hash time (start to finish) are recorded and
+ * exposed through {@link MetricsSource}.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ * @see com.template.business.auth.config.PasswordEncoderConfig
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, MetricsSource {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+    private final long retryAfterSeconds;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueTimeTotalNanos = new LongAdder();
+    private final LongAdder hashTimeTotalNanos = new LongAdder();
+    private final AtomicLong queueTimeMaxNanos = new AtomicLong();
+    private final AtomicLong hashTimeMaxNanos = new AtomicLong();
+
+    /**
+     * Creates a bounded encoder.
+     *
+     * @param delegate the encoder doing the actual hashing
+     * @param threads number of hashing threads (0 or less = number of CPUs)
+     * @param queueCapacity maximum number of hashing requests waiting for a thread
+     * @param waitTimeoutMs maximum time a caller waits for its result
+     * @param retryAfterSeconds Retry-After hint returned to clients when saturated
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long waitTimeoutMs, long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.delegate = delegate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("PwdHash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Password hashing executor configured: threads={}, queueCapacity={}, waitTimeoutMs={}",
+                poolSize, queueCapacity, waitTimeoutMs);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the hash prefix - cheap, no need to go through the pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs one hashing operation on the pool and waits for its result.
+     *
+     * @throws ServiceBusyException if the pool is saturated or the result does not arrive in time
+     */
+    private <T> T execute(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                record(queueTimeTotalNanos, queueTimeMaxNanos, startedAt - submittedAt);
+                try {
+                    return work.call();
+                } finally {
+                    record(hashTimeTotalNanos, hashTimeMaxNanos, System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue full ({} waiting), rejecting request", executor.getQueue().size());
+            throw new ServiceBusyException(ErrorCode.SERVICE_BUSY,
+                    "Too many concurrent sign-in requests. Please retry shortly.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            log.warn("Password hashing did not complete within {} ms", waitTimeoutMs);
+            throw new ServiceBusyException(ErrorCode.SERVICE_BUSY,
+                    "Too many concurrent sign-in requests. Please retry shortly.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(ErrorCode.SERVICE_BUSY, retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InternalApiException(ErrorCode.INTERNAL_SERVER_ERROR, "Password hashing failed", e.getCause());
+        }
+    }
+
+    private static void record(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Stops the hashing threads. Queued work is abandoned; waiting callers time out.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "passwordHashing";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long count = completed.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("completed", count);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("timedOut", timedOut.sum());
+        metrics.put("queueTimeAvgMs", count == 0 ? 0 : queueTimeTotalNanos.sum() / count / 1_000_000.0);
+        metrics.put("queueTimeMaxMs", queueTimeMaxNanos.get() / 1_000_000.0);
+        metrics.put("hashTimeAvgMs", count == 0 ? 0 : hashTimeTotalNanos.sum() / count / 1_000_000.0);
+        metrics.put("hashTimeMaxMs", hashTimeMaxNanos.get() / 1_000_000.0);
+        return metrics;
+    }
+}
@@ -1,5 +1,6 @@
 package com.template.business.auth.security;
 
+import com.template.business.auth.exception.ServiceBusyException;
 import com.template.business.auth.service.DatabaseUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +33,10 @@ import org.springframework.stereotype.Component;
  * </ol>
  * </p>
  * <p>
+ * After a successful database login, password hashes produced with an older
+ * algorithm or a lower BCrypt cost are transparently re-encoded and stored.
+ * </p>
+ * <p>
  * Configuration properties:
  * <ul>
  *   <li>{@code ldap.enabled} - Enables or disables LDAP authentication</li>
@@ -97,6 +102,9 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
                 log.info("User {} authenticated successfully via DATABASE", username);
                 return dbAuth;
             }
+        } catch (ServiceBusyException e) {
+            // Password hashing capacity exhausted - not a credential failure, surface as 503
+            throw e;
         } catch (Exception e) {
             log.debug("Database authentication failed for user {}: {}", username, e.getMessage());
         }
@@ -157,6 +165,8 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
             throw new BadCredentialsException("Invalid password");
         }
 
+        upgradePasswordIfNeeded(userDetails, password);
+
         return new UsernamePasswordAuthenticationToken(
             userDetails,
             password,
@@ -164,6 +174,25 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         );
     }
 
+    /**
+     * Re-encodes the password with the current algorithm and cost if the stored hash
+     * is outdated. Failures never affect the login itself - the upgrade is retried
+     * on the next successful login.
+     *
+     * @param userDetails the authenticated user (carrying the stored hash)
+     * @param password the raw password that was just verified
+     */
+    private void upgradePasswordIfNeeded(UserDetails userDetails, String password) {
+        if (!passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+            return;
+        }
+        try {
+            databaseUserDetailsService.updatePassword(userDetails, passwordEncoder.encode(password));
+        } catch (Exception e) {
+            log.warn("Password hash upgrade failed for user {}: {}", userDetails.getUsername(), e.getMessage());
+        }
+    }
+
     /**
      * Sets the LDAP authentication provider.
      * <p>
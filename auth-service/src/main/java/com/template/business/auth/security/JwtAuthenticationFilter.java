@@ -1,6 +1,7 @@
 package com.template.business.auth.security;
 
 import com.template.business.auth.service.DatabaseUserDetailsService;
+import com.template.business.auth.service.SessionActivityBuffer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +19,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * JWT Authentication Filter for validating JWT tokens on incoming requests.
@@ -27,13 +32,23 @@ import java.io.IOException;
  * <p>Filter execution flow:
  * <ol>
  *   <li>Extract JWT token from Authorization header (Bearer token)</li>
- *   <li>Validate token signature and expiration</li>
- *   <li>Extract username from token claims</li>
- *   <li>Load user details from database (including roles)</li>
+ *   <li>Verify token signature and expiration once via {@link JwtUtil#verify(String)}</li>
+ *   <li>Read username and entity name from the verified claims</li>
+ *   <li>Load user details from database (including roles), or build them from the
+ *       token's {@code roles} claim in claims-only mode</li>
  *   <li>Create Authentication object and set in SecurityContext</li>
  *   <li>Continue filter chain</li>
  * </ol>
  *
+ * <p>Claims-only mode ({@code jwt.auth.claims-only=true}) skips the database lookup
+ * entirely. Deactivations, deletions and role removals still take effect immediately
+ * through {@link UserInvalidationRegistry}, which rejects tokens issued before the
+ * user's last change.
+ *
+ * <p>Tokens carrying a session ID ({@code sid} claim) record activity for that session
+ * in {@link SessionActivityBuffer}, which updates the session's "last used" time in
+ * periodic batches instead of on every request.
+ *
  * <p>If no token is present or token is invalid, the filter chain continues
  * without setting authentication. Spring Security will handle authorization
  * based on endpoint configuration.
@@ -42,6 +57,8 @@ import java.io.IOException;
  * @version 1.0
  * @see JwtUtil
  * @see DatabaseUserDetailsService
+ * @see UserInvalidationRegistry
+ * @see SessionActivityBuffer
  */
 @Slf4j
 @Component
@@ -49,13 +66,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final DatabaseUserDetailsService userDetailsService;
+    private final UserInvalidationRegistry invalidationRegistry;
+    private final SessionActivityBuffer sessionActivityBuffer;
 
     @Value("${app.logging.entity-name}")
     private String configuredEntityName;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, DatabaseUserDetailsService userDetailsService) {
+    @Value("${jwt.auth.claims-only:false}")
+    private boolean claimsOnly;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, DatabaseUserDetailsService userDetailsService,
+                                   UserInvalidationRegistry invalidationRegistry,
+                                   SessionActivityBuffer sessionActivityBuffer) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.invalidationRegistry = invalidationRegistry;
+        this.sessionActivityBuffer = sessionActivityBuffer;
     }
 
     /**
@@ -90,24 +116,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             final String jwt = authHeader.substring(7);
             log.debug("JWT Filter: Processing request to: {}", request.getRequestURI());
 
-            // Extract username from token
-            final String username = jwtUtil.extractUsername(jwt);
+            // Verify token once (signature + expiry); repeated tokens are served from cache
+            final VerifiedToken verifiedToken = jwtUtil.verify(jwt);
+            final String username = verifiedToken.getUsername();
             log.debug("JWT Filter: Extracted username: {}", username);
 
             // If username is present and user is not already authenticated
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Load user details from database (includes roles)
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails;
+                if (claimsOnly) {
+                    // Reject tokens issued before the user was deactivated or lost a role
+                    if (invalidationRegistry.isInvalidated(verifiedToken)) {
+                        log.warn("JWT Filter: Token for user {} was issued before the user was last changed", username);
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    // Build user details from verified claims (no database round trip)
+                    userDetails = buildUserDetailsFromClaims(verifiedToken);
+                } else {
+                    // Load user details from database (includes roles)
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                }
                 log.debug("JWT Filter: Loaded user details for: {}, authorities: {}",
                         username, userDetails.getAuthorities());
 
                 // Validate token against user details
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (jwtUtil.validateToken(verifiedToken, userDetails)) {
 
                     // Validate entity name - but only for entity-specific endpoints (admin endpoints)
                     // Entity-agnostic endpoints (user's own operations) can be accessed with any valid token
-                    String tokenEntityName = jwtUtil.extractEntityName(jwt);
+                    String tokenEntityName = verifiedToken.getEntityName();
                     if (tokenEntityName != null && !tokenEntityName.equals(configuredEntityName)) {
                         // Check if this is an entity-specific endpoint that requires matching entity
                         if (isEntitySpecificEndpoint(request.getRequestURI())) {
@@ -137,6 +176,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     // Now Spring Security knows this user is authenticated
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
+                    // Mark the session as used (coalesced and written in batches)
+                    sessionActivityBuffer.record(verifiedToken.getSessionId());
+
                     log.debug("JWT Filter: Successfully authenticated user: {} with roles: {}",
                             username, userDetails.getAuthorities());
                 } else {
@@ -158,6 +200,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds user details from the roles carried in a verified token.
+     *
+     * <p>Roles are stored without prefix in the token ("ADMIN") and converted to
+     * Spring Security authorities ("ROLE_ADMIN"), matching {@link DatabaseUserDetailsService}.
+     * Only the roles of the entity the token was issued for are available.
+     *
+     * @param verifiedToken the verified access token
+     * @return user details without password, carrying the token's authorities
+     */
+    private UserDetails buildUserDetailsFromClaims(VerifiedToken verifiedToken) {
+        List<GrantedAuthority> authorities = verifiedToken.getRoles().stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(verifiedToken.getUsername())
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
     /**
      * Determine if this filter should be applied to the current request.
      *
@@ -187,6 +252,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                path.startsWith("/auth/webjars");
     }
 
+    /**
+     * Authenticate async dispatches too (e.g. the completion of the dashboard stream), so they
+     * are authorized like the original request instead of being permitted unconditionally.
+     * The token is served from the verification cache.
+     *
+     * @return false to apply the filter to async dispatches
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     /**
      * Determine if the endpoint requires entity-specific token validation.
      *
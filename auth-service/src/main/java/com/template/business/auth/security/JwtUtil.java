@@ -1,17 +1,29 @@
 package com.template.business.auth.security;
 
+import com.template.business.auth.exception.ErrorCode;
+import com.template.business.auth.exception.InternalApiException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -30,13 +42,21 @@ import java.util.stream.Collectors;
  *   <li>Claims extraction (username, expiration, custom claims)</li>
  *   <li>Configurable secret key and expiration time via application properties</li>
  *   <li>Support for embedding user roles in token claims</li>
+ *   <li>Single-parse verification into an immutable {@link VerifiedToken}</li>
+ *   <li>Bounded, expiry-aware cache of already verified tokens</li>
  * </ul>
  * </p>
  * <p>
+ * The signing key and parser are built once at startup. Verified tokens are cached
+ * under a SHA-256 digest of the token string until they expire, so repeated requests
+ * with the same access token skip HMAC verification and JSON parsing.
+ * </p>
+ * <p>
  * Configuration properties:
  * <ul>
  *   <li>{@code jwt.secret} - Secret key for token signing</li>
  *   <li>{@code jwt.expiration} - Token expiration time in milliseconds</li>
+ *   <li>{@code jwt.verified-cache.max-size} - Maximum number of cached verified tokens</li>
  * </ul>
  * </p>
  *
@@ -45,6 +65,7 @@ import java.util.stream.Collectors;
  * @see io.jsonwebtoken.Jwts
  * @see org.springframework.security.core.userdetails.UserDetails
  */
+@Slf4j
 @Component
 public class JwtUtil {
 
@@ -54,17 +75,101 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
     /**
-     * Generates the HMAC signing key from the configured secret.
+     * Builds the HMAC signing key and the JWT parser once at startup.
      * <p>
-     * Converts the secret string to bytes and creates an HMAC SHA key
-     * suitable for HS256 signature algorithm.
+     * Both objects are thread-safe and reused for every token operation.
      * </p>
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        log.info("JwtUtil initialized: verified token cache max size={}", verifiedCacheMaxSize);
+    }
+
+    /**
+     * Returns the HMAC signing key built from the configured secret.
      *
      * @return the signing key for JWT operations
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Verifies a JWT token and returns an immutable view of its claims.
+     * <p>
+     * The token is parsed and its signature checked at most once while it is valid.
+     * Subsequent calls with the same token are served from the verified-token cache
+     * until the token expires.
+     * </p>
+     *
+     * @param token the JWT token to verify
+     * @return the verified token claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String cacheKey = digest(token);
+
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verifiedTokens.remove(cacheKey, cached);
+        }
+
+        // Throws ExpiredJwtException for expired tokens, SignatureException for tampered ones
+        VerifiedToken verified = VerifiedToken.from(extractAllClaims(token));
+
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            evictVerifiedTokens(now);
+        }
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
+    }
+
+    /**
+     * Removes expired entries from the verified-token cache and, if the cache is
+     * still full, drops entries until it is back under its size limit.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    private void evictVerifiedTokens(long now) {
+        verifiedTokens.values().removeIf(token -> token.isExpired(now));
+
+        Iterator<String> iterator = verifiedTokens.keySet().iterator();
+        int target = verifiedCacheMaxSize - Math.max(1, verifiedCacheMaxSize / 10);
+        while (verifiedTokens.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Computes the cache key for a token (Base64 SHA-256 digest of the token string).
+     *
+     * @throws InternalApiException if SHA-256 algorithm is not available
+     */
+    private String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalApiException(ErrorCode.INTERNAL_SERVER_ERROR, "SHA-256 algorithm not found", e);
+        }
     }
 
     /**
@@ -77,7 +182,7 @@ public class JwtUtil {
      * @return the username contained in the token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getUsername();
     }
 
     /**
@@ -87,7 +192,8 @@ public class JwtUtil {
      * @return the expiration date of the token
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = verify(token).getExpiration();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     /**
@@ -102,8 +208,7 @@ public class JwtUtil {
      */
     public String extractEntityName(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("entityName", String.class);
+            return verify(token).getEntityName();
         } catch (Exception e) {
             return null;
         }
@@ -129,17 +234,16 @@ public class JwtUtil {
     /**
      * Extracts all claims from a JWT token.
      * <p>
-     * Parses and validates the token signature, then returns all claims
-     * contained in the token body.
+     * Parses and validates the token signature with the shared parser, then
+     * returns all claims contained in the token body. This always performs a
+     * full parse; prefer {@link #verify(String)} on hot paths.
      * </p>
      *
      * @param token the JWT token to parse
      * @return all claims from the token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -151,7 +255,7 @@ public class JwtUtil {
      * @return true if the token has expired, false otherwise
      */
     private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verify(token).isExpired(System.currentTimeMillis());
     }
 
     /**
@@ -201,11 +305,31 @@ public class JwtUtil {
      * @return a signed JWT token as a string
      */
     public String generateToken(String username, java.util.List<String> roles, String entityName) {
+        return generateToken(username, roles, entityName, null);
+    }
+
+    /**
+     * Generates a JWT token with specified username, roles, entity name and session ID.
+     * <p>
+     * The session ID ({@code sid} claim) is the ID of the refresh token issued together
+     * with this access token. It lets the service attribute API activity to a session.
+     * </p>
+     *
+     * @param username the username to embed in the token
+     * @param roles list of role strings to embed in the token
+     * @param entityName the entity name to embed in the token (for entity validation)
+     * @param sessionId the refresh token (session) ID, or null
+     * @return a signed JWT token as a string
+     */
+    public String generateToken(String username, java.util.List<String> roles, String entityName, Long sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", roles);
         if (entityName != null) {
             claims.put("entityName", entityName);
         }
+        if (sessionId != null) {
+            claims.put("sid", sessionId);
+        }
         return createToken(claims, username);
     }
 
@@ -242,8 +366,24 @@ public class JwtUtil {
      * @return true if the token is valid for the given user, false otherwise
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    /**
+     * Validates an already verified token against a UserDetails object.
+     * <p>
+     * Verifies that the username in the token matches the UserDetails username
+     * and that the token has not expired, without parsing the token again.
+     * </p>
+     *
+     * @param token the verified token to validate
+     * @param userDetails the user details to validate against
+     * @return true if the token is valid for the given user, false otherwise
+     */
+    public Boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getUsername() != null
+                && token.getUsername().equals(userDetails.getUsername())
+                && !token.isExpired(System.currentTimeMillis());
     }
 
     /**
@@ -0,0 +1,23 @@
+package com.template.business.auth.security;
+
+import lombok.Value;
+
+/**
+ * A refresh token that passed the format and tag checks of {@link RefreshTokenCodec}.
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Value
+public class ParsedRefreshToken {
+
+    /**
+     * Session (D_REFRESH_TOKENS row) ID, or null for a legacy UUID token.
+     */
+    Long sessionId;
+
+    /**
+     * The value whose SHA-256 hash is stored in the session row.
+     */
+    String secret;
+}
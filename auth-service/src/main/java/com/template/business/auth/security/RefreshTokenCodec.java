@@ -0,0 +1,216 @@
+package com.template.business.auth.security;
+
+import com.template.business.auth.exception.ErrorCode;
+import com.template.business.auth.exception.InternalApiException;
+import com.template.business.auth.util.MetricsSource;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Encodes and decodes opaque refresh tokens.
+ * <p>
+ * Token format: {@code v1.<sessionId>.<secret>.<tag>}
+ * <ul>
+ *   <li>{@code sessionId} - primary key of the D_REFRESH_TOKENS row (decimal)</li>
+ *   <li>{@code secret} - 256 random bits, Base64URL; only its SHA-256 hash is stored</li>
+ *   <li>{@code tag} - HMAC-SHA256 over {@code v1.<sessionId>.<secret>}, Base64URL</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The tag lets the service reject forged, truncated or corrupted tokens without a
+ * database query, and the embedded session ID lets valid tokens be looked up by
+ * primary key. Legacy UUID tokens are still recognised and are looked up by hash
+ * as before, until they expire.
+ * </p>
+ * <p>
+ * Secrets come from a striped set of DRBG {@link SecureRandom} instances, so
+ * concurrent logins do not all serialise on one generator.
+ * </p>
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>{@code jwt.refresh.token-secret} - HMAC key for the tag; when empty, a key is
+ *       derived from {@code jwt.secret}. Changing it invalidates all v1 refresh tokens.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ * @see com.template.business.auth.service.RefreshTokenService
+ */
+@Slf4j
+@Component
+public class RefreshTokenCodec implements MetricsSource {
+
+    private static final String PREFIX = "v1.";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SECRET_BYTES = 32;
+    private static final Pattern LEGACY_UUID = Pattern.compile(
+            "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${jwt.refresh.token-secret:}")
+    private String tokenSecret;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private SecretKeySpec hmacKey;
+    private SecureRandom[] randoms;
+    private int randomMask;
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder legacy = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Builds the HMAC key and the random generator stripes once at startup.
+     */
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (tokenSecret != null && !tokenSecret.isBlank()) {
+            keyBytes = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            // Derive a separate key so the JWT signing key is never used directly for this tag
+            keyBytes = hmac(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM),
+                    "refresh-token-v1".getBytes(StandardCharsets.UTF_8));
+        }
+        hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+
+        // Power of two between one and two stripes per CPU, so a stripe is picked with a mask
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1;
+        randoms = new SecureRandom[stripes];
+        for (int i = 0; i < stripes; i++) {
+            randoms[i] = newSecureRandom();
+        }
+        randomMask = stripes - 1;
+        log.info("Refresh token codec initialised with {} random stripes ({})", stripes, randoms[0].getAlgorithm());
+    }
+
+    /**
+     * Generates a new random token secret.
+     *
+     * @return 256 random bits, Base64URL encoded
+     */
+    public String newSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        randoms[(int) Thread.currentThread().getId() & randomMask].nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Builds the token handed to the client.
+     *
+     * @param sessionId the ID of the stored refresh token row
+     * @param secret the secret whose hash is stored in that row
+     * @return the opaque refresh token
+     */
+    public String encode(long sessionId, String secret) {
+        issued.increment();
+        String payload = PREFIX + sessionId + "." + secret;
+        return payload + "." + ENCODER.encodeToString(hmac(hmacKey, payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Parses and authenticates a token presented by a client, without any database access.
+     *
+     * @param token the token from the client
+     * @return the parsed token (session ID is null for legacy UUID tokens),
+     *         or null if the token is malformed or its tag does not verify
+     */
+    public ParsedRefreshToken parse(String token) {
+        if (token == null || token.isEmpty()) {
+            rejected.increment();
+            return null;
+        }
+
+        if (!token.startsWith(PREFIX)) {
+            if (LEGACY_UUID.matcher(token).matches()) {
+                legacy.increment();
+                return new ParsedRefreshToken(null, token);
+            }
+            rejected.increment();
+            return null;
+        }
+
+        int tagSeparator = token.lastIndexOf('.');
+        int idSeparator = token.indexOf('.', PREFIX.length());
+        if (idSeparator < 0 || tagSeparator <= idSeparator) {
+            rejected.increment();
+            return null;
+        }
+
+        byte[] tag;
+        long sessionId;
+        try {
+            tag = DECODER.decode(token.substring(tagSeparator + 1));
+            sessionId = Long.parseLong(token.substring(PREFIX.length(), idSeparator));
+        } catch (IllegalArgumentException e) {
+            rejected.increment();
+            return null;
+        }
+
+        byte[] expected = hmac(hmacKey, token.substring(0, tagSeparator).getBytes(StandardCharsets.UTF_8));
+        if (!MessageDigest.isEqual(expected, tag)) {
+            rejected.increment();
+            log.debug("Rejected refresh token with invalid tag for session {}", sessionId);
+            return null;
+        }
+
+        accepted.increment();
+        return new ParsedRefreshToken(sessionId, token.substring(idSeparator + 1, tagSeparator));
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new InternalApiException(ErrorCode.INTERNAL_SERVER_ERROR, "HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            // DRBG is non-blocking once seeded and supports concurrent use
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "refreshTokens";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("issued", issued.sum());
+        metrics.put("accepted", accepted.sum());
+        metrics.put("legacy", legacy.sum());
+        metrics.put("rejectedWithoutLookup", rejected.sum());
+        return metrics;
+    }
+}
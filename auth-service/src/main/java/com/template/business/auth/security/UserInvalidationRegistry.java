@@ -0,0 +1,79 @@
+package com.template.business.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of "user changed since" epochs used by claims-only authentication.
+ * <p>
+ * When a user is deactivated, deleted or loses a role, or a role they hold is updated
+ * or deleted, the administration services record the current time for that username.
+ * Any access token issued at or before that instant is rejected by
+ * {@link JwtAuthenticationFilter}, even though its signature and expiry are still valid.
+ * Users simply log in again to get a token that reflects their current state.
+ * </p>
+ * <p>
+ * Entries only need to live as long as the longest access token lifetime
+ * ({@code jwt.expiration}); older entries are pruned on every write.
+ * </p>
+ * <p>
+ * Note: the registry is local to this instance. When running several auth-service
+ * instances, keep claims-only mode disabled or accept that revocations propagate
+ * to other instances only when the access token expires.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ * @see JwtAuthenticationFilter
+ */
+@Slf4j
+@Component
+public class UserInvalidationRegistry {
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    private final Map<String, Long> invalidatedSince = new ConcurrentHashMap<>();
+
+    /**
+     * Invalidates all access tokens issued to the user up to now.
+     *
+     * @param username the user whose tokens should no longer be trusted
+     */
+    public void invalidate(String username) {
+        long now = System.currentTimeMillis();
+        invalidatedSince.put(username, now);
+        invalidatedSince.values().removeIf(epoch -> epoch < now - expiration);
+        log.debug("Invalidated access tokens issued before {} for user: {}", now, username);
+    }
+
+    /**
+     * Checks whether a verified token was issued before the user was last invalidated.
+     *
+     * @param token the verified access token
+     * @return true if the token must be rejected, false otherwise
+     */
+    public boolean isInvalidated(VerifiedToken token) {
+        Long epoch = invalidatedSince.get(token.getUsername());
+        if (epoch == null) {
+            return false;
+        }
+        Instant issuedAt = token.getIssuedAt();
+        // JWT iat has second precision, so a token issued in the same second is rejected too
+        return issuedAt == null || issuedAt.toEpochMilli() <= epoch;
+    }
+
+    /**
+     * Returns the number of users currently tracked by the registry.
+     *
+     * @return the number of tracked users
+     */
+    public int size() {
+        return invalidatedSince.size();
+    }
+}
@@ -0,0 +1,74 @@
+package com.template.business.auth.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified.
+ * <p>
+ * Produced by {@link JwtUtil#verify(String)} after a single parse of the token.
+ * Holds only the claims this service reads (subject, entity name, session ID,
+ * roles and timestamps), so callers never need to parse the same token again.
+ * Timestamps are held as {@link Instant}s so that a cached instance cannot be changed
+ * by any of the callers it is shared with.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ * @see JwtUtil
+ */
+@Value
+public class VerifiedToken {
+
+    String username;
+    String entityName;
+    Long sessionId;
+    List<String> roles;
+    Instant issuedAt;
+    Instant expiration;
+
+    /**
+     * Builds a verified token view from parsed claims.
+     *
+     * @param claims the verified claims payload
+     * @return an immutable token view
+     */
+    static VerifiedToken from(Claims claims) {
+        List<?> rawRoles = claims.get("roles", List.class);
+        List<String> roles = rawRoles == null
+                ? Collections.emptyList()
+                : rawRoles.stream().map(String::valueOf).collect(Collectors.toUnmodifiableList());
+
+        Object sid = claims.get("sid");
+        Long sessionId = sid instanceof Number ? ((Number) sid).longValue() : null;
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("entityName", String.class),
+                sessionId,
+                roles,
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration())
+        );
+    }
+
+    /**
+     * Checks whether the token has expired at the given instant.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return true if the token is expired, false otherwise
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiration != null && expiration.toEpochMilli() <= nowMillis;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -8,18 +8,14 @@ import com.template.business.auth.dto.LogStatusDTO;
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.SearchRequest;
 import com.template.business.auth.entity.AppLog;
-import com.template.business.auth.entity.LogStatus;
 import com.template.business.auth.exception.ErrorCode;
 import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.repository.AppLogRepository;
-import com.template.business.auth.repository.LogStatusRepository;
+import com.template.business.auth.util.KeysetPagination;
 import com.template.business.auth.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,7 +31,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class AppLogAdminService {
 
     private final AppLogRepository appLogRepository;
-    private final LogStatusRepository logStatusRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final SearchPageExecutor searchPageExecutor;
 
     private static final int MAX_TRUNCATED_LENGTH = 200;
 
@@ -60,12 +57,11 @@ public class AppLogAdminService {
     public PageResponse<AppLogDTO> searchLogs(SearchRequest request) {
         Specification<AppLog> spec = SpecificationBuilder.buildSpecification(request);
         Sort sort = buildSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
-
-        Page<AppLog> page = appLogRepository.findAll(spec, pageable);
-        Page<AppLogDTO> dtoPage = page.map(this::convertToDTO);
-
-        return PageResponse.of(dtoPage);
+        if (request.isKeyset()) {
+            return KeysetPagination.search(appLogRepository, AppLog.class, spec, sort, "id", request,
+                    this::convertToDTO);
+        }
+        return searchPageExecutor.search(appLogRepository, AppLog.class, spec, sort, request, this::convertToDTO);
     }
 
     private Sort buildSort(SearchRequest.SortInfo sortInfo) {
@@ -91,11 +87,8 @@ public class AppLogAdminService {
     /**
      * Get all log statuses for dropdown
      */
-    @Transactional(readOnly = true)
     public List<LogStatusDTO> getAllLogStatuses() {
-        return logStatusRepository.findAll().stream()
-                .map(this::convertStatusToDTO)
-                .collect(Collectors.toList());
+        return referenceDataCache.getLogStatuses();
     }
 
     /**
@@ -178,14 +171,4 @@ public class AppLogAdminService {
         }
         return str.substring(0, MAX_TRUNCATED_LENGTH) + "...";
     }
-
-    /**
-     * Convert log status entity to DTO
-     */
-    private LogStatusDTO convertStatusToDTO(LogStatus logStatus) {
-        return LogStatusDTO.builder()
-                .status(logStatus.getStatus())
-                .deleteAfter(logStatus.getDeleteAfter())
-                .build();
-    }
 }
@@ -0,0 +1,532 @@
+package com.template.business.auth.service;
+
+import com.template.business.auth.entity.AppLog;
+import com.template.business.auth.exception.ErrorCode;
+import com.template.business.auth.exception.ServiceBusyException;
+import com.template.business.auth.util.MetricsSource;
+import com.template.business.auth.util.PriorityLogBuffer;
+import com.template.business.auth.util.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind ingestion pipeline for {@code T_APP_LOG}.
+ * <p>
+ * Log rows are validated by {@link AppLogService} on the caller thread and then placed in a
+ * lock-free {@link PriorityLogBuffer}: ERROR and notifiable rows go to a separate priority lane
+ * that the writers always drain first. A small set of writer threads drains the buffer and inserts the rows
+ * as JDBC batches: a batch is written as soon as {@code app-log.ingestion.batch-size} rows are
+ * available, or when the first row has waited {@code app-log.ingestion.linger-ms}.
+ * </p>
+ * <p>
+ * With {@code app-log.ingestion.preassigned-ids=true}, IDs are assigned by the writers from
+ * {@code T_APP_LOG_SEQ01}, fetched in blocks of {@code app-log.ingestion.id-block-size} with a
+ * single query, and rows are inserted in batches. This needs the {@code T_APP_LOG_BIFER}
+ * trigger to keep a supplied ID, so only turn it on once
+ * {@code db/migration/app_log_preassigned_ids.sql} has been applied. Otherwise (the default)
+ * rows are inserted one at a time and the ID the trigger assigned is read back, so the
+ * returned IDs always match the stored rows.
+ * </p>
+ * <p>
+ * Key features:
+ * <ul>
+ *   <li>Bounded: when a lane is full, {@link #offer(AppLog)} applies
+ *       {@code app-log.ingestion.overflow} (drop-newest, drop-oldest or block for a few ms),
+ *       {@link #offer(AppLog, long)} waits up to a timeout and {@link #submit(AppLog)} throws
+ *       {@link ServiceBusyException}</li>
+ *   <li>A batch is inserted in one transaction; if it fails, it is rolled back and retried
+ *       row by row, so one bad row does not lose the others and no row is written twice</li>
+ *   <li>Queued rows are written on shutdown</li>
+ * </ul>
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppLogIngestionService implements MetricsSource {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ap_log.T_APP_LOG (ID, ENTITY, MODULE, REQUEST, RESPONSE, STATUS, START_TIME, END_TIME, " +
+            "NOTIFIABLE, NOTIFICATION_SENT, USERNAME, CREATE_USER, CREATE_DATE) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_GENERATED_ID_SQL =
+            "INSERT INTO ap_log.T_APP_LOG (ENTITY, MODULE, REQUEST, RESPONSE, STATUS, START_TIME, END_TIME, " +
+            "NOTIFIABLE, NOTIFICATION_SENT, USERNAME, CREATE_USER, CREATE_DATE) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ORACLE_ID_BLOCK_SQL =
+            "SELECT ap_log.T_APP_LOG_SEQ01.NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?";
+
+    private static final String POSTGRESQL_ID_BLOCK_SQL =
+            "SELECT nextval('ap_log.t_app_log_seq01') FROM generate_series(1, ?)";
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app-log.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app-log.ingestion.priority-queue-capacity:2000}")
+    private int priorityQueueCapacity;
+
+    @Value("${app-log.ingestion.overflow:drop-newest}")
+    private String overflow;
+
+    @Value("${app-log.ingestion.overflow-block-ms:5}")
+    private long overflowBlockMs;
+
+    @Value("${app-log.ingestion.writer-threads:2}")
+    private int writerThreads;
+
+    @Value("${app-log.ingestion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app-log.ingestion.linger-ms:50}")
+    private long lingerMs;
+
+    @Value("${app-log.ingestion.preassigned-ids:false}")
+    private boolean preassignedIds;
+
+    @Value("${app-log.ingestion.id-block-size:100}")
+    private int idBlockSize;
+
+    @Value("${app-log.ingestion.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private PriorityLogBuffer<PendingLog> queue;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    // Not synchronized: fetching a block runs a query, which would pin a virtual thread's carrier
+    private final ReentrantLock idLock = new ReentrantLock();
+    private final Deque<Long> idBlock = new ArrayDeque<>();
+    private String idBlockSql;
+    private String idColumn;
+    private volatile boolean databaseDetected;
+    private TransactionTemplate batchTransaction;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedRows = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder idBlocks = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    @PostConstruct
+    public void start() {
+        queue = new PriorityLogBuffer<>(priorityQueueCapacity, queueCapacity,
+                PriorityLogBuffer.Overflow.parse(overflow), overflowBlockMs, this::evicted);
+        batchTransaction = new TransactionTemplate(transactionManager);
+        running = true;
+        ThreadFactory threadFactory = VirtualThreads.threadFactory("AppLogWriter-", virtualThreads);
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = threadFactory.newThread(this::drain);
+            writers.add(writer);
+            writer.start();
+        }
+        log.info("App log ingestion started: writers={}, batchSize={}, lingerMs={}, queueCapacity={}, " +
+                        "priorityQueueCapacity={}, overflow={}, preassignedIds={}", writerThreads, batchSize, lingerMs,
+                queueCapacity, priorityQueueCapacity, overflow, preassignedIds);
+    }
+
+    /**
+     * Queue a log row for fire-and-forget logging. Never throws; when its lane is full the
+     * configured overflow policy decides whether this row or the oldest queued one is dropped
+     *
+     * @param appLog the validated log row (ID not set)
+     * @return true if the row was queued
+     */
+    public boolean offer(AppLog appLog) {
+        if (!running || !queue.offer(new PendingLog(appLog, null), isPriority(appLog))) {
+            dropped.increment();
+            return false;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Queue a log row, waiting up to the timeout for space (bulk uploads are slowed down
+     * instead of losing rows while the writers catch up)
+     *
+     * @param appLog the validated log row (ID not set)
+     * @param timeoutMs how long to wait for space in the queue
+     * @return true if the row was queued
+     */
+    public boolean offer(AppLog appLog, long timeoutMs) throws InterruptedException {
+        if (!running || !queue.offer(new PendingLog(appLog, null), isPriority(appLog),
+                PriorityLogBuffer.Overflow.BLOCK, TimeUnit.MILLISECONDS.toNanos(timeoutMs))) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Queue a log row and get notified once it is written
+     *
+     * @param appLog the validated log row (ID not set)
+     * @return completes with the row (ID set) after its batch has been inserted
+     * @throws ServiceBusyException if the queue is full
+     */
+    public CompletableFuture<AppLog> submit(AppLog appLog) {
+        CompletableFuture<AppLog> done = new CompletableFuture<>();
+        if (!running || !queue.offer(new PendingLog(appLog, done), isPriority(appLog),
+                PriorityLogBuffer.Overflow.DROP_NEWEST, 0)) {
+            rejected.increment();
+            throw new ServiceBusyException(ErrorCode.SERVICE_BUSY,
+                    "Log ingestion queue is full. Please retry shortly.", retryAfterSeconds);
+        }
+        accepted.increment();
+        return done;
+    }
+
+    /**
+     * Seconds a client should wait before retrying when the queue is full
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * ERROR and notifiable rows use the priority lane
+     */
+    private static boolean isPriority(AppLog appLog) {
+        return "ERROR".equalsIgnoreCase(appLog.getStatus()) || "Y".equalsIgnoreCase(appLog.getNotifiable());
+    }
+
+    /**
+     * A queued row was discarded by the drop-oldest overflow policy
+     */
+    private void evicted(PendingLog pending) {
+        dropped.increment();
+        if (pending.written != null) {
+            pending.written.completeExceptionally(new ServiceBusyException(ErrorCode.SERVICE_BUSY,
+                    "Log row was discarded because the ingestion queue is full.", retryAfterSeconds));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Stopping app log ingestion, {} rows queued", queue.size());
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} app log rows were not written before shutdown", queue.size());
+        }
+    }
+
+    /**
+     * Writer loop: collect up to one batch (waiting at most the linger time) and insert it
+     */
+    private void drain() {
+        List<PendingLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (queue.drainTo(batch, batchSize) == 0) {
+                    queue.await(100, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    // Take what is already queued (priority lane first), then wait for more until the linger time is up
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running || !queue.await(remaining, TimeUnit.NANOSECONDS)) {
+                        break;
+                    }
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Keep the writer alive; write() already accounted for the rows
+                log.error("App log writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingLog> batch) {
+        try {
+            detectDatabase();
+        } catch (Exception e) {
+            log.error("Cannot write app log rows, database check failed: {}", e.getMessage());
+            for (PendingLog pending : batch) {
+                complete(pending, e);
+            }
+            return;
+        }
+        if (!preassignedIds) {
+            writeRowByRow(batch, false);
+            return;
+        }
+        try {
+            for (PendingLog pending : batch) {
+                if (pending.appLog.getId() == null) {
+                    pending.appLog.setId(nextId());
+                }
+            }
+            // One transaction: a failed batch leaves no rows behind for the retry to duplicate
+            batchTransaction.executeWithoutResult(status -> insert(batch));
+            batches.increment();
+            batchedRows.add(batch.size());
+            lastBatchSize.set(batch.size());
+            maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+            for (PendingLog pending : batch) {
+                complete(pending, null);
+            }
+        } catch (Exception e) {
+            failedBatches.increment();
+            log.warn("App log batch of {} rows failed and was rolled back, retrying row by row: {}",
+                    batch.size(), e.getMessage());
+            writeRowByRow(batch, true);
+        }
+    }
+
+    private void writeRowByRow(List<PendingLog> rows, boolean preassigned) {
+        for (PendingLog pending : rows) {
+            try {
+                if (preassigned) {
+                    if (pending.appLog.getId() == null) {
+                        pending.appLog.setId(nextId());
+                    }
+                    insert(List.of(pending));
+                } else {
+                    insertReturningId(pending.appLog);
+                }
+                complete(pending, null);
+            } catch (Exception rowError) {
+                log.error("Failed to write app log row (module={}, status={}): {}",
+                        pending.appLog.getModule(), pending.appLog.getStatus(), rowError.getMessage());
+                complete(pending, rowError);
+            }
+        }
+    }
+
+    private void insert(List<PendingLog> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AppLog appLog = rows.get(i).appLog;
+                ps.setLong(1, appLog.getId());
+                setColumns(ps, 2, appLog);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Insert one row without an ID and read back the ID the trigger assigned
+     */
+    private void insertReturningId(AppLog appLog) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_GENERATED_ID_SQL, new String[]{idColumn});
+            setColumns(ps, 1, appLog);
+            return ps;
+        }, keyHolder);
+        Number id = keyHolder.getKey();
+        if (id == null) {
+            throw new IllegalStateException("No ID returned for inserted T_APP_LOG row");
+        }
+        appLog.setId(id.longValue());
+    }
+
+    /**
+     * Set all columns except ID, starting at the given parameter index
+     */
+    private static void setColumns(PreparedStatement ps, int first, AppLog appLog) throws SQLException {
+        ps.setString(first, appLog.getEntity());
+        ps.setString(first + 1, appLog.getModule());
+        setClob(ps, first + 2, appLog.getRequest());
+        setClob(ps, first + 3, appLog.getResponse());
+        ps.setString(first + 4, appLog.getStatus());
+        ps.setTimestamp(first + 5, toTimestamp(appLog.getStartTime()));
+        ps.setTimestamp(first + 6, toTimestamp(appLog.getEndTime()));
+        ps.setString(first + 7, appLog.getNotifiable());
+        ps.setString(first + 8, appLog.getNotificationSent());
+        ps.setString(first + 9, appLog.getUsername());
+        ps.setString(first + 10, appLog.getCreateUser());
+        ps.setTimestamp(first + 11, toTimestamp(appLog.getCreateDate()));
+    }
+
+    private void complete(PendingLog pending, Exception error) {
+        if (error == null) {
+            written.increment();
+        } else {
+            failed.increment();
+        }
+        if (pending.written != null) {
+            if (error == null) {
+                pending.written.complete(pending.appLog);
+            } else {
+                pending.written.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * Next ID from the current block, fetching a new block from T_APP_LOG_SEQ01 when it is used up
+     */
+    private Long nextId() {
+        idLock.lock();
+        try {
+            if (idBlock.isEmpty()) {
+                idBlock.addAll(jdbcTemplate.queryForList(idBlockSql, Long.class, idBlockSize));
+                idBlocks.increment();
+            }
+            return idBlock.poll();
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    /**
+     * Pick the ID block query and ID column name for the database. Done once, before the
+     * first write.
+     */
+    private void detectDatabase() {
+        if (databaseDetected) {
+            return;
+        }
+        idLock.lock();
+        try {
+            if (!databaseDetected) {
+                String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                        connection.getMetaData().getDatabaseProductName());
+                if (product != null && product.toLowerCase().contains("oracle")) {
+                    idBlockSql = ORACLE_ID_BLOCK_SQL;
+                    idColumn = "ID";
+                } else if (product != null && product.toLowerCase().contains("postgres")) {
+                    idBlockSql = POSTGRESQL_ID_BLOCK_SQL;
+                    idColumn = "id";
+                } else {
+                    throw new IllegalStateException("T_APP_LOG ID blocks are not supported for database: " + product);
+                }
+                databaseDetected = true;
+            }
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private static void setClob(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.CLOB);
+        } else {
+            ps.setCharacterStream(index, new StringReader(value), value.length());
+        }
+    }
+
+    private static Timestamp toTimestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "appLogIngestion";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queueDepth", queue != null ? queue.size() : 0);
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("priorityQueueCapacity", priorityQueueCapacity);
+        metrics.put("accepted", accepted.sum());
+        metrics.put("written", written.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("failedBatches", failedBatches.sum());
+        metrics.put("lastBatchSize", lastBatchSize.get());
+        metrics.put("maxBatchSize", maxBatchSize.get());
+        long batchCount = batches.sum();
+        metrics.put("avgBatchSize", batchCount > 0 ? batchedRows.sum() / batchCount : 0);
+        metrics.put("idBlocks", idBlocks.sum());
+        metrics.put("preassignedIds", preassignedIds);
+        if (queue != null) {
+            metrics.put("buffer", queue.getMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Queued log row and, for {@link #submit(AppLog)}, the future to complete once written.
+     */
+    private static final class PendingLog {
+        private final AppLog appLog;
+        private final CompletableFuture<AppLog> written;
+
+        private PendingLog(AppLog appLog, CompletableFuture<AppLog> written) {
+            this.appLog = appLog;
+            this.written = written;
+        }
+    }
+}
@@ -1,52 +1,74 @@
 package com.template.business.auth.service;
 
+import com.template.business.auth.dto.AppLogBatchResultDTO;
 import com.template.business.auth.dto.AppLogCreateRequest;
 import com.template.business.auth.dto.AppLogDTO;
 import com.template.business.auth.entity.AppLog;
-import com.template.business.auth.entity.ApplicationEntity;
 import com.template.business.auth.exception.ErrorCode;
 import com.template.business.auth.exception.ResourceNotFoundException;
-import com.template.business.auth.repository.AppLogRepository;
-import com.template.business.auth.repository.EntityRepository;
-import com.template.business.auth.repository.LogStatusRepository;
-import jakarta.persistence.EntityManager;
+import com.template.business.auth.exception.ServiceBusyException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * Service for creating application logs.
  * Provides both synchronous and asynchronous logging capabilities.
+ * Requests are validated here (against the reference data cache) and written in
+ * batches by {@link AppLogIngestionService}.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AppLogService {
 
-    private final AppLogRepository appLogRepository;
-    private final EntityRepository entityRepository;
-    private final LogStatusRepository logStatusRepository;
-    private final EntityManager entityManager;
+    private final AppLogIngestionService appLogIngestionService;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app-log.ingestion.sync-timeout-ms:10000}")
+    private long syncTimeoutMs;
+
+    @Value("${app-log.ingestion.bulk-max-records:50000}")
+    private int bulkMaxRecords;
+
+    @Value("${app-log.ingestion.bulk-offer-timeout-ms:1000}")
+    private long bulkOfferTimeoutMs;
+
+    @Value("${app-log.shipper-role:LOG_SHIPPER}")
+    private String shipperRole;
 
     /**
-     * Create a log entry synchronously
+     * Create a log entry synchronously (returns once the row is written)
      */
-    @Transactional
     public AppLogDTO createLog(AppLogCreateRequest request) {
         log.debug("Creating log entry for module: {}, status: {}", request.getModule(), request.getStatus());
 
-        AppLog appLog = buildAppLog(request);
-        AppLog savedLog = appLogRepository.saveAndFlush(appLog);
-
-        // Refresh to get the database-generated ID (from trigger)
-        entityManager.refresh(savedLog);
+        AppLog savedLog = awaitWritten(appLogIngestionService.submit(buildAppLog(request)));
 
         log.info("Created log entry with ID: {} for module: {}", savedLog.getId(), request.getModule());
         return convertToDTO(savedLog);
@@ -54,24 +76,143 @@ public class AppLogService {
 
     /**
      * Create a log entry asynchronously
+     *
+     * @return completes with the log entry once it is written
+     * @throws ResourceNotFoundException if the entity or status is unknown
+     * @throws com.template.business.auth.exception.ServiceBusyException if the ingestion queue is full
      */
-    @Async("appLogExecutor")
-    @Transactional
     public CompletableFuture<AppLogDTO> createLogAsync(AppLogCreateRequest request) {
         log.debug("Creating log entry asynchronously for module: {}, status: {}", request.getModule(), request.getStatus());
 
+        return appLogIngestionService.submit(buildAppLog(request))
+                .thenApply(this::convertToDTO);
+    }
+
+    /**
+     * Queue a log entry without waiting for it; dropped if the ingestion queue is full
+     *
+     * @return true if the log entry was queued
+     * @throws ResourceNotFoundException if the entity or status is unknown
+     */
+    public boolean offerLog(AppLogCreateRequest request) {
+        return appLogIngestionService.offer(buildAppLog(request));
+    }
+
+    /**
+     * Queue log entries from a bulk upload: a JSON array or NDJSON (one object per line).
+     * <p>
+     * The body is parsed incrementally, one record at a time, so large uploads are never
+     * held in memory as a whole. Each record is validated on its own; invalid records are
+     * rejected (with their index and reason) without affecting the others. When the
+     * ingestion queue is full, a record waits up to
+     * {@code app-log.ingestion.bulk-offer-timeout-ms} for space; if it times out, the upload
+     * stops there and the result carries {@code retryAfterSeconds}. The records from that
+     * index on were not processed and should be sent again later.
+     * </p>
+     *
+     * @param body the request body
+     * @return counts plus the rejected records
+     */
+    public AppLogBatchResultDTO createLogBatch(InputStream body) {
+        List<AppLogBatchResultDTO.Rejection> rejections = new ArrayList<>();
+        int received = 0;
+        String error = null;
+        Long retryAfterSeconds = null;
+
+        // Records follow each other in the same stream, so they are not "trailing tokens"
+        ObjectReader reader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        try (JsonParser parser = reader.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (received >= bulkMaxRecords) {
+                    error = "Too many records, at most " + bulkMaxRecords + " per upload";
+                    break;
+                }
+                int index = received++;
+                // Read one record as a tree: a bad record is rejected without losing the stream position
+                JsonNode record = reader.readTree(parser);
+                String reason;
+                try {
+                    reason = acceptRecord(record);
+                } catch (ServiceBusyException e) {
+                    // Stop instead of waiting the offer timeout again for every remaining record
+                    received = index;
+                    retryAfterSeconds = e.getRetryAfterSeconds();
+                    error = "Log ingestion queue is full, records from index " + index + " on were not processed";
+                    break;
+                }
+                if (reason != null) {
+                    rejections.add(new AppLogBatchResultDTO.Rejection(index, reason));
+                }
+                token = parser.nextToken();
+            }
+        } catch (JacksonException e) {
+            error = "Malformed body after record " + received + ": " + e.getOriginalMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Upload interrupted after record " + received;
+        }
+
+        log.debug("Bulk log upload: {} received, {} rejected", received, rejections.size());
+        return AppLogBatchResultDTO.builder()
+                .received(received)
+                .accepted(received - rejections.size())
+                .rejected(rejections.size())
+                .rejections(rejections)
+                .error(error)
+                .retryAfterSeconds(retryAfterSeconds)
+                .build();
+    }
+
+    /**
+     * Validate and queue one bulk record
+     *
+     * @return null if accepted, otherwise the rejection reason
+     * @throws ServiceBusyException if the ingestion queue stayed full for the offer timeout
+     */
+    private String acceptRecord(JsonNode record) throws InterruptedException {
+        if (!record.isObject()) {
+            return "Record is not a JSON object";
+        }
+        AppLogCreateRequest request;
         try {
-            AppLog appLog = buildAppLog(request);
-            AppLog savedLog = appLogRepository.saveAndFlush(appLog);
+            request = objectMapper.treeToValue(record, AppLogCreateRequest.class);
+        } catch (JacksonException e) {
+            return "Invalid record: " + e.getOriginalMessage();
+        }
 
-            // Refresh to get the database-generated ID (from trigger)
-            entityManager.refresh(savedLog);
+        Set<ConstraintViolation<AppLogCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        }
 
-            log.info("Created async log entry with ID: {} for module: {}", savedLog.getId(), request.getModule());
-            return CompletableFuture.completedFuture(convertToDTO(savedLog));
-        } catch (Exception e) {
-            log.error("Failed to create async log entry: {}", e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
+        AppLog appLog;
+        try {
+            appLog = buildAppLog(request);
+        } catch (ResourceNotFoundException e) {
+            return e.getMessage();
+        }
+        if (!appLogIngestionService.offer(appLog, bulkOfferTimeoutMs)) {
+            throw new ServiceBusyException(ErrorCode.SERVICE_BUSY,
+                    "Log ingestion queue is full", appLogIngestionService.getRetryAfterSeconds());
+        }
+        return null;
+    }
+
+    private AppLog awaitWritten(CompletableFuture<AppLog> written) {
+        try {
+            return written.get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing log entry", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Log entry was not written within " + syncTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to write log entry: " + e.getCause().getMessage(), e.getCause());
         }
     }
 
@@ -90,11 +231,10 @@ public class AppLogService {
         appLog.setResponse(request.getResponse());
 
         // Validate status exists
-        if (request.getStatus() != null) {
-            logStatusRepository.findById(request.getStatus())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            ErrorCode.ENTITY_NOT_FOUND,
-                            "Log status not found: " + request.getStatus()));
+        if (request.getStatus() != null && !referenceDataCache.isLogStatus(request.getStatus())) {
+            throw new ResourceNotFoundException(
+                    ErrorCode.ENTITY_NOT_FOUND,
+                    "Log status not found: " + request.getStatus());
         }
         appLog.setStatus(request.getStatus());
 
@@ -103,9 +243,8 @@ public class AppLogService {
         appLog.setNotifiable(request.getNotifiable() != null ? request.getNotifiable() : "N");
         appLog.setNotificationSent("N");
 
-        // Get username from authenticated user (JWT token)
-        String authenticatedUsername = getAuthenticatedUsername();
-        appLog.setUsername(authenticatedUsername);
+        // Get username from authenticated user (JWT token), or from the request for log shippers
+        appLog.setUsername(resolveUsername(request));
 
         appLog.setCreateUser(request.getCreateUser());
         appLog.setCreateDate(new Date());
@@ -114,14 +253,21 @@ public class AppLogService {
     }
 
     /**
-     * Get username from the authenticated user (JWT token)
+     * Get username from the authenticated user (JWT token). A log shipper account sending
+     * logs on behalf of other users may name the user in the request instead.
      */
-    private String getAuthenticatedUsername() {
+    private String resolveUsername(AppLogCreateRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            return authentication.getName();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
         }
-        return null;
+        String shipperAuthority = "ROLE_" + shipperRole;
+        if (request.getUsername() != null && !request.getUsername().isBlank()
+                && authentication.getAuthorities().stream()
+                        .anyMatch(authority -> shipperAuthority.equals(authority.getAuthority()))) {
+            return request.getUsername();
+        }
+        return authentication.getName();
     }
 
     /**
@@ -132,11 +278,10 @@ public class AppLogService {
             return null; // Entity is optional
         }
 
-        ApplicationEntity entity = entityRepository.findByName(entityName)
+        return referenceDataCache.findEntityIdByName(entityName)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ErrorCode.ENTITY_NOT_FOUND,
                         "Entity not found by name: " + entityName));
-        return entity.getId();
     }
 
     /**
@@ -149,12 +294,7 @@ public class AppLogService {
         }
 
         // Resolve entity name from entity ID
-        String entityName = null;
-        if (appLog.getEntity() != null) {
-            entityName = entityRepository.findById(appLog.getEntity())
-                    .map(ApplicationEntity::getName)
-                    .orElse(null);
-        }
+        String entityName = referenceDataCache.getEntityName(appLog.getEntity());
 
         return AppLogDTO.builder()
                 .id(appLog.getId())
@@ -18,7 +18,7 @@ import java.util.Date;
  *
  * Features:
  * - Logs to SLF4J (console/file) synchronously
- * - Logs to database asynchronously (non-blocking)
+ * - Logs to database asynchronously (non-blocking, batched by AppLogIngestionService)
  * - Uses configured entity name from application.properties
  * - Automatically captures authenticated username from JWT
  *
@@ -192,8 +192,8 @@ public class AppLogger {
                     .createUser(createUser)
                     .build();
 
-            // Async - non-blocking
-            appLogService.createLogAsync(logRequest);
+            // Queued for the batch writers - non-blocking, dropped if the queue is full
+            appLogService.offerLog(logRequest);
         } catch (Exception e) {
             // Don't let logging failures affect business logic
             log.warn("Failed to log to database: {}", e.getMessage());
@@ -223,8 +223,8 @@ public class AppLogger {
                     .createUser(createUser)
                     .build();
 
-            // Async - non-blocking
-            appLogService.createLogAsync(logRequest);
+            // Queued for the batch writers - non-blocking, dropped if the queue is full
+            appLogService.offerLog(logRequest);
         } catch (Exception e) {
             // Don't let logging failures affect business logic
             log.warn("Failed to log to database: {}", e.getMessage());
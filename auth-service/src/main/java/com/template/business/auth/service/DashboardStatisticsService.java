@@ -1,35 +1,129 @@
 package com.template.business.auth.service;
 
 import com.template.business.auth.dto.DashboardStatsDTO;
+import com.template.business.auth.entity.RefreshToken;
 import com.template.business.auth.repository.RefreshTokenRepository;
 import com.template.business.auth.repository.UserRepository;
+import com.template.business.auth.util.MetricsSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service for dashboard statistics (ADMIN only)
+ *
+ * <p>All figures come from aggregate queries (COUNT, GROUP BY, top-N), so no table is
+ * loaded into memory. The result is kept as an immutable snapshot that is refreshed in
+ * the background every {@code dashboard.stats.refresh-interval-ms}; dashboard requests
+ * just return the current snapshot. If the snapshot is missing or stale, the first
+ * request rebuilds it and concurrent requests wait for that one computation.
+ *
+ * <p>Background refreshes pause while nobody has looked at the dashboard for
+ * {@code dashboard.stats.idle-after-ms}.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class DashboardStatisticsService {
+public class DashboardStatisticsService implements MetricsSource {
+
+    private static final int RECENT_ACTIVITY_LIMIT = 10;
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
 
+    @Value("${dashboard.stats.refresh-interval-ms:30000}")
+    private long refreshIntervalMs;
+
+    @Value("${dashboard.stats.idle-after-ms:600000}")
+    private long idleAfterMs;
+
+    private final AtomicReference<DashboardStatsDTO> snapshot = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicLong lastReadAt = new AtomicLong();
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private final AtomicLong lastRefreshMs = new AtomicLong();
+
     /**
-     * Get dashboard statistics
+     * Get dashboard statistics (current snapshot)
      */
     public DashboardStatsDTO getDashboardStats() {
+        reads.increment();
+        lastReadAt.set(System.currentTimeMillis());
+
+        DashboardStatsDTO current = snapshot.get();
+        if (isFresh(current)) {
+            return current;
+        }
+
+        // Missing or stale (e.g. after an idle period): rebuild once for all waiting callers
+        refreshLock.lock();
+        try {
+            current = snapshot.get();
+            if (isFresh(current)) {
+                return current;
+            }
+            return rebuild();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot in the background while the dashboard is in use
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stats.refresh-interval-ms:30000}")
+    public void refreshSnapshot() {
+        if (System.currentTimeMillis() - lastReadAt.get() > idleAfterMs) {
+            return;
+        }
+        if (!refreshLock.tryLock()) {
+            return; // a request is already rebuilding it
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            failedRefreshes.increment();
+            log.error("Failed to refresh dashboard statistics: {}", e.getMessage(), e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isFresh(DashboardStatsDTO stats) {
+        // Two intervals: one scheduled refresh may be in progress or slightly late
+        return stats != null
+                && System.currentTimeMillis() - stats.getGeneratedAt().getTime() < 2 * refreshIntervalMs;
+    }
+
+    private DashboardStatsDTO rebuild() {
+        long start = System.currentTimeMillis();
+        DashboardStatsDTO stats = computeStats();
+        snapshot.set(stats);
+        refreshes.increment();
+        lastRefreshMs.set(System.currentTimeMillis() - start);
+        log.debug("Dashboard statistics refreshed in {} ms", lastRefreshMs.get());
+        return stats;
+    }
+
+    private DashboardStatsDTO computeStats() {
+        Date now = new Date();
+
         // User statistics
         long totalUsers = userRepository.count();
-        long activeUsers = userRepository.findAll().stream()
-                .filter(user -> "ACTIVE".equals(user.getStatus()))
-                .count();
+        long activeUsers = userRepository.countByStatus("ACTIVE");
         long inactiveUsers = totalUsers - activeUsers;
 
         DashboardStatsDTO.UserStats userStats = DashboardStatsDTO.UserStats.builder()
@@ -39,17 +133,11 @@ public class DashboardStatisticsService {
                 .build();
 
         // Session statistics
-        Date now = new Date();
-        long totalActiveSessions = refreshTokenRepository.findAllActiveTokens(now).size();
+        long totalActiveSessions = refreshTokenRepository.countAllActiveTokens(now);
 
         // Sessions created in last 24 hours
-        Calendar cal = Calendar.getInstance();
-        cal.add(Calendar.HOUR, -24);
-        Date last24Hours = cal.getTime();
-
-        long sessionsLast24Hours = refreshTokenRepository.findAll().stream()
-                .filter(token -> token.getCreateDate() != null && token.getCreateDate().after(last24Hours))
-                .count();
+        Date last24Hours = new Date(now.getTime() - TimeUnit.HOURS.toMillis(24));
+        long sessionsLast24Hours = refreshTokenRepository.countByCreateDateAfter(last24Hours);
 
         long totalRefreshTokens = refreshTokenRepository.count();
 
@@ -59,34 +147,20 @@ public class DashboardStatisticsService {
                 .totalRefreshTokens(totalRefreshTokens)
                 .build();
 
-        // Sessions grouped by entity
-        Map<String, List<com.template.business.auth.entity.RefreshToken>> sessionsByEntity =
-            refreshTokenRepository.findAllActiveTokens(now).stream()
-                .collect(Collectors.groupingBy(com.template.business.auth.entity.RefreshToken::getEntity));
-
-        List<DashboardStatsDTO.EntitySessionStats> entitySessionStats = sessionsByEntity.entrySet().stream()
-                .map(entry -> DashboardStatsDTO.EntitySessionStats.builder()
-                        .entity(entry.getKey())
-                        .activeSessions(entry.getValue().size())
-                        .totalUsers(entry.getValue().stream()
-                                .map(com.template.business.auth.entity.RefreshToken::getUsername)
-                                .distinct()
-                                .count())
-                        .build())
-                .sorted(Comparator.comparing(DashboardStatsDTO.EntitySessionStats::getEntity))
-                .toList();
+        // Sessions grouped by entity: [entity, active sessions, distinct users]
+        List<DashboardStatsDTO.EntitySessionStats> entitySessionStats =
+                refreshTokenRepository.countActiveTokensByEntity(now).stream()
+                        .map(row -> DashboardStatsDTO.EntitySessionStats.builder()
+                                .entity((String) row[0])
+                                .activeSessions(((Number) row[1]).longValue())
+                                .totalUsers(((Number) row[2]).longValue())
+                                .build())
+                        .toList();
 
         // Recent activity (last 10 login sessions - exclude token refreshes)
-        List<DashboardStatsDTO.RecentActivity> recentActivity = refreshTokenRepository.findAll().stream()
-                .filter(token -> "LOGIN".equals(token.getCreationType())) // Only show actual logins, not token refreshes
-                .sorted((a, b) -> b.getCreateDate().compareTo(a.getCreateDate()))
-                .limit(10)
-                .map(token -> DashboardStatsDTO.RecentActivity.builder()
-                        .username(token.getUsername())
-                        .action("LOGIN")
-                        .ipAddress(token.getIpAddress())
-                        .timestamp(token.getCreateDate().toString())
-                        .build())
+        List<DashboardStatsDTO.RecentActivity> recentActivity = refreshTokenRepository
+                .findRecentByCreationType("LOGIN", PageRequest.of(0, RECENT_ACTIVITY_LIMIT)).stream()
+                .map(this::toRecentActivity)
                 .toList();
 
         return DashboardStatsDTO.builder()
@@ -94,6 +168,33 @@ public class DashboardStatisticsService {
                 .sessionStats(sessionStats)
                 .sessionsByEntity(entitySessionStats)
                 .recentActivity(recentActivity)
+                .generatedAt(now)
                 .build();
     }
+
+    private DashboardStatsDTO.RecentActivity toRecentActivity(RefreshToken token) {
+        return DashboardStatsDTO.RecentActivity.builder()
+                .username(token.getUsername())
+                .action("LOGIN")
+                .ipAddress(token.getIpAddress())
+                .timestamp(token.getCreateDate().toString())
+                .build();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "dashboardStats";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        DashboardStatsDTO current = snapshot.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("reads", reads.sum());
+        metrics.put("refreshes", refreshes.sum());
+        metrics.put("failedRefreshes", failedRefreshes.sum());
+        metrics.put("lastRefreshMs", lastRefreshMs.get());
+        metrics.put("snapshotAt", current != null ? current.getGeneratedAt() : null);
+        return metrics;
+    }
 }
@@ -0,0 +1,247 @@
+package com.template.business.auth.service;
+
+import com.template.business.auth.dto.DashboardDeltaDTO;
+import com.template.business.auth.dto.DashboardStatsDTO;
+import com.template.business.auth.event.DashboardEvent;
+import com.template.business.auth.exception.ErrorCode;
+import com.template.business.auth.exception.ServiceBusyException;
+import com.template.business.auth.util.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live admin dashboard over Server-Sent Events (ADMIN only)
+ *
+ * <p>Each subscriber first receives the current {@link DashboardStatsDTO} snapshot
+ * ({@code snapshot} event) and then {@link DashboardDeltaDTO} deltas ({@code delta} events)
+ * built from {@link DashboardEvent}s published by login, session revocation, user
+ * creation, deletion and status changes - no query runs per change or per subscriber. Figures that cannot be
+ * derived from events (expiries, distinct users per entity) are corrected by pushing
+ * the shared snapshot of {@link DashboardStatisticsService} every
+ * {@code dashboard.stream.resync-interval-ms}, so N open dashboards cost one computation.
+ *
+ * <p>Subscribers are bounded by {@code dashboard.stream.max-subscribers} (503 beyond that)
+ * and receive a heartbeat comment every {@code dashboard.stream.heartbeat-interval-ms} so
+ * proxies keep the connection open and dead clients are detected. All sends happen on a
+ * single dispatcher thread, so a slow client never blocks the request that caused a change.
+ *
+ * <p>A stream ends shortly before the subscriber's access token expires, so the async
+ * dispatch that completes it is still authenticated; clients reconnect with a fresh token.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStreamService implements MetricsSource {
+
+    private static final int DISPATCH_QUEUE_CAPACITY = 1000;
+    private static final long TOKEN_EXPIRY_MARGIN_MS = 5000;
+    private static final long MIN_TIMEOUT_MS = 1000;
+
+    private final DashboardStatisticsService dashboardStatisticsService;
+
+    @Value("${dashboard.stream.max-subscribers:20}")
+    private int maxSubscribers;
+
+    @Value("${dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${dashboard.stream.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(
+            1, 1,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(DISPATCH_QUEUE_CAPACITY),
+            new CustomizableThreadFactory("DashboardSse-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private final LongAdder subscriptions = new LongAdder();
+    private final LongAdder rejectedSubscriptions = new LongAdder();
+    private final LongAdder deltasSent = new LongAdder();
+    private final LongAdder snapshotsSent = new LongAdder();
+    private final LongAdder droppedMessages = new LongAdder();
+    private final LongAdder failedSends = new LongAdder();
+    private final AtomicLong lastPushedSnapshotAt = new AtomicLong();
+
+    /**
+     * Register a new dashboard subscriber
+     *
+     * @param tokenExpiresAt expiry of the subscriber's access token (epoch ms); the stream ends before it
+     * @return the emitter streaming the snapshot and subsequent deltas
+     * @throws ServiceBusyException if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(long tokenExpiresAt) {
+        DashboardStatsDTO snapshot = dashboardStatisticsService.getDashboardStats();
+
+        long untilExpiry = tokenExpiresAt - System.currentTimeMillis() - TOKEN_EXPIRY_MARGIN_MS;
+        SseEmitter emitter = new SseEmitter(Math.max(MIN_TIMEOUT_MS, Math.min(timeoutMs, untilExpiry)));
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                rejectedSubscriptions.increment();
+                throw new ServiceBusyException(ErrorCode.SERVICE_BUSY,
+                        "Too many open dashboard streams. Please retry shortly.", retryAfterSeconds);
+            }
+            subscribers.add(emitter);
+        }
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscriptions.increment();
+
+        // Queued on the dispatcher so the snapshot is sent before any later delta
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event().name("snapshot").data(snapshot).build();
+        dispatch(() -> send(emitter, message, snapshotsSent));
+
+        log.debug("Dashboard stream subscribed ({} open)", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Turn a committed dashboard change into a delta for all subscribers
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDashboardEvent(DashboardEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        DashboardDeltaDTO delta = toDelta(event);
+        dispatch(() -> broadcast(SseEmitter.event().name("delta").data(delta).build(), deltasSent));
+    }
+
+    /**
+     * Keep connections alive and detect clients that went away
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeat() {
+        if (!subscribers.isEmpty()) {
+            dispatch(() -> broadcast(SseEmitter.event().comment("heartbeat").build(), null));
+        }
+    }
+
+    /**
+     * Push the shared statistics snapshot when it has changed, correcting any drift
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.resync-interval-ms:60000}")
+    public void resync() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            DashboardStatsDTO snapshot = dashboardStatisticsService.getDashboardStats();
+            long generatedAt = snapshot.getGeneratedAt().getTime();
+            if (lastPushedSnapshotAt.getAndSet(generatedAt) != generatedAt) {
+                dispatch(() -> broadcast(SseEmitter.event().name("snapshot").data(snapshot).build(), snapshotsSent));
+            }
+        } catch (Exception e) {
+            log.error("Failed to resync dashboard stream: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    private DashboardDeltaDTO toDelta(DashboardEvent event) {
+        DashboardDeltaDTO.DashboardDeltaDTOBuilder delta = DashboardDeltaDTO.builder()
+                .type(event.getType().name())
+                .entity(event.getEntity())
+                .activeSessionsDelta(-event.getRevokedSessions())
+                .activeUsersDelta(event.getActiveUsersDelta())
+                .totalUsersDelta(event.getTotalUsersDelta())
+                .timestamp(event.getTimestamp());
+
+        if (event.getType() == DashboardEvent.Type.LOGIN) {
+            delta.activeSessionsDelta(1L - event.getRevokedSessions())
+                    .sessionsLast24HoursDelta(1)
+                    .totalRefreshTokensDelta(1)
+                    .recentActivity(DashboardStatsDTO.RecentActivity.builder()
+                            .username(event.getUsername())
+                            .action("LOGIN")
+                            .ipAddress(event.getIpAddress())
+                            // Same format as create dates read back from the database
+                            .timestamp(new Timestamp(event.getTimestamp().getTime()).toString())
+                            .build());
+        }
+        return delta.build();
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Clients catch up with the next resync snapshot
+            droppedMessages.increment();
+        }
+    }
+
+    /**
+     * Send one message to all subscribers (built once: builders must not be reused)
+     */
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> message, LongAdder counter) {
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, message, counter);
+        }
+    }
+
+    private void send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> message, LongAdder counter) {
+        try {
+            emitter.send(message);
+            if (counter != null) {
+                counter.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            failedSends.increment();
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+            log.debug("Dropped dashboard stream subscriber: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "dashboardStream";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("subscribers", subscribers.size());
+        metrics.put("maxSubscribers", maxSubscribers);
+        metrics.put("subscriptions", subscriptions.sum());
+        metrics.put("rejectedSubscriptions", rejectedSubscriptions.sum());
+        metrics.put("snapshotsSent", snapshotsSent.sum());
+        metrics.put("deltasSent", deltasSent.sum());
+        metrics.put("droppedMessages", droppedMessages.sum());
+        metrics.put("failedSends", failedSends.sum());
+        metrics.put("dispatchQueue", dispatcher.getQueue().size());
+        metrics.put("lastSnapshotPushedAt", lastPushedSnapshotAt.get() > 0 ? new Date(lastPushedSnapshotAt.get()) : null);
+        return metrics;
+    }
+}
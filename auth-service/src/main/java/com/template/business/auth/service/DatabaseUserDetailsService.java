@@ -1,17 +1,31 @@
 package com.template.business.auth.service;
 
+import com.template.business.auth.dto.UserSnapshot;
 import com.template.business.auth.entity.User;
-import com.template.business.auth.entity.UserRole;
 import com.template.business.auth.repository.UserRepository;
+import com.template.business.auth.util.MetricsSource;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +44,27 @@ import java.util.stream.Collectors;
  *   <li>Extracts and converts user roles to granted authorities</li>
  *   <li>Filters out inactive user roles</li>
  *   <li>Integrates with Spring Security authentication framework</li>
+ *   <li>Caches an immutable {@link UserSnapshot} per user with TTL and size limits</li>
+ *   <li>Stores upgraded password hashes after login ({@link UserDetailsPasswordService})</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Cache entries are evicted explicitly by the services that modify users or roles
+ * ({@link #evictUser(String)}, {@link #evictAll()}), so the TTL only bounds staleness
+ * for changes made outside this service (e.g. direct SQL).
+ * </p>
+ * <p>
+ * Evictions also advance a generation: a global one for {@link #evictAll()} and one per
+ * username stripe for {@link #evictUser(String)}, both again after the evicting transaction
+ * commits. A load records the generation before it queries and drops the snapshot it cached
+ * if the generation has moved on since, so a load that read the rows before a concurrent
+ * change committed cannot leave them in the cache after that change's eviction.
+ * </p>
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>{@code auth.user-cache.ttl-ms} - How long a snapshot is served from cache</li>
+ *   <li>{@code auth.user-cache.max-size} - Maximum number of cached users</li>
  * </ul>
  * </p>
  *
@@ -38,23 +73,39 @@ import java.util.stream.Collectors;
  * @see org.springframework.security.core.userdetails.UserDetailsService
  * @see com.template.business.auth.repository.UserRepository
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class DatabaseUserDetailsService implements UserDetailsService {
+public class DatabaseUserDetailsService implements UserDetailsService, UserDetailsPasswordService, MetricsSource {
 
     private final UserRepository userRepository;
 
+    @Value("${auth.user-cache.ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    @Value("${auth.user-cache.max-size:1000}")
+    private int cacheMaxSize;
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final AtomicLongArray userGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder staleLoads = new LongAdder();
+
     /**
      * Loads user details by username for Spring Security authentication.
      * <p>
      * This method is called by Spring Security during the authentication process.
-     * It retrieves the user from the database, validates their account status,
-     * and constructs a UserDetails object containing the user's credentials and
-     * authorities.
-     * </p>
-     * <p>
-     * Note: @Transactional is required to allow lazy-loading of user roles
-     * when accessed by the JWT authentication filter.
+     * It retrieves the user snapshot (from cache or database), validates the account
+     * status, and constructs a UserDetails object containing the user's credentials
+     * and authorities. A new UserDetails instance is built on every call, because
+     * Spring Security may erase its credentials after authentication.
      * </p>
      *
      * @param username the username identifying the user whose data is required
@@ -62,12 +113,13 @@ public class DatabaseUserDetailsService implements UserDetailsService {
      * @throws UsernameNotFoundException if the user could not be found or is not active
      */
     @Override
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        UserSnapshot user = getUserSnapshot(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
 
-        if (!"ACTIVE".equals(user.getStatus())) {
+        if (!user.isActive()) {
             throw new UsernameNotFoundException("User is not active: " + username);
         }
 
@@ -76,18 +128,17 @@ public class DatabaseUserDetailsService implements UserDetailsService {
                 .password(user.getPassword())
                 .authorities(getAuthorities(user))
                 .accountExpired(false)
-                .accountLocked(!"ACTIVE".equals(user.getStatus()))
+                .accountLocked(!user.isActive())
                 .credentialsExpired(false)
-                .disabled(!"ACTIVE".equals(user.getStatus()))
+                .disabled(!user.isActive())
                 .build();
     }
 
     /**
      * Extracts and converts user roles to Spring Security granted authorities.
      * <p>
-     * This method processes the user's role assignments, filtering out inactive
-     * roles and converting the remaining active roles into GrantedAuthority objects
-     * that Spring Security can use for authorization decisions.
+     * Uses the user's active roles across all entities and converts them into
+     * GrantedAuthority objects that Spring Security can use for authorization decisions.
      * </p>
      * <p>
      * Note: Spring Security requires authority names to be prefixed with "ROLE_"
@@ -95,23 +146,69 @@ public class DatabaseUserDetailsService implements UserDetailsService {
      * Database stores "ADMIN", we convert to "ROLE_ADMIN".
      * </p>
      *
-     * @param user the user entity containing role assignments
+     * @param user the user snapshot containing active roles
      * @return a collection of granted authorities derived from active user roles
      */
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return user.getUserRoles().stream()
-                .filter(ur -> "ACTIVE".equals(ur.getStatus()))
-                .map(UserRole::getRole)
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getId().getRole()))
+    private Collection<? extends GrantedAuthority> getAuthorities(UserSnapshot user) {
+        return user.getAllActiveRoles().stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves an immutable snapshot of a user and their active roles.
+     * <p>
+     * Served from the in-process cache while the entry is younger than
+     * {@code auth.user-cache.ttl-ms}; otherwise the user and roles are loaded
+     * with a single query and cached, unless the user was evicted while loading.
+     * </p>
+     *
+     * @param username the username of the user to retrieve
+     * @return the user snapshot if found, null otherwise
+     */
+    public UserSnapshot getUserSnapshot(String username) {
+        long now = System.currentTimeMillis();
+
+        CachedUser cached = cache.get(username);
+        if (cached != null) {
+            if (now - cached.loadedAt < cacheTtlMs) {
+                hits.increment();
+                return cached.snapshot;
+            }
+            if (cache.remove(username, cached)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        int stripe = stripe(username);
+        long generation = generation(stripe);
+        UserSnapshot snapshot = userRepository.findWithRolesByUsername(username)
+                .map(UserSnapshot::from)
+                .orElse(null);
+
+        if (snapshot != null) {
+            if (cache.size() >= cacheMaxSize) {
+                trimCache(now);
+            }
+            CachedUser loaded = new CachedUser(snapshot, now);
+            cache.put(username, loaded);
+            // Checked after the put: an eviction advances the generation before it removes,
+            // so either it removes this entry or this check sees it
+            if (generation(stripe) != generation && cache.remove(username, loaded)) {
+                staleLoads.increment();
+            }
+        }
+        return snapshot;
+    }
+
     /**
      * Retrieves a user entity by username.
      * <p>
      * This method provides direct access to the User entity, useful for
      * operations that need the full user object rather than just the
-     * UserDetails representation.
+     * UserDetails representation. Not cached; prefer {@link #getUserSnapshot(String)}
+     * on hot paths.
      * </p>
      *
      * @param username the username of the user to retrieve
@@ -120,4 +217,144 @@ public class DatabaseUserDetailsService implements UserDetailsService {
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
     }
+
+    /**
+     * Stores a re-encoded password hash for a user (e.g. after a BCrypt cost increase).
+     * <p>
+     * The update only applies if the stored hash is still the one the user just
+     * authenticated with, so a password reset that happened in the meantime wins.
+     * </p>
+     *
+     * @param user the authenticated user details (carrying the old hash)
+     * @param newPassword the new encoded password hash
+     * @return user details carrying the new hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = userRepository.updatePasswordIfUnchanged(user.getUsername(), user.getPassword(), newPassword);
+        if (updated == 0) {
+            log.debug("Password hash for user {} changed concurrently, skipping upgrade", user.getUsername());
+            return user;
+        }
+
+        evictUser(user.getUsername());
+        log.info("Upgraded password hash for user: {}", user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    /**
+     * Evicts a user from the cache.
+     * <p>
+     * When called inside a transaction, the entry is evicted again after commit. Both
+     * evictions advance the user's generation, so a load that started before the commit
+     * does not keep what it read (see {@link #getUserSnapshot(String)}).
+     * </p>
+     *
+     * @param username the user whose snapshot is no longer valid
+     */
+    public void evictUser(String username) {
+        invalidations.increment();
+        int stripe = stripe(username);
+        userGenerations.incrementAndGet(stripe);
+        cache.remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userGenerations.incrementAndGet(stripe);
+                    cache.remove(username);
+                }
+            });
+        }
+        log.debug("Evicted user from cache: {}", username);
+    }
+
+    /**
+     * Evicts all users from the cache (used after role changes that may affect many users).
+     * <p>
+     * Like {@link #evictUser(String)}, clears again after commit and advances the global
+     * generation both times.
+     * </p>
+     */
+    public void evictAll() {
+        invalidations.increment();
+        globalGeneration.incrementAndGet();
+        cache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    globalGeneration.incrementAndGet();
+                    cache.clear();
+                }
+            });
+        }
+        log.debug("Evicted all users from cache");
+    }
+
+    private static int stripe(String username) {
+        return (username.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    /**
+     * Both counters only grow, so the sum changes whenever either of them does
+     */
+    private long generation(int stripe) {
+        return globalGeneration.get() + userGenerations.get(stripe);
+    }
+
+    /**
+     * Removes expired entries and, if the cache is still full, drops entries
+     * until it is back under its size limit.
+     */
+    private void trimCache(long now) {
+        Iterator<CachedUser> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().loadedAt >= cacheTtlMs) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+
+        Iterator<String> keys = cache.keySet().iterator();
+        int target = cacheMaxSize - Math.max(1, cacheMaxSize / 10);
+        while (cache.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "userCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", cache.size());
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("invalidations", invalidations.sum());
+        metrics.put("staleLoads", staleLoads.sum());
+        return metrics;
+    }
+
+    /**
+     * Cache entry: snapshot plus the time it was loaded.
+     */
+    private static final class CachedUser {
+        private final UserSnapshot snapshot;
+        private final long loadedAt;
+
+        private CachedUser(UserSnapshot snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+        }
+    }
 }
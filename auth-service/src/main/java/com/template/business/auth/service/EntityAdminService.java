@@ -6,13 +6,11 @@ import java.util.stream.Collectors;
 
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.SearchRequest;
+import com.template.business.auth.util.KeysetPagination;
 import com.template.business.auth.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,6 +33,8 @@ import com.template.business.auth.repository.EntityRepository;
 public class EntityAdminService {
 
     private final EntityRepository entityRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final SearchPageExecutor searchPageExecutor;
 
     /**
      * Get all entities
@@ -55,12 +55,11 @@ public class EntityAdminService {
     public PageResponse<EntityAdminDTO> searchEntities(SearchRequest request) {
         Specification<ApplicationEntity> spec = SpecificationBuilder.buildSpecification(request);
         Sort sort = buildSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
-
-        Page<ApplicationEntity> page = entityRepository.findAll(spec, pageable);
-        Page<EntityAdminDTO> dtoPage = page.map(this::convertToDTO);
-
-        return PageResponse.of(dtoPage);
+        if (request.isKeyset()) {
+            return KeysetPagination.search(entityRepository, ApplicationEntity.class, spec, sort, "id", request,
+                    this::convertToDTO);
+        }
+        return searchPageExecutor.search(entityRepository, ApplicationEntity.class, spec, sort, request, this::convertToDTO);
     }
 
     private Sort buildSort(SearchRequest.SortInfo sortInfo) {
@@ -108,6 +107,7 @@ public class EntityAdminService {
         entity.setCreateUser(SecurityContextHolder.getContext().getAuthentication().getName());
 
         ApplicationEntity saved = entityRepository.save(entity);
+        referenceDataCache.refreshAfterCommit();
 
         log.info("Admin {} created entity: {} (ID auto-generated: {})",
                 SecurityContextHolder.getContext().getAuthentication().getName(),
@@ -146,6 +146,7 @@ public class EntityAdminService {
         entity.setDescription(dto.getDescription());
 
         ApplicationEntity updated = entityRepository.save(entity);
+        referenceDataCache.refreshAfterCommit();
 
         log.info("Admin {} updated entity: {}",
                 SecurityContextHolder.getContext().getAuthentication().getName(),
@@ -168,6 +169,7 @@ public class EntityAdminService {
         }
 
         entityRepository.delete(entity);
+        referenceDataCache.refreshAfterCommit();
 
         log.info("Admin {} deleted entity: {}",
                 SecurityContextHolder.getContext().getAuthentication().getName(),
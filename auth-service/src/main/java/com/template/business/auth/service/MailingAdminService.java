@@ -7,13 +7,11 @@ import java.util.stream.Collectors;
 import com.template.business.auth.dto.MailingCreateRequest;
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.SearchRequest;
+import com.template.business.auth.util.KeysetPagination;
 import com.template.business.auth.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,6 +32,7 @@ import com.template.business.auth.repository.MailingRepository;
 public class MailingAdminService {
 
     private final MailingRepository mailingRepository;
+    private final SearchPageExecutor searchPageExecutor;
 
     /**
      * Get all mailings
@@ -54,12 +53,11 @@ public class MailingAdminService {
     public PageResponse<MailingDTO> searchMailings(SearchRequest request) {
         Specification<Mailing> spec = SpecificationBuilder.buildSpecification(request);
         Sort sort = buildSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
-
-        Page<Mailing> page = mailingRepository.findAll(spec, pageable);
-        Page<MailingDTO> dtoPage = page.map(this::convertToDTO);
-
-        return PageResponse.of(dtoPage);
+        if (request.isKeyset()) {
+            return KeysetPagination.search(mailingRepository, Mailing.class, spec, sort, "id", request,
+                    this::convertToDTO);
+        }
+        return searchPageExecutor.search(mailingRepository, Mailing.class, spec, sort, request, this::convertToDTO);
     }
 
     private Sort buildSort(SearchRequest.SortInfo sortInfo) {
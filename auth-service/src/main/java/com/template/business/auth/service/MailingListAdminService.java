@@ -17,13 +17,11 @@ import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.repository.MailingListRepository;
 import com.template.business.auth.repository.MailingListUserRepository;
 import com.template.business.auth.repository.UserRepository;
+import com.template.business.auth.util.KeysetPagination;
 import com.template.business.auth.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -38,6 +36,7 @@ public class MailingListAdminService {
     private final MailingListRepository mailingListRepository;
     private final MailingListUserRepository mailingListUserRepository;
     private final UserRepository userRepository;
+    private final SearchPageExecutor searchPageExecutor;
 
     public List<MailingListDTO> getAllMailingLists() {
         List<MailingList> lists = mailingListRepository.findAll();
@@ -52,12 +51,11 @@ public class MailingListAdminService {
     public PageResponse<MailingListDTO> searchMailingLists(SearchRequest request) {
         Specification<MailingList> spec = SpecificationBuilder.buildSpecification(request);
         Sort sort = buildSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
-
-        Page<MailingList> page = mailingListRepository.findAll(spec, pageable);
-        Page<MailingListDTO> dtoPage = page.map(this::convertToDTO);
-
-        return PageResponse.of(dtoPage);
+        if (request.isKeyset()) {
+            return KeysetPagination.search(mailingListRepository, MailingList.class, spec, sort, "name", request,
+                    this::convertToDTO);
+        }
+        return searchPageExecutor.search(mailingListRepository, MailingList.class, spec, sort, request, this::convertToDTO);
     }
 
     private Sort buildSort(SearchRequest.SortInfo sortInfo) {
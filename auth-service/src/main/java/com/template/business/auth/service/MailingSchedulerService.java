@@ -6,6 +6,7 @@ import com.template.business.auth.entity.User;
 import com.template.business.auth.repository.MailingListUserRepository;
 import com.template.business.auth.repository.MailingRepository;
 import com.template.business.auth.repository.UserRepository;
+import com.template.business.auth.util.VirtualThreads;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
@@ -20,6 +21,8 @@ import org.springframework.stereotype.Service;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
 /**
@@ -28,7 +31,13 @@ import java.util.stream.Collectors;
  * and sends via JavaMailSender (SMTP).
  *
  * Only active when mailing.scheduler.enabled=true.
+ * With several instances and scheduler.lock.enabled=true, only the node holding the "mailingQueue" lease
+ * ({@link SchedulerLockService}) processes the queue, so no mailing is sent twice.
  * Oracle's PK_MAILING package remains as an independent fallback.
+ *
+ * With mailing.scheduler.max-concurrent-sends > 1, pending mailings are sent in parallel,
+ * one thread per mailing (virtual when spring.threads.virtual.enabled=true) and at most
+ * that many at once, so a slow SMTP server no longer delays the whole queue.
  */
 @Service
 @ConditionalOnProperty(name = "mailing.scheduler.enabled", havingValue = "true")
@@ -40,23 +49,36 @@ public class MailingSchedulerService {
     private final MailingListUserRepository mailingListUserRepository;
     private final UserRepository userRepository;
     private final JavaMailSender mailSender;
+    private final SchedulerLockService schedulerLockService;
 
     @Value("${mailing.scheduler.from-address:noreply@example.com}")
     private String fromAddress;
 
+    @Value("${mailing.scheduler.max-concurrent-sends:1}")
+    private int maxConcurrentSends;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     public MailingSchedulerService(MailingRepository mailingRepository,
                                    MailingListUserRepository mailingListUserRepository,
                                    UserRepository userRepository,
-                                   JavaMailSender mailSender) {
+                                   JavaMailSender mailSender,
+                                   SchedulerLockService schedulerLockService) {
         this.mailingRepository = mailingRepository;
         this.mailingListUserRepository = mailingListUserRepository;
         this.userRepository = userRepository;
         this.mailSender = mailSender;
+        this.schedulerLockService = schedulerLockService;
         log.info("Mailing scheduler initialized with from-address: {}", fromAddress);
     }
 
     @Scheduled(fixedDelayString = "${mailing.scheduler.interval:60000}")
     public void processMailingQueue() {
+        schedulerLockService.runExclusively("mailingQueue", this::processPendingMailings);
+    }
+
+    private void processPendingMailings() {
         List<Mailing> pendingMailings = mailingRepository.findBySentAndNotBeforeLessThanEqual("N", new Date());
 
         if (pendingMailings.isEmpty()) {
@@ -65,8 +87,42 @@ public class MailingSchedulerService {
 
         log.info("Processing {} pending mailing(s)", pendingMailings.size());
 
-        for (Mailing mailing : pendingMailings) {
-            processSingleMailing(mailing);
+        if (maxConcurrentSends <= 1 || pendingMailings.size() == 1) {
+            for (Mailing mailing : pendingMailings) {
+                processSingleMailing(mailing);
+            }
+            return;
+        }
+        processConcurrently(pendingMailings);
+    }
+
+    /**
+     * Send each mailing on its own thread, at most maxConcurrentSends at once, and wait for
+     * all of them so they finish while this node still holds the lease
+     */
+    private void processConcurrently(List<Mailing> pendingMailings) {
+        ThreadFactory threadFactory = VirtualThreads.threadFactory("MailingSend-", virtualThreads);
+        Semaphore permits = new Semaphore(maxConcurrentSends);
+        try {
+            for (Mailing mailing : pendingMailings) {
+                permits.acquire();
+                try {
+                    threadFactory.newThread(() -> {
+                        try {
+                            processSingleMailing(mailing);
+                        } finally {
+                            permits.release();
+                        }
+                    }).start();
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            permits.acquire(maxConcurrentSends);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while sending mailings, the rest are sent on the next run");
         }
     }
 
@@ -0,0 +1,329 @@
+package com.template.business.auth.service;
+
+import com.template.business.auth.dto.EntityTypeDTO;
+import com.template.business.auth.dto.LogStatusDTO;
+import com.template.business.auth.dto.UserStatusDTO;
+import com.template.business.auth.entity.ApplicationEntity;
+import com.template.business.auth.entity.EntityType;
+import com.template.business.auth.entity.LogStatus;
+import com.template.business.auth.entity.UserStatus;
+import com.template.business.auth.repository.EntityRepository;
+import com.template.business.auth.repository.EntityTypeRepository;
+import com.template.business.auth.repository.LogStatusRepository;
+import com.template.business.auth.repository.UserStatusRepository;
+import com.template.business.auth.util.MetricsSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the small reference tables: {@code D_ENTITIES}, {@code D_LOG_STATUS},
+ * {@code D_USER_STATUS} and {@code D_ENTITY_TYPES}.
+ * <p>
+ * Entity id/name resolution in session lists, user/role DTOs and log writes used to run
+ * one query per row. All tables are instead loaded together into an immutable snapshot
+ * that readers access without locking; a refresh builds a new snapshot and swaps it in
+ * (copy-on-write).
+ * </p>
+ * <p>
+ * The snapshot is reloaded:
+ * <ul>
+ *   <li>After {@link EntityAdminService} commits a change ({@link #refreshAfterCommit()})</li>
+ *   <li>Every {@code reference-data.refresh-interval-ms}, for changes made by other
+ *       instances or directly in the database</li>
+ *   <li>When an entity name is not found, at most once per
+ *       {@code reference-data.min-reload-interval-ms} (a new entity becomes usable
+ *       immediately, unknown names cannot cause a reload storm)</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The snapshot holds immutable copies of the rows, never JPA entities: a cached entity
+ * would be shared by all callers and, when read inside a transaction, could be changed
+ * and flushed by any of them. Each call returns new DTOs built from those copies.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCache implements MetricsSource {
+
+    private final EntityRepository entityRepository;
+    private final LogStatusRepository logStatusRepository;
+    private final UserStatusRepository userStatusRepository;
+    private final EntityTypeRepository entityTypeRepository;
+
+    @Value("${reference-data.min-reload-interval-ms:5000}")
+    private long minReloadIntervalMs;
+
+    private volatile Snapshot snapshot;
+    // Serializes reloads; a lock rather than synchronized because a reload runs queries,
+    // which would pin the carrier of a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder missReloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+    private final AtomicLong lastReloadMs = new AtomicLong();
+
+    /**
+     * Get the name of an entity
+     *
+     * @param entityId the entity ID
+     * @return the entity name, or null if the entity is unknown
+     */
+    public String getEntityName(String entityId) {
+        return entityId != null ? snapshot().entityNamesById.get(entityId) : null;
+    }
+
+    /**
+     * Find the ID of an entity by its name
+     *
+     * @param entityName the entity name
+     * @return the entity ID, or empty if no entity has this name
+     */
+    public Optional<String> findEntityIdByName(String entityName) {
+        if (entityName == null) {
+            return Optional.empty();
+        }
+        String id = snapshot().entityIdsByName.get(entityName);
+        if (id == null && reloadOnMiss()) {
+            id = snapshot().entityIdsByName.get(entityName);
+        }
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Check whether a log status exists in D_LOG_STATUS
+     */
+    public boolean isLogStatus(String status) {
+        return status != null && snapshot().logStatuses.containsKey(status);
+    }
+
+    /**
+     * Get all log statuses
+     */
+    public List<LogStatusDTO> getLogStatuses() {
+        return snapshot().logStatuses.values().stream().map(LogStatusRow::toDTO).toList();
+    }
+
+    /**
+     * Get all user statuses
+     */
+    public List<UserStatusDTO> getUserStatuses() {
+        return snapshot().userStatuses.stream().map(UserStatusRow::toDTO).toList();
+    }
+
+    /**
+     * Get all entity types
+     */
+    public List<EntityTypeDTO> getEntityTypes() {
+        return snapshot().entityTypes.stream().map(EntityTypeRow::toDTO).toList();
+    }
+
+    /**
+     * Reload the snapshot once the current transaction commits (immediately if there is none)
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Periodic reload for changes made elsewhere
+     */
+    @Scheduled(fixedDelayString = "${reference-data.refresh-interval-ms:300000}",
+               initialDelayString = "${reference-data.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            failedReloads.increment();
+            log.error("Failed to refresh reference data: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load all reference tables and swap in the new snapshot
+     */
+    public void refresh() {
+        reloadLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+
+            Map<String, String> namesById = new LinkedHashMap<>();
+            Map<String, String> idsByName = new LinkedHashMap<>();
+            for (ApplicationEntity entity : entityRepository.findAll()) {
+                namesById.put(entity.getId(), entity.getName());
+                idsByName.putIfAbsent(entity.getName(), entity.getId());
+            }
+
+            Map<String, LogStatusRow> logStatuses = new LinkedHashMap<>();
+            for (LogStatus status : logStatusRepository.findAll()) {
+                logStatuses.put(status.getStatus(), LogStatusRow.of(status));
+            }
+
+            snapshot = new Snapshot(
+                    Collections.unmodifiableMap(namesById),
+                    Collections.unmodifiableMap(idsByName),
+                    Collections.unmodifiableMap(logStatuses),
+                    userStatusRepository.findAll().stream().map(UserStatusRow::of).toList(),
+                    entityTypeRepository.findAll().stream().map(EntityTypeRow::of).toList(),
+                    System.currentTimeMillis());
+
+            reloads.increment();
+            lastReloadMs.set(System.currentTimeMillis() - start);
+            log.debug("Reference data reloaded in {} ms: {} entities, {} log statuses",
+                    lastReloadMs.get(), namesById.size(), logStatuses.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reloadLock.lock();
+            try {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reload after a lookup miss, unless the snapshot is younger than the minimum interval
+     *
+     * @return true if the snapshot was reloaded
+     */
+    private boolean reloadOnMiss() {
+        reloadLock.lock();
+        try {
+            if (System.currentTimeMillis() - snapshot().loadedAt < minReloadIntervalMs) {
+                return false;
+            }
+            missReloads.increment();
+            refresh();
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "referenceData";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Snapshot current = snapshot;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entities", current != null ? current.entityNamesById.size() : 0);
+        metrics.put("logStatuses", current != null ? current.logStatuses.size() : 0);
+        metrics.put("userStatuses", current != null ? current.userStatuses.size() : 0);
+        metrics.put("entityTypes", current != null ? current.entityTypes.size() : 0);
+        metrics.put("reloads", reloads.sum());
+        metrics.put("missReloads", missReloads.sum());
+        metrics.put("failedReloads", failedReloads.sum());
+        metrics.put("lastReloadMs", lastReloadMs.get());
+        metrics.put("loadedAt", current != null ? new Date(current.loadedAt) : null);
+        return metrics;
+    }
+
+    private record Snapshot(
+            Map<String, String> entityNamesById,
+            Map<String, String> entityIdsByName,
+            Map<String, LogStatusRow> logStatuses,
+            List<UserStatusRow> userStatuses,
+            List<EntityTypeRow> entityTypes,
+            long loadedAt) {
+    }
+
+    private record LogStatusRow(String status, Integer deleteAfter) {
+
+        static LogStatusRow of(LogStatus status) {
+            return new LogStatusRow(status.getStatus(), status.getDeleteAfter());
+        }
+
+        LogStatusDTO toDTO() {
+            return LogStatusDTO.builder()
+                    .status(status)
+                    .deleteAfter(deleteAfter)
+                    .build();
+        }
+    }
+
+    private record UserStatusRow(String status, String description, Long createDate, String createUser) {
+
+        static UserStatusRow of(UserStatus status) {
+            return new UserStatusRow(status.getStatus(), status.getDescription(),
+                    toMillis(status.getCreateDate()), status.getCreateUser());
+        }
+
+        UserStatusDTO toDTO() {
+            return UserStatusDTO.builder()
+                    .status(status)
+                    .description(description)
+                    .createDate(toDate(createDate))
+                    .createUser(createUser)
+                    .build();
+        }
+    }
+
+    private record EntityTypeRow(String tag, String type, String description, Long createDate, String createUser) {
+
+        static EntityTypeRow of(EntityType entityType) {
+            return new EntityTypeRow(entityType.getTag(), entityType.getType(), entityType.getDescription(),
+                    toMillis(entityType.getCreateDate()), entityType.getCreateUser());
+        }
+
+        EntityTypeDTO toDTO() {
+            return EntityTypeDTO.builder()
+                    .tag(tag)
+                    .type(type)
+                    .description(description)
+                    .createDate(toDate(createDate))
+                    .createUser(createUser)
+                    .build();
+        }
+    }
+
+    private static Long toMillis(Date date) {
+        return date != null ? date.getTime() : null;
+    }
+
+    private static Date toDate(Long millis) {
+        return millis != null ? new Date(millis) : null;
+    }
+}
@@ -1,14 +1,14 @@
 package com.template.business.auth.service;
 
+import com.template.business.auth.dto.IssuedRefreshToken;
 import com.template.business.auth.dto.PageResponse;
 import com.template.business.auth.dto.RefreshTokenResponse;
 import com.template.business.auth.dto.SearchRequest;
 import com.template.business.auth.dto.SessionDTO;
-import com.template.business.auth.entity.ApplicationEntity;
+import com.template.business.auth.dto.UserSnapshot;
 import com.template.business.auth.entity.RefreshToken;
-import com.template.business.auth.entity.User;
 import com.template.business.auth.entity.UserRole;
-import com.template.business.auth.repository.EntityRepository;
+import com.template.business.auth.event.DashboardEvent;
 import com.template.business.auth.exception.CustomAuthenticationException;
 import com.template.business.auth.exception.CustomAuthorizationException;
 import com.template.business.auth.exception.ErrorCode;
@@ -16,14 +16,16 @@ import com.template.business.auth.exception.InternalApiException;
 import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.repository.RefreshTokenRepository;
 import com.template.business.auth.security.JwtUtil;
-import jakarta.persistence.criteria.Predicate;
+import com.template.business.auth.security.ParsedRefreshToken;
+import com.template.business.auth.security.RefreshTokenCodec;
+import com.template.business.auth.util.KeysetPagination;
+import com.template.business.auth.util.SpecificationBuilder;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -32,8 +34,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -47,6 +47,8 @@ import java.util.stream.Collectors;
  *   <li>Session tracking and management</li>
  *   <li>Security monitoring (IP, device, location)</li>
  * </ul>
+ *
+ * <p>Logins and revocations publish a {@link DashboardEvent} that drives the live admin dashboard.
  */
 @Slf4j
 @Service
@@ -54,9 +56,13 @@ import java.util.stream.Collectors;
 public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
-    private final EntityRepository entityRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final DatabaseUserDetailsService databaseUserDetailsService;
     private final JwtUtil jwtUtil;
+    private final SessionActivityBuffer sessionActivityBuffer;
+    private final RefreshTokenCodec refreshTokenCodec;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchPageExecutor searchPageExecutor;
 
     @Value("${jwt.refresh.expiration:86400000}") // 24 hours default
     private Long refreshTokenExpiration;
@@ -74,33 +80,57 @@ public class RefreshTokenService {
      * @param entity the application/entity code
      * @param request HTTP request for extracting IP and user agent
      * @param creationType LOGIN or REFRESH
-     * @return the plain refresh token (UUID format)
+     * @return the plain refresh token
      */
     @Transactional
     public String createRefreshToken(String username, String entity, HttpServletRequest request, String creationType) {
-        // Generate random UUID as refresh token
-        String tokenValue = UUID.randomUUID().toString();
-
-        // Hash the token before storing (SHA-256)
-        String tokenHash = hashToken(tokenValue);
+        return issueRefreshToken(username, entity, request, creationType).getToken();
+    }
 
-        // Check if user has too many active sessions
+    /**
+     * Creates a new refresh token for a user session and returns it with its session ID
+     *
+     * @param username the username
+     * @param entity the application/entity code
+     * @param request HTTP request for extracting IP and user agent
+     * @param creationType LOGIN or REFRESH
+     * @return the plain refresh token and the ID of the new session
+     */
+    @Transactional
+    public IssuedRefreshToken issueRefreshToken(String username, String entity, HttpServletRequest request, String creationType) {
+        // Enforce session limit: revoke oldest active sessions so that, together with
+        // the new one, at most maxSessionsPerUser remain (single set-based UPDATE)
         Date now = new Date();
-        long activeCount = refreshTokenRepository.countActiveTokensByUsernameAndEntity(username, entity, now);
-
-        if (activeCount >= maxSessionsPerUser) {
-            // Auto-revoke oldest session
-            List<RefreshToken> oldestTokens = refreshTokenRepository
-                .findOldestTokensByUsernameAndEntity(username, entity, now);
-
-            if (!oldestTokens.isEmpty()) {
-                RefreshToken oldest = oldestTokens.get(0);
-                oldest.revoke();
-                refreshTokenRepository.save(oldest);
-                log.info("Auto-revoked oldest session for user {} (session limit reached)", username);
-            }
+        int revokedCount = refreshTokenRepository.revokeExcessActiveTokens(
+                username, entity, now, Math.max(0, maxSessionsPerUser - 1));
+
+        if (revokedCount > 0) {
+            log.info("Auto-revoked {} oldest session(s) for user {} (session limit reached)", revokedCount, username);
         }
 
+        IssuedRefreshToken issued = insertRefreshToken(username, entity, request, creationType);
+
+        if ("LOGIN".equals(creationType)) {
+            eventPublisher.publishEvent(DashboardEvent.login(username, entity, getClientIp(request), revokedCount));
+        } else if (revokedCount > 0) {
+            eventPublisher.publishEvent(DashboardEvent.sessionsRevoked(username, entity, revokedCount));
+        }
+        return issued;
+    }
+
+    /**
+     * Inserts a new refresh token without session limit enforcement
+     * (used directly by rotation, which replaces one active token with another)
+     *
+     * @return the plain refresh token ({@link RefreshTokenCodec} format) and the new session ID
+     */
+    private IssuedRefreshToken insertRefreshToken(String username, String entity, HttpServletRequest request, String creationType) {
+        // Generate the random secret part of the token
+        String secret = refreshTokenCodec.newSecret();
+
+        // Hash the secret before storing (SHA-256)
+        String tokenHash = hashToken(secret);
+
         // Create refresh token entity
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setTokenHash(tokenHash);
@@ -115,20 +145,29 @@ public class RefreshTokenService {
         refreshToken.setUserAgent(getUserAgent(request));
         refreshToken.setDeviceName(parseDeviceName(getUserAgent(request)));
 
-        // Save to database
+        // Save to database (the sequence assigns the ID, which becomes part of the token)
         refreshTokenRepository.save(refreshToken);
 
         log.info("Created refresh token for user: {} entity: {} from IP: {}",
                 username, entity, refreshToken.getIpAddress());
 
         // Return the plain token (not the hash!)
-        return tokenValue;
+        String tokenValue = refreshTokenCodec.encode(refreshToken.getId(), secret);
+        return new IssuedRefreshToken(refreshToken.getId(), tokenValue);
     }
 
     /**
      * Refresh access token using a refresh token
      * Implements token rotation: old refresh token is revoked, new one issued
      *
+     * <p>Rotation is a compare-and-swap: the old token is revoked with a conditional
+     * UPDATE that only matches an active token, so when the same token is presented
+     * concurrently exactly one request wins and the others are rejected - without
+     * pessimistic locks. Statements: token lookup, conditional UPDATE, successor insert.
+     *
+     * <p>Tokens with a bad format or tag are rejected before any statement runs;
+     * valid tokens are looked up by primary key (legacy UUID tokens by hash).
+     *
      * @param refreshTokenValue the refresh token from client
      * @return RefreshTokenResponse with new access token and refresh token
      * @throws CustomAuthenticationException if token is invalid or expired
@@ -136,33 +175,26 @@ public class RefreshTokenService {
      */
     @Transactional
     public RefreshTokenResponse refreshAccessToken(String refreshTokenValue, HttpServletRequest request) {
-        // Hash the provided token to look it up
-        String tokenHash = hashToken(refreshTokenValue);
-
-        // Find token in database
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+        // Find token in database (owner and entity of the session)
+        RefreshToken refreshToken = findRefreshToken(refreshTokenValue)
                 .orElseThrow(() -> new CustomAuthenticationException(ErrorCode.INVALID_REFRESH_TOKEN));
 
-        // Validate token
-        if (!refreshToken.isValid()) {
+        // TOKEN ROTATION: consume the old token atomically - only one concurrent refresh can win
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId(), new Date()) == 0) {
             throw new CustomAuthenticationException(
                     ErrorCode.INVALID_REFRESH_TOKEN,
                     "Refresh token is expired or revoked"
             );
         }
 
-        // Update last used timestamp
-        refreshToken.updateLastUsed();
-        refreshTokenRepository.save(refreshToken);
-
         // Get user details and roles
-        User user = databaseUserDetailsService.getUserByUsername(refreshToken.getUsername());
+        UserSnapshot user = databaseUserDetailsService.getUserSnapshot(refreshToken.getUsername());
         if (user == null) {
             throw new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND);
         }
 
         // SECURITY: Validate user status - reject if user is not ACTIVE
-        if (!"ACTIVE".equals(user.getStatus())) {
+        if (!user.isActive()) {
             throw new CustomAuthenticationException(
                     ErrorCode.AUTHENTICATION_ERROR,
                     "User account is not active"
@@ -170,33 +202,26 @@ public class RefreshTokenService {
         }
 
         // Extract roles for the entity
-        List<String> roles = user.getUserRoles().stream()
-                .filter(ur -> "ACTIVE".equals(ur.getStatus()))
-                .filter(ur -> refreshToken.getEntity().equals(ur.getId().getEntity()))
-                .map(ur -> ur.getId().getRole())
-                .distinct()
-                .collect(Collectors.toList());
-
-        // Generate new access token (short-lived) with entityName for validation
-        String newAccessToken = jwtUtil.generateToken(refreshToken.getUsername(), roles, refreshToken.getEntity());
+        List<String> roles = user.getActiveRoles(refreshToken.getEntity());
 
-        // TOKEN ROTATION: Revoke old refresh token and create new one
-        refreshToken.revoke();
-        refreshTokenRepository.save(refreshToken);
-
-        String newRefreshToken = createRefreshToken(
+        // Issue the successor (session count is unchanged, so no limit enforcement needed)
+        IssuedRefreshToken newRefreshToken = insertRefreshToken(
                 refreshToken.getUsername(),
                 refreshToken.getEntity(),
                 request,
                 "REFRESH" // This is a token rotation, not a new login
         );
 
+        // Generate new access token (short-lived) with entityName and session ID
+        String newAccessToken = jwtUtil.generateToken(
+                refreshToken.getUsername(), roles, refreshToken.getEntity(), newRefreshToken.getSessionId());
+
         log.info("Refreshed access token for user: {} entity: {}",
                 refreshToken.getUsername(), refreshToken.getEntity());
 
         return RefreshTokenResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken)
+                .refreshToken(newRefreshToken.getToken())
                 .type("Bearer")
                 .username(refreshToken.getUsername())
                 .roles(roles)
@@ -212,8 +237,23 @@ public class RefreshTokenService {
      */
     @Transactional
     public void revokeRefreshToken(String refreshTokenValue) {
-        String tokenHash = hashToken(refreshTokenValue);
-        refreshTokenRepository.revokeTokenByHash(tokenHash, new Date());
+        ParsedRefreshToken parsed = refreshTokenCodec.parse(refreshTokenValue);
+        if (parsed == null) {
+            log.debug("Ignoring revocation of malformed refresh token");
+            return;
+        }
+
+        String tokenHash = hashToken(parsed.getSecret());
+        int count;
+        if (parsed.getSessionId() != null) {
+            count = refreshTokenRepository.revokeTokenByIdAndHash(parsed.getSessionId(), tokenHash, new Date());
+        } else {
+            count = refreshTokenRepository.revokeTokenByHash(tokenHash, new Date());
+        }
+        if (count > 0) {
+            // Entity is not known without another query - the dashboard only adjusts totals
+            eventPublisher.publishEvent(DashboardEvent.sessionsRevoked(null, null, count));
+        }
         log.info("Revoked refresh token");
     }
 
@@ -225,6 +265,9 @@ public class RefreshTokenService {
     @Transactional
     public void revokeAllUserTokens(String username) {
         int count = refreshTokenRepository.revokeAllTokensByUsername(username, new Date());
+        if (count > 0) {
+            eventPublisher.publishEvent(DashboardEvent.sessionsRevoked(username, null, count));
+        }
         log.info("Revoked {} tokens for user: {}", count, username);
     }
 
@@ -237,6 +280,9 @@ public class RefreshTokenService {
     @Transactional
     public void revokeAllUserEntityTokens(String username, String entity) {
         int count = refreshTokenRepository.revokeAllTokensByUsernameAndEntity(username, entity, new Date());
+        if (count > 0) {
+            eventPublisher.publishEvent(DashboardEvent.sessionsRevoked(username, entity, count));
+        }
         log.info("Revoked {} tokens for user: {} entity: {}", count, username, entity);
     }
 
@@ -251,7 +297,8 @@ public class RefreshTokenService {
         Date now = new Date();
         List<RefreshToken> activeTokens = refreshTokenRepository.findActiveTokensByUsername(username, now);
 
-        String currentTokenHash = currentTokenValue != null ? hashToken(currentTokenValue) : null;
+        ParsedRefreshToken current = currentTokenValue != null ? refreshTokenCodec.parse(currentTokenValue) : null;
+        String currentTokenHash = current != null ? hashToken(current.getSecret()) : null;
 
         return activeTokens.stream()
                 .map(token -> SessionDTO.builder()
@@ -264,7 +311,7 @@ public class RefreshTokenService {
                         .location(token.getLocation())
                         .userAgent(token.getUserAgent())
                         .createdAt(token.getCreateDate())
-                        .lastUsedAt(token.getLastUsedAt())
+                        .lastUsedAt(sessionActivityBuffer.merge(token.getId(), token.getLastUsedAt()))
                         .expiresAt(token.getExpiresAt())
                         .current(token.getTokenHash().equals(currentTokenHash))
                         .revoked(token.getRevoked())
@@ -295,7 +342,7 @@ public class RefreshTokenService {
                         .location(token.getLocation())
                         .userAgent(token.getUserAgent())
                         .createdAt(token.getCreateDate())
-                        .lastUsedAt(token.getLastUsedAt())
+                        .lastUsedAt(sessionActivityBuffer.merge(token.getId(), token.getLastUsedAt()))
                         .expiresAt(token.getExpiresAt())
                         .current(false)
                         .revoked(token.getRevoked())
@@ -323,7 +370,7 @@ public class RefreshTokenService {
                         .location(token.getLocation())
                         .userAgent(token.getUserAgent())
                         .createdAt(token.getCreateDate())
-                        .lastUsedAt(token.getLastUsedAt())
+                        .lastUsedAt(sessionActivityBuffer.merge(token.getId(), token.getLastUsedAt()))
                         .expiresAt(token.getExpiresAt())
                         .current(false)
                         .revoked(token.getRevoked())
@@ -331,7 +378,18 @@ public class RefreshTokenService {
                 .collect(Collectors.toList());
     }
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    /**
+     * Searchable session fields (frontend name -> entity path); token hashes are never searchable
+     */
+    private static final SpecificationBuilder.FieldMapping SESSION_SEARCH_FIELDS = SpecificationBuilder.FieldMapping.only(Map.of(
+            "username", "username",
+            "entity", "entity",
+            "deviceName", "deviceName",
+            "ipAddress", "ipAddress",
+            "location", "location",
+            "createdAt", "createDate",
+            "lastUsedAt", "lastUsedAt",
+            "expiresAt", "expiresAt"));
 
     /**
      * Search sessions with pagination, filtering, and sorting (ADMIN only)
@@ -342,10 +400,15 @@ public class RefreshTokenService {
     public PageResponse<SessionDTO> searchSessions(SearchRequest request) {
         Specification<RefreshToken> spec = buildSessionSpecification(request);
         Sort sort = buildSessionSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
+        if (request.isKeyset()) {
+            return KeysetPagination.search(refreshTokenRepository, RefreshToken.class, spec, sort, "id", request,
+                    this::toSessionDTO);
+        }
+        return searchPageExecutor.search(refreshTokenRepository, RefreshToken.class, spec, sort, request, this::toSessionDTO);
+    }
 
-        Page<RefreshToken> page = refreshTokenRepository.findAll(spec, pageable);
-        Page<SessionDTO> dtoPage = page.map(token -> SessionDTO.builder()
+    private SessionDTO toSessionDTO(RefreshToken token) {
+        return SessionDTO.builder()
                 .sessionId(token.getId())
                 .username(token.getUsername())
                 .entity(token.getEntity())
@@ -355,95 +418,20 @@ public class RefreshTokenService {
                 .location(token.getLocation())
                 .userAgent(token.getUserAgent())
                 .createdAt(token.getCreateDate())
-                .lastUsedAt(token.getLastUsedAt())
+                .lastUsedAt(sessionActivityBuffer.merge(token.getId(), token.getLastUsedAt()))
                 .expiresAt(token.getExpiresAt())
                 .current(false)
                 .revoked(token.getRevoked())
-                .build());
-
-        return PageResponse.of(dtoPage);
+                .build();
     }
 
     private Specification<RefreshToken> buildSessionSpecification(SearchRequest request) {
-        return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            // Always filter active sessions by default (not revoked, not expired)
-            Date now = new Date();
-            predicates.add(criteriaBuilder.equal(root.get("revoked"), false));
-            predicates.add(criteriaBuilder.greaterThan(root.get("expiresAt"), now));
-
-            if (request.getFilters() != null) {
-                for (Map.Entry<String, String> entry : request.getFilters().entrySet()) {
-                    String field = entry.getKey();
-                    String value = entry.getValue();
-
-                    if (value != null && !value.isEmpty()) {
-                        try {
-                            // Map frontend field names to entity field names
-                            String mappedField = mapSessionField(field);
-                            if (mappedField != null) {
-                                predicates.add(criteriaBuilder.like(
-                                        criteriaBuilder.lower(root.get(mappedField).as(String.class)),
-                                        "%" + value.toLowerCase() + "%"
-                                ));
-                            }
-                        } catch (Exception e) {
-                            // Skip invalid fields
-                        }
-                    }
-                }
-            }
+        // Always filter active sessions by default (not revoked, not expired)
+        Specification<RefreshToken> active = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.equal(root.get("revoked"), false),
+                criteriaBuilder.greaterThan(root.get("expiresAt"), new Date()));
 
-            // Handle date range filters
-            if (request.getDateRanges() != null) {
-                for (Map.Entry<String, SearchRequest.DateRange> entry : request.getDateRanges().entrySet()) {
-                    String field = entry.getKey();
-                    SearchRequest.DateRange dateRange = entry.getValue();
-
-                    try {
-                        String mappedField = mapSessionDateField(field);
-                        if (mappedField != null) {
-                            if (dateRange.getFrom() != null && !dateRange.getFrom().isEmpty()) {
-                                LocalDate fromDate = LocalDate.parse(dateRange.getFrom(), DATE_FORMATTER);
-                                Date fromDateValue = java.sql.Timestamp.valueOf(fromDate.atStartOfDay());
-                                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get(mappedField), fromDateValue));
-                            }
-
-                            if (dateRange.getTo() != null && !dateRange.getTo().isEmpty()) {
-                                LocalDate toDate = LocalDate.parse(dateRange.getTo(), DATE_FORMATTER);
-                                Date toDateValue = java.sql.Timestamp.valueOf(toDate.atTime(23, 59, 59));
-                                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get(mappedField), toDateValue));
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Skip invalid date ranges
-                    }
-                }
-            }
-
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-    }
-
-    private String mapSessionField(String field) {
-        return switch (field) {
-            case "username" -> "username";
-            case "entity" -> "entity";
-            case "deviceName" -> "deviceName";
-            case "ipAddress" -> "ipAddress";
-            case "location" -> "location";
-            default -> null;
-        };
-    }
-
-    private String mapSessionDateField(String field) {
-        return switch (field) {
-            case "createdAt" -> "createDate";
-            case "lastUsedAt" -> "lastUsedAt";
-            case "expiresAt" -> "expiresAt";
-            default -> null;
-        };
+        return active.and(SpecificationBuilder.buildSpecification(request, SESSION_SEARCH_FIELDS));
     }
 
     private Sort buildSessionSort(SearchRequest.SortInfo sortInfo) {
@@ -482,8 +470,7 @@ public class RefreshTokenService {
             throw new CustomAuthorizationException(ErrorCode.UNAUTHORIZED_SESSION_ACCESS);
         }
 
-        token.revoke();
-        refreshTokenRepository.save(token);
+        revokeAndPublish(token);
 
         log.info("Revoked session {} for user: {}", sessionId, username);
     }
@@ -500,43 +487,74 @@ public class RefreshTokenService {
         RefreshToken token = refreshTokenRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.SESSION_NOT_FOUND));
 
+        revokeAndPublish(token);
+
+        log.info("Admin revoked session {} for user: {}", sessionId, token.getUsername());
+    }
+
+    /**
+     * Revoke a loaded session and report it to the dashboard if it was still active
+     */
+    private void revokeAndPublish(RefreshToken token) {
+        boolean wasActive = token.isValid();
+
         token.revoke();
         refreshTokenRepository.save(token);
 
-        log.info("Admin revoked session {} for user: {}", sessionId, token.getUsername());
+        if (wasActive) {
+            eventPublisher.publishEvent(DashboardEvent.sessionsRevoked(token.getUsername(), token.getEntity(), 1));
+        }
     }
 
     /**
-     * Cleanup expired tokens (scheduled job)
+     * Delete one chunk of expired tokens in its own transaction (scheduled job)
      *
-     * @return number of deleted tokens
+     * @param now tokens expiring before this time are deleted
+     * @param batchSize maximum number of tokens to delete
+     * @return number of deleted tokens (less than batchSize when nothing is left)
      */
     @Transactional
-    public int cleanupExpiredTokens() {
-        int count = refreshTokenRepository.deleteExpiredTokens(new Date());
-        if (count > 0) {
-            log.info("Cleaned up {} expired refresh tokens", count);
-        }
-        return count;
+    public int deleteExpiredTokensChunk(Date now, int batchSize) {
+        List<Long> ids = refreshTokenRepository.findExpiredTokenIds(now, PageRequest.of(0, batchSize));
+        return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIds(ids);
     }
 
     /**
-     * Cleanup old revoked tokens (scheduled job)
-     * Deletes revoked tokens older than 30 days
+     * Delete one chunk of old revoked tokens in its own transaction (scheduled job)
      *
-     * @return number of deleted tokens
+     * @param cutoffDate tokens revoked before this time are deleted
+     * @param batchSize maximum number of tokens to delete
+     * @return number of deleted tokens (less than batchSize when nothing is left)
      */
     @Transactional
-    public int cleanupOldRevokedTokens() {
-        Calendar cal = Calendar.getInstance();
-        cal.add(Calendar.DAY_OF_MONTH, -30); // 30 days ago
-        Date cutoffDate = cal.getTime();
+    public int deleteRevokedTokensChunk(Date cutoffDate, int batchSize) {
+        List<Long> ids = refreshTokenRepository.findRevokedTokenIdsOlderThan(cutoffDate, PageRequest.of(0, batchSize));
+        return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIds(ids);
+    }
 
-        int count = refreshTokenRepository.deleteRevokedTokensOlderThan(cutoffDate);
-        if (count > 0) {
-            log.info("Cleaned up {} old revoked tokens", count);
+    /**
+     * Looks up the stored row for a refresh token presented by a client.
+     * Forged or malformed tokens are rejected without a database query; valid tokens
+     * are found by primary key and their secret is checked against the stored hash.
+     * Legacy UUID tokens are still found by hash.
+     *
+     * @param refreshTokenValue the refresh token from client
+     * @return the stored token, or empty if the token is unknown or invalid
+     */
+    private Optional<RefreshToken> findRefreshToken(String refreshTokenValue) {
+        ParsedRefreshToken parsed = refreshTokenCodec.parse(refreshTokenValue);
+        if (parsed == null) {
+            return Optional.empty();
+        }
+
+        String tokenHash = hashToken(parsed.getSecret());
+        if (parsed.getSessionId() == null) {
+            return refreshTokenRepository.findByTokenHash(tokenHash);
         }
-        return count;
+
+        byte[] expected = tokenHash.getBytes(StandardCharsets.UTF_8);
+        return refreshTokenRepository.findById(parsed.getSessionId())
+                .filter(token -> MessageDigest.isEqual(expected, token.getTokenHash().getBytes(StandardCharsets.UTF_8)));
     }
 
     /**
@@ -638,15 +656,14 @@ public class RefreshTokenService {
     }
 
     /**
-     * Get entity name by entity ID
+     * Get entity name by entity ID (from the reference data cache - no query per session row)
      * Falls back to ID if entity not found
      */
     private String getEntityName(String entityId) {
         if (entityId == null) {
             return null;
         }
-        return entityRepository.findById(entityId)
-                .map(ApplicationEntity::getName)
-                .orElse(entityId); // Fallback to ID if not found
+        String name = referenceDataCache.getEntityName(entityId);
+        return name != null ? name : entityId; // Fallback to ID if not found
     }
 }
@@ -11,21 +11,16 @@ import com.template.business.auth.exception.ErrorCode;
 import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.repository.EntityRepository;
 import com.template.business.auth.repository.RoleRepository;
-import jakarta.persistence.criteria.Predicate;
+import com.template.business.auth.security.UserInvalidationRegistry;
+import com.template.business.auth.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +36,17 @@ public class RoleAdminService {
 
     private final RoleRepository roleRepository;
     private final EntityRepository entityRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final DatabaseUserDetailsService userDetailsService;
+    private final UserInvalidationRegistry invalidationRegistry;
+    private final SearchPageExecutor searchPageExecutor;
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    /**
+     * Role and entity are parts of the composite key
+     */
+    private static final SpecificationBuilder.FieldMapping ROLE_SEARCH_FIELDS = SpecificationBuilder.FieldMapping.aliases(Map.of(
+            "role", "id.role",
+            "entity", "id.entity"));
 
     /**
      * Get all roles
@@ -60,76 +64,11 @@ public class RoleAdminService {
     public PageResponse<RoleAdminDTO> searchRoles(SearchRequest request) {
         Specification<Role> spec = buildRoleSpecification(request);
         Sort sort = buildSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
-
-        Page<Role> page = roleRepository.findAll(spec, pageable);
-        Page<RoleAdminDTO> dtoPage = page.map(this::convertToDTO);
-
-        return PageResponse.of(dtoPage);
+        return searchPageExecutor.search(roleRepository, Role.class, spec, sort, request, this::convertToDTO);
     }
 
     private Specification<Role> buildRoleSpecification(SearchRequest request) {
-        return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (request.getFilters() != null) {
-                for (Map.Entry<String, String> entry : request.getFilters().entrySet()) {
-                    String field = entry.getKey();
-                    String value = entry.getValue();
-
-                    if (value != null && !value.isEmpty()) {
-                        try {
-                            // Handle composite key fields
-                            if ("role".equals(field)) {
-                                predicates.add(criteriaBuilder.like(
-                                        criteriaBuilder.lower(root.get("id").get("role")),
-                                        "%" + value.toLowerCase() + "%"
-                                ));
-                            } else if ("entity".equals(field)) {
-                                predicates.add(criteriaBuilder.like(
-                                        criteriaBuilder.lower(root.get("id").get("entity")),
-                                        "%" + value.toLowerCase() + "%"
-                                ));
-                            } else {
-                                // Regular fields
-                                predicates.add(criteriaBuilder.like(
-                                        criteriaBuilder.lower(root.get(field).as(String.class)),
-                                        "%" + value.toLowerCase() + "%"
-                                ));
-                            }
-                        } catch (Exception e) {
-                            // Skip invalid fields
-                        }
-                    }
-                }
-            }
-
-            // Handle date range filters
-            if (request.getDateRanges() != null) {
-                for (Map.Entry<String, SearchRequest.DateRange> entry : request.getDateRanges().entrySet()) {
-                    String field = entry.getKey();
-                    SearchRequest.DateRange dateRange = entry.getValue();
-
-                    try {
-                        if (dateRange.getFrom() != null && !dateRange.getFrom().isEmpty()) {
-                            LocalDate fromDate = LocalDate.parse(dateRange.getFrom(), DATE_FORMATTER);
-                            Date fromDateValue = java.sql.Timestamp.valueOf(fromDate.atStartOfDay());
-                            predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get(field), fromDateValue));
-                        }
-
-                        if (dateRange.getTo() != null && !dateRange.getTo().isEmpty()) {
-                            LocalDate toDate = LocalDate.parse(dateRange.getTo(), DATE_FORMATTER);
-                            Date toDateValue = java.sql.Timestamp.valueOf(toDate.atTime(23, 59, 59));
-                            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get(field), toDateValue));
-                        }
-                    } catch (Exception e) {
-                        // Skip invalid date ranges
-                    }
-                }
-            }
-
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        return SpecificationBuilder.buildSpecification(request, ROLE_SEARCH_FIELDS);
     }
 
     private Sort buildSort(SearchRequest.SortInfo sortInfo) {
@@ -215,6 +154,8 @@ public class RoleAdminService {
         roleEntity.setDescription(request.getDescription());
 
         Role updatedRole = roleRepository.save(roleEntity);
+        userDetailsService.evictAll();
+        invalidateHolders(updatedRole);
         log.info("Admin updated role: {} for entity: {}", role, entity);
 
         return convertToDTO(updatedRole);
@@ -236,10 +177,25 @@ public class RoleAdminService {
                     "Cannot delete role with assigned users. Remove users first.");
         }
 
+        // No holders to invalidate: deletion is refused above while the role has any
         roleRepository.delete(roleEntity);
+        userDetailsService.evictAll();
         log.info("Admin deleted role: {} for entity: {}", role, entity);
     }
 
+    /**
+     * Reject access tokens issued before the change to users holding the role (claims-only mode)
+     */
+    private void invalidateHolders(Role role) {
+        if (role.getUserRoles() == null) {
+            return;
+        }
+        role.getUserRoles().stream()
+                .map(userRole -> userRole.getId().getUsername())
+                .distinct()
+                .forEach(invalidationRegistry::invalidate);
+    }
+
     /**
      * Convert Role entity to RoleAdminDTO
      */
@@ -252,9 +208,10 @@ public class RoleAdminService {
             entityName = role.getEntity().getName();
         } else {
             // Fallback: lookup entity by ID if relationship not loaded
-            entityName = entityRepository.findById(role.getId().getEntity())
-                    .map(ApplicationEntity::getName)
-                    .orElse(role.getId().getEntity()); // Fallback to ID if not found
+            entityName = referenceDataCache.getEntityName(role.getId().getEntity());
+            if (entityName == null) {
+                entityName = role.getId().getEntity(); // Fallback to ID if not found
+            }
         }
 
         return RoleAdminDTO.builder()
@@ -0,0 +1,370 @@
+package com.template.business.auth.service;
+
+import com.template.business.auth.util.MetricsSource;
+import com.template.business.auth.util.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Database-backed leases that let only one auth-service instance run a scheduled job at a time.
+ * <p>
+ * Every job has one row in {@code D_SCHEDULER_LOCKS}. A node takes the lease with a
+ * conditional UPDATE that only matches an expired lease (or creates the row on first use),
+ * runs the job, and then shortens the lease again. Nodes that fail to take the lease skip
+ * the run. All statements run in auto-commit mode, so the lease is visible to the other
+ * nodes immediately.
+ * </p>
+ * <p>
+ * While the job runs, the lease is renewed every third of {@code lockAtMost}, so a job
+ * that runs longer than {@code lockAtMost} (e.g. a large mailing batch) keeps it. The
+ * lease only expires if the holding node stops renewing it, i.e. it died or lost the
+ * database. If a renewal finds the lease taken over, an error is logged and counted in
+ * {@code lostLeases}.
+ * </p>
+ * <p>
+ * Key features:
+ * <ul>
+ *   <li>Lease expiry ({@code lockAtMost}) - a node that dies while holding a lease blocks
+ *       the job for at most that long; a running job renews it</li>
+ *   <li>Minimum hold ({@code lockAtLeast}) - a job that finishes quickly keeps the lease
+ *       briefly, so nodes whose cron fires a moment later do not run it again</li>
+ *   <li>Per-job metrics (runs, skips, duration, current holder) via {@link MetricsSource}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Lease times use the application clock, so node clocks must be kept in sync
+ * (well within {@code scheduler.lock.min-hold-ms}).
+ * </p>
+ * <p>
+ * Configuration properties:
+ * <ul>
+ *   <li>{@code scheduler.lock.enabled} - When false (the default), jobs run on every node
+ *       without a lease. Enable it for multi-instance deployments once
+ *       {@code D_SCHEDULER_LOCKS} exists (see {@code db/migration/create_scheduler_locks.sql});
+ *       startup fails if the table is missing</li>
+ *   <li>{@code scheduler.lock.node-id} - Name recorded as lease holder (default: host name and PID)</li>
+ *   <li>{@code scheduler.lock.max-hold-ms} - Default lease expiry, renewed while the job runs</li>
+ *   <li>{@code scheduler.lock.min-hold-ms} - Default minimum hold</li>
+ * </ul>
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulerLockService implements MetricsSource {
+
+    private static final String ACQUIRE_SQL =
+            "UPDATE ap_applications.D_SCHEDULER_LOCKS SET LOCKED_UNTIL = ?, LOCKED_AT = ?, LOCKED_BY = ? " +
+            "WHERE NAME = ? AND LOCKED_UNTIL <= ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ap_applications.D_SCHEDULER_LOCKS (NAME, LOCKED_UNTIL, LOCKED_AT, LOCKED_BY) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE ap_applications.D_SCHEDULER_LOCKS SET LOCKED_UNTIL = ? " +
+            "WHERE NAME = ? AND LOCKED_BY = ? AND LOCKED_AT = ?";
+
+    private static final String TABLE_CHECK_SQL =
+            "SELECT COUNT(*) FROM ap_applications.D_SCHEDULER_LOCKS WHERE 1 = 0";
+
+    private static final String HOLDERS_SQL =
+            "SELECT NAME, LOCKED_BY, LOCKED_AT, LOCKED_UNTIL FROM ap_applications.D_SCHEDULER_LOCKS";
+
+    private static final long MIN_RENEW_INTERVAL_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${scheduler.lock.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scheduler.lock.node-id:}")
+    private String nodeId;
+
+    @Value("${scheduler.lock.max-hold-ms:600000}")
+    private long defaultLockAtMostMs;
+
+    @Value("${scheduler.lock.min-hold-ms:30000}")
+    private long defaultLockAtLeastMs;
+
+    /**
+     * Jobs whose lock row is known to exist (no INSERT attempt needed).
+     */
+    private final Set<String> knownLocks = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, JobStats> stats = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService renewer;
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = defaultNodeId();
+        }
+        if (enabled) {
+            checkTable();
+            renewer = Executors.newSingleThreadScheduledExecutor(
+                    VirtualThreads.threadFactory("SchedulerLockRenewal-", false));
+        }
+        log.info("Scheduler locks {} (node id: {})", enabled ? "enabled" : "disabled", nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+    }
+
+    /**
+     * Fails startup if the lock table is missing, instead of skipping every job run on every node.
+     * Other database errors only log a warning, since the lease queries report them per run.
+     */
+    private void checkTable() {
+        try {
+            jdbcTemplate.queryForObject(TABLE_CHECK_SQL, Integer.class);
+        } catch (BadSqlGrammarException e) {
+            throw new IllegalStateException("scheduler.lock.enabled=true but table ap_applications.D_SCHEDULER_LOCKS " +
+                    "does not exist. Run db/migration/create_scheduler_locks.sql or set " +
+                    "TEMP_AUTH_SERVICE_SCHEDULER_LOCK_ENABLED=false", e);
+        } catch (DataAccessException e) {
+            log.warn("Could not check table D_SCHEDULER_LOCKS at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a job if this node can take its lease, using the default lease durations.
+     *
+     * @param jobName unique job name (lock row key)
+     * @param job the work to run
+     * @return true if the job ran on this node, false if it was skipped
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        return runExclusively(jobName, defaultLockAtMostMs, defaultLockAtLeastMs, job);
+    }
+
+    /**
+     * Runs a job if this node can take its lease.
+     *
+     * @param jobName unique job name (lock row key)
+     * @param lockAtMostMs lease expiry; renewed every third of it while the job runs
+     * @param lockAtLeastMs minimum time the lease is held, even if the job finishes earlier
+     * @param job the work to run
+     * @return true if the job ran on this node, false if it was skipped
+     */
+    public boolean runExclusively(String jobName, long lockAtMostMs, long lockAtLeastMs, Runnable job) {
+        JobStats jobStats = stats.computeIfAbsent(jobName, name -> new JobStats());
+
+        if (!enabled) {
+            run(jobName, jobStats, job);
+            return true;
+        }
+
+        long start = System.currentTimeMillis();
+        Timestamp lockedAt = new Timestamp(start);
+        if (!tryAcquire(jobName, lockedAt, new Timestamp(start + lockAtMostMs), jobStats)) {
+            jobStats.skipped.increment();
+            log.debug("Skipping job {}: lease held by another node", jobName);
+            return false;
+        }
+
+        Lease lease = new Lease(jobName, lockedAt, lockAtMostMs, jobStats);
+        long renewIntervalMs = Math.max(MIN_RENEW_INTERVAL_MS, lockAtMostMs / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(
+                lease::renew, renewIntervalMs, renewIntervalMs, TimeUnit.MILLISECONDS);
+        try {
+            run(jobName, jobStats, job);
+        } finally {
+            renewal.cancel(false);
+            lease.release(Math.max(System.currentTimeMillis(), start + lockAtLeastMs));
+        }
+        return true;
+    }
+
+    private void run(String jobName, JobStats jobStats, Runnable job) {
+        long start = System.currentTimeMillis();
+        try {
+            job.run();
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            jobStats.runs.increment();
+            jobStats.lastRunMs.set(elapsed);
+            jobStats.lastRunAt.set(start);
+            log.debug("Job {} finished on node {} in {} ms", jobName, nodeId, elapsed);
+        }
+    }
+
+    private boolean tryAcquire(String jobName, Timestamp now, Timestamp lockedUntil, JobStats jobStats) {
+        try {
+            if (jdbcTemplate.update(ACQUIRE_SQL, lockedUntil, now, nodeId, jobName, now) > 0) {
+                knownLocks.add(jobName);
+                return true;
+            }
+            if (knownLocks.contains(jobName)) {
+                return false;
+            }
+
+            // First run of this job anywhere: create its lock row (only one node can succeed)
+            try {
+                jdbcTemplate.update(INSERT_SQL, jobName, lockedUntil, now, nodeId);
+                knownLocks.add(jobName);
+                return true;
+            } catch (DuplicateKeyException e) {
+                knownLocks.add(jobName);
+                return false;
+            }
+        } catch (DataAccessException e) {
+            jobStats.errors.increment();
+            log.error("Could not acquire scheduler lock for job {} - skipping run " +
+                    "(does table D_SCHEDULER_LOCKS exist?): {}", jobName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A lease held by this node for one job run. Renewal and release are serialized, so a
+     * renewal still in progress when the job ends cannot extend the lease after its release.
+     */
+    private final class Lease {
+        private final String jobName;
+        private final Timestamp lockedAt;
+        private final long lockAtMostMs;
+        private final JobStats jobStats;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean released;
+
+        private Lease(String jobName, Timestamp lockedAt, long lockAtMostMs, JobStats jobStats) {
+            this.jobName = jobName;
+            this.lockedAt = lockedAt;
+            this.lockAtMostMs = lockAtMostMs;
+            this.jobStats = jobStats;
+        }
+
+        private void renew() {
+            lock.lock();
+            try {
+                if (released) {
+                    return;
+                }
+                Timestamp lockedUntil = new Timestamp(System.currentTimeMillis() + lockAtMostMs);
+                if (jdbcTemplate.update(RELEASE_SQL, lockedUntil, jobName, nodeId, lockedAt) == 0) {
+                    jobStats.lostLeases.increment();
+                    log.error("Scheduler lock for job {} was taken over while the job was still running " +
+                            "on node {}; another node may run it concurrently", jobName, nodeId);
+                }
+            } catch (DataAccessException e) {
+                // Retried at the next interval; the lease stays valid until lockedUntil
+                jobStats.errors.increment();
+                log.warn("Could not renew scheduler lock for job {}: {}", jobName, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(long lockedUntil) {
+            lock.lock();
+            try {
+                released = true;
+                jdbcTemplate.update(RELEASE_SQL, new Timestamp(lockedUntil), jobName, nodeId, lockedAt);
+            } catch (DataAccessException e) {
+                // The lease simply runs until its expiry
+                jobStats.errors.increment();
+                log.warn("Could not release scheduler lock for job {}: {}", jobName, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "schedulerLocks";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("nodeId", nodeId);
+
+        Map<String, Map<String, Object>> jobs = new TreeMap<>();
+        stats.forEach((name, jobStats) -> jobs.put(name, jobStats.toMap()));
+
+        if (enabled) {
+            try {
+                jdbcTemplate.query(HOLDERS_SQL, rs -> {
+                    Map<String, Object> job = jobs.computeIfAbsent(rs.getString("NAME"), name -> new LinkedHashMap<>());
+                    job.put("lockedBy", rs.getString("LOCKED_BY"));
+                    job.put("lockedAt", rs.getTimestamp("LOCKED_AT"));
+                    job.put("lockedUntil", rs.getTimestamp("LOCKED_UNTIL"));
+                });
+            } catch (DataAccessException e) {
+                metrics.put("holdersError", e.getMessage());
+            }
+        }
+
+        metrics.put("jobs", jobs);
+        return metrics;
+    }
+
+    /**
+     * Per-job counters for runs on this node.
+     */
+    private static final class JobStats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder lostLeases = new LongAdder();
+        private final AtomicLong lastRunMs = new AtomicLong();
+        private final AtomicLong lastRunAt = new AtomicLong();
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("runsOnThisNode", runs.sum());
+            map.put("skippedOnThisNode", skipped.sum());
+            map.put("errors", errors.sum());
+            map.put("lostLeases", lostLeases.sum());
+            map.put("lastRunMs", lastRunMs.get());
+            map.put("lastRunAt", lastRunAt.get() == 0 ? null : new Date(lastRunAt.get()));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.template.business.auth.service;
+
+import com.template.business.auth.dto.PageResponse;
+import com.template.business.auth.dto.SearchRequest;
+import com.template.business.auth.exception.CustomValidationException;
+import com.template.business.auth.util.MetricsSource;
+import com.template.business.auth.util.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs offset-paged searches without paying for a full {@code COUNT(*)} on every page.
+ * <p>
+ * The page itself is always read as a slice (page size + 1 rows, no count). The total is
+ * then provided according to {@link SearchRequest#getTotalMode()}:
+ * <ul>
+ *   <li>{@code none}: no total at all, only {@link PageResponse#isHasNext()}</li>
+ *   <li>{@code bounded}: rows are counted up to {@code search.count.bounded-limit}; a larger
+ *       result is reported as that limit with {@link PageResponse#isTotalCapped()}</li>
+ *   <li>{@code exact} (default): a full count</li>
+ * </ul>
+ * Totals are cached for {@code search.count.cache-ttl-ms}, keyed by entity, total mode and
+ * the normalized filter set (sort and page do not affect the total). The first page always
+ * counts afresh; later pages reuse the cached total, so paging through a filtered view counts
+ * once (and the total may lag behind inserts by up to the TTL there). On the last page the
+ * total follows from the slice and no count runs.
+ * </p>
+ * <p>
+ * An exact count runs after the page query on the caller's thread, so it uses the caller's
+ * connection (and transaction) instead of taking a second one from the pool while the
+ * caller holds its own; {@code exact} never returns a page without its total. A bounded
+ * count runs on a small pool in parallel with the page query (with virtual threads enabled:
+ * one virtual thread per count, at most {@code search.count.threads} at once). It is awaited
+ * for at most {@code search.count.timeout-ms}; after that the page is returned without a
+ * total and the count result is cached for the next page when it completes.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchPageExecutor implements MetricsSource {
+
+    private static final String TOTAL_EXACT = "exact";
+    private static final String TOTAL_BOUNDED = "bounded";
+    private static final String TOTAL_NONE = "none";
+
+    private static final int COUNT_QUEUE_CAPACITY = 100;
+
+    private final EntityManager entityManager;
+
+    @Value("${search.count.threads:4}")
+    private int countThreads;
+
+    @Value("${search.count.timeout-ms:5000}")
+    private long countTimeoutMs;
+
+    @Value("${search.count.bounded-limit:10000}")
+    private int boundedLimit;
+
+    @Value("${search.count.cache-ttl-ms:15000}")
+    private long cacheTtlMs;
+
+    @Value("${search.count.cache-max-size:500}")
+    private int cacheMaxSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private Executor countExecutor;
+    private ThreadPoolExecutor countPool;
+    private Semaphore countPermits;
+
+    private final Map<String, CachedTotal> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder counts = new LongAdder();
+    private final LongAdder lastPageTotals = new LongAdder();
+    private final LongAdder cappedCounts = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreads) {
+            // The database, not the thread count, is the limit: a semaphore caps concurrent counts
+            ThreadFactory threadFactory = VirtualThreads.threadFactory("SearchCount-", true);
+            countPermits = new Semaphore(countThreads);
+            countExecutor = task -> startCount(threadFactory, task);
+            return;
+        }
+        // Caller-runs: under overload the count runs inline instead of being dropped
+        countPool = new ThreadPoolExecutor(
+                countThreads, countThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(COUNT_QUEUE_CAPACITY),
+                new CustomizableThreadFactory("SearchCount-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        countExecutor = countPool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (countPool != null) {
+            countPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a count on its own thread if a permit is free, otherwise inline (like caller-runs)
+     */
+    private void startCount(ThreadFactory threadFactory, Runnable task) {
+        if (!countPermits.tryAcquire()) {
+            task.run();
+            return;
+        }
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    countPermits.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error e) {
+            countPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Run one page of a search
+     *
+     * @param repository the repository to query
+     * @param domainClass the entity class (bounded counts and cache key)
+     * @param spec the filter specification
+     * @param sort the sort
+     * @param request the search request (page, page size, filters and total mode)
+     * @param mapper converts entities to DTOs
+     * @return the page, with a total according to the total mode
+     * @throws CustomValidationException if the total mode is unknown
+     */
+    public <T, R> PageResponse<R> search(JpaSpecificationExecutor<T> repository, Class<T> domainClass,
+                                         Specification<T> spec, Sort sort, SearchRequest request,
+                                         Function<T, R> mapper) {
+        String totalMode = totalMode(request);
+        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
+
+        if (TOTAL_NONE.equals(totalMode)) {
+            Slice<T> slice = repository.findBy(spec, query -> query.slice(pageable));
+            return response(slice, mapper, null);
+        }
+
+        String key = cacheKey(domainClass, totalMode, request);
+        CachedTotal cached = pageable.getPageNumber() > 0 ? getCached(key) : null;
+        boolean exact = TOTAL_EXACT.equals(totalMode);
+        CompletableFuture<CachedTotal> total = cached != null || exact
+                ? null
+                : CompletableFuture.supplyAsync(() -> count(repository, domainClass, spec, totalMode, key), countExecutor);
+
+        Slice<T> slice = repository.findBy(spec, query -> query.slice(pageable));
+
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            // Last page: the total is known without a count
+            lastPageTotals.increment();
+            return response(slice, mapper, new CachedTotal(pageable.getOffset() + slice.getNumberOfElements(), false, 0));
+        }
+        if (cached != null) {
+            return response(slice, mapper, cached);
+        }
+        // Exact: count on this thread and connection rather than holding it while waiting for another
+        return response(slice, mapper, exact ? count(repository, domainClass, spec, totalMode, key) : await(total));
+    }
+
+    private <T, R> PageResponse<R> response(Slice<T> slice, Function<T, R> mapper, CachedTotal total) {
+        PageResponse.PageResponseBuilder<R> response = PageResponse.<R>builder()
+                .content(slice.getContent().stream().map(mapper).toList())
+                .pageNumber(slice.getNumber())
+                .pageSize(slice.getSize())
+                .first(slice.isFirst())
+                .last(slice.isLast())
+                .empty(slice.isEmpty())
+                .hasNext(slice.hasNext());
+
+        if (total == null) {
+            return response.totalElements(-1).totalPages(-1).build();
+        }
+        int pageSize = Math.max(1, slice.getSize());
+        return response
+                .totalElements(total.total)
+                .totalPages((int) ((total.total + pageSize - 1) / pageSize))
+                .totalCapped(total.capped)
+                .build();
+    }
+
+    private String totalMode(SearchRequest request) {
+        String mode = request.getTotalMode();
+        if (mode == null || mode.isEmpty()) {
+            return TOTAL_EXACT;
+        }
+        mode = mode.toLowerCase();
+        if (!TOTAL_EXACT.equals(mode) && !TOTAL_BOUNDED.equals(mode) && !TOTAL_NONE.equals(mode)) {
+            throw new CustomValidationException("Invalid total mode: " + request.getTotalMode());
+        }
+        return mode;
+    }
+
+    /**
+     * Count and cache the result (for bounded counts on the count pool, also when the caller
+     * stopped waiting)
+     */
+    private <T> CachedTotal count(JpaSpecificationExecutor<T> repository, Class<T> domainClass,
+                                  Specification<T> spec, String totalMode, String key) {
+        counts.increment();
+        CachedTotal total;
+        if (TOTAL_BOUNDED.equals(totalMode)) {
+            long rows = countUpTo(domainClass, spec, boundedLimit);
+            boolean capped = rows > boundedLimit;
+            if (capped) {
+                cappedCounts.increment();
+            }
+            total = new CachedTotal(Math.min(rows, boundedLimit), capped, System.currentTimeMillis());
+        } else {
+            total = new CachedTotal(repository.count(spec), false, System.currentTimeMillis());
+        }
+        putCached(key, total);
+        return total;
+    }
+
+    /**
+     * Count matching rows, stopping after limit + 1: {@code WITH matching AS (SELECT 1 ...
+     * FETCH FIRST limit + 1 ROWS ONLY) SELECT COUNT(*) FROM matching}, so the database
+     * returns a single number. The specification builds its predicate against the query
+     * that uses it (the CTE), not the outer count.
+     */
+    private <T> long countUpTo(Class<T> domainClass, Specification<T> spec, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+
+        JpaCriteriaQuery<Integer> matching = cb.createQuery(Integer.class);
+        Root<T> root = matching.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, matching, cb);
+        if (predicate != null) {
+            matching.where(predicate);
+        }
+        JpaExpression<Integer> one = cb.literal(1);
+        one.alias("matched"); // CTE columns need a name
+        matching.select(one).fetch(limit + 1);
+
+        JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.from(query.with("matching", matching));
+        query.select(cb.count());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private CachedTotal await(CompletableFuture<CachedTotal> total) {
+        try {
+            return total.get(countTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            log.warn("Search count did not complete within {} ms, returning page without total", countTimeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Search count failed", e.getCause());
+        }
+    }
+
+    /**
+     * Cache key: entity, total mode and the filters that affect the total, in a fixed order
+     */
+    private String cacheKey(Class<?> domainClass, String totalMode, SearchRequest request) {
+        Map<String, String> filters = new TreeMap<>();
+        if (request.getFilters() != null) {
+            request.getFilters().forEach((field, value) -> {
+                if (value != null && !value.trim().isEmpty()) {
+                    String mode = request.getFilterModes() != null ? request.getFilterModes().get(field) : null;
+                    filters.put(field, (mode != null ? mode.toLowerCase() : "") + ":" + value.trim());
+                }
+            });
+        }
+        Map<String, String> dateRanges = new TreeMap<>();
+        if (request.getDateRanges() != null) {
+            request.getDateRanges().forEach((field, range) -> {
+                if (range != null && (range.getFrom() != null || range.getTo() != null)) {
+                    dateRanges.put(field, range.getFrom() + ".." + range.getTo());
+                }
+            });
+        }
+        return domainClass.getName() + "|" + totalMode + "|" + filters + "|" + dateRanges;
+    }
+
+    private CachedTotal getCached(String key) {
+        CachedTotal cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - cached.countedAt >= cacheTtlMs) {
+            cache.remove(key, cached);
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    private void putCached(String key, CachedTotal total) {
+        if (cache.size() >= cacheMaxSize) {
+            trimCache(System.currentTimeMillis());
+        }
+        cache.put(key, total);
+    }
+
+    /**
+     * Remove expired totals, then arbitrary ones until the cache is below its maximum size
+     */
+    private void trimCache(long now) {
+        cache.values().removeIf(cached -> now - cached.countedAt >= cacheTtlMs);
+
+        Iterator<String> keys = cache.keySet().iterator();
+        int target = cacheMaxSize - Math.max(1, cacheMaxSize / 10);
+        while (cache.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "searchCount";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cachedTotals", cache.size());
+        metrics.put("cacheHits", hits.sum());
+        metrics.put("counts", counts.sum());
+        metrics.put("lastPageTotals", lastPageTotals.sum());
+        metrics.put("cappedCounts", cappedCounts.sum());
+        metrics.put("timeouts", timeouts.sum());
+        metrics.put("countQueue", countPool != null ? countPool.getQueue().size() : 0);
+        metrics.put("countsInFlight", countPermits != null ? countThreads - countPermits.availablePermits()
+                : countPool != null ? countPool.getActiveCount() : 0);
+        return metrics;
+    }
+
+    /**
+     * Total number of matching rows and when it was counted.
+     */
+    private static final class CachedTotal {
+        private final long total;
+        private final boolean capped;
+        private final long countedAt;
+
+        private CachedTotal(long total, boolean capped, long countedAt) {
+            this.total = total;
+            this.capped = capped;
+            this.countedAt = countedAt;
+        }
+    }
+}
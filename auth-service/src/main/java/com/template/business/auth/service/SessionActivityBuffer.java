@@ -0,0 +1,193 @@
+package com.template.business.auth.service;
+
+import com.template.business.auth.util.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for session "last used" timestamps.
+ * <p>
+ * Session activity does not need millisecond accuracy in the database, so instead of
+ * writing {@code D_REFRESH_TOKENS.LAST_USED_AT} on every request, activity is
+ * coalesced in memory per session ID (only the latest timestamp is kept) and flushed
+ * periodically as one JDBC batch update.
+ * </p>
+ * <p>
+ * Key features:
+ * <ul>
+ *   <li>Bounded: when {@code session.activity.max-pending} sessions are pending, new
+ *       sessions are dropped (counted) until the next flush</li>
+ *   <li>Flushed every {@code session.activity.flush-interval-ms} and on shutdown</li>
+ *   <li>Never moves a timestamp backwards in the database</li>
+ *   <li>Readers merge unflushed values via {@link #merge(Long, Date)}</li>
+ * </ul>
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionActivityBuffer implements MetricsSource {
+
+    private static final String UPDATE_SQL =
+            "UPDATE ap_applications.D_REFRESH_TOKENS SET LAST_USED_AT = ? " +
+            "WHERE ID = ? AND (LAST_USED_AT IS NULL OR LAST_USED_AT < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${session.activity.max-pending:10000}")
+    private int maxPending;
+
+    private final Map<Long, Date> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong lastFlushMs = new AtomicLong();
+
+    /**
+     * Records activity for a session at the current time.
+     *
+     * @param sessionId the refresh token (session) ID
+     */
+    public void record(Long sessionId) {
+        record(sessionId, new Date());
+    }
+
+    /**
+     * Records activity for a session, keeping only the latest timestamp per session.
+     *
+     * @param sessionId the refresh token (session) ID
+     * @param at when the session was used
+     */
+    public void record(Long sessionId, Date at) {
+        if (sessionId == null) {
+            return;
+        }
+        recorded.increment();
+
+        boolean known = pending.containsKey(sessionId);
+        if (!known && pending.size() >= maxPending) {
+            dropped.increment();
+            return;
+        }
+        if (known) {
+            coalesced.increment();
+        }
+        pending.merge(sessionId, at, SessionActivityBuffer::latest);
+    }
+
+    /**
+     * Returns the most recent of the stored and the unflushed "last used" timestamp.
+     *
+     * @param sessionId the refresh token (session) ID
+     * @param stored the value currently stored in the database
+     * @return the freshest known "last used" timestamp
+     */
+    public Date merge(Long sessionId, Date stored) {
+        Date unflushed = sessionId != null ? pending.get(sessionId) : null;
+        if (unflushed == null) {
+            return stored;
+        }
+        return stored == null ? unflushed : latest(stored, unflushed);
+    }
+
+    /**
+     * Writes all pending timestamps to the database in one JDBC batch.
+     */
+    @Scheduled(fixedDelayString = "${session.activity.flush-interval-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<Object[]> batch = new ArrayList<>();
+        for (Long sessionId : pending.keySet()) {
+            Date at = pending.remove(sessionId);
+            if (at != null) {
+                Timestamp ts = new Timestamp(at.getTime());
+                batch.add(new Object[]{ts, sessionId, ts});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            flushes.increment();
+            for (int count : counts) {
+                // Oracle may report SUCCESS_NO_INFO (-2) for batched statements
+                flushedRows.add(count > 0 ? count : 0);
+            }
+            lastFlushMs.set(System.currentTimeMillis() - start);
+            log.debug("Flushed last-used timestamps for {} sessions in {} ms", batch.size(), lastFlushMs.get());
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.error("Failed to flush session activity for {} sessions: {}", batch.size(), e.getMessage());
+            // Put the values back so they are retried on the next flush
+            for (Object[] row : batch) {
+                Long sessionId = (Long) row[1];
+                Date at = (Date) row[0];
+                if (pending.size() < maxPending || pending.containsKey(sessionId)) {
+                    pending.merge(sessionId, at, SessionActivityBuffer::latest);
+                } else {
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes pending timestamps before the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing {} pending session activity updates on shutdown", pending.size());
+        flush();
+    }
+
+    private static Date latest(Date a, Date b) {
+        return a.after(b) ? a : b;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "sessionActivity";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pending", pending.size());
+        metrics.put("recorded", recorded.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("flushes", flushes.sum());
+        metrics.put("flushedRows", flushedRows.sum());
+        metrics.put("failedFlushes", failedFlushes.sum());
+        metrics.put("lastFlushMs", lastFlushMs.get());
+        return metrics;
+    }
+}
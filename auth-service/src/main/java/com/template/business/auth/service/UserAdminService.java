@@ -6,24 +6,23 @@ import com.template.business.auth.dto.UserAdminDTO;
 import com.template.business.auth.dto.UserRoleAssignRequest;
 import com.template.business.auth.dto.UserStatusUpdateRequest;
 import com.template.business.auth.dto.UserUpdateRequest;
-import com.template.business.auth.entity.ApplicationEntity;
 import com.template.business.auth.entity.Role;
 import com.template.business.auth.entity.User;
 import com.template.business.auth.entity.UserRole;
+import com.template.business.auth.event.DashboardEvent;
 import com.template.business.auth.exception.CustomAuthorizationException;
 import com.template.business.auth.exception.CustomValidationException;
 import com.template.business.auth.exception.ErrorCode;
 import com.template.business.auth.exception.ResourceNotFoundException;
-import com.template.business.auth.repository.EntityRepository;
 import com.template.business.auth.repository.RoleRepository;
 import com.template.business.auth.repository.UserRepository;
 import com.template.business.auth.repository.UserRoleRepository;
+import com.template.business.auth.security.UserInvalidationRegistry;
+import com.template.business.auth.util.KeysetPagination;
 import com.template.business.auth.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -47,8 +46,12 @@ public class UserAdminService {
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
     private final RoleRepository roleRepository;
-    private final EntityRepository entityRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final PasswordEncoder passwordEncoder;
+    private final UserInvalidationRegistry invalidationRegistry;
+    private final DatabaseUserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchPageExecutor searchPageExecutor;
 
     /**
      * Create new user (admin)
@@ -87,6 +90,7 @@ public class UserAdminService {
         user.setCreateUser(SecurityContextHolder.getContext().getAuthentication().getName());
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(DashboardEvent.userCreated(savedUser.getUsername(), savedUser.getStatus()));
 
         if (isAutoGenerated) {
             log.info("Admin created new user: {} with auto-generated password", request.getUsername());
@@ -120,6 +124,7 @@ public class UserAdminService {
 
         user.setPassword(passwordEncoder.encode(passwordToSet));
         userRepository.save(user);
+        userDetailsService.evictUser(username);
 
         if (isAutoGenerated) {
             log.info("Admin reset password for user: {} with auto-generated password", username);
@@ -147,12 +152,11 @@ public class UserAdminService {
     public PageResponse<UserAdminDTO> searchUsers(SearchRequest request) {
         Specification<User> spec = SpecificationBuilder.buildSpecification(request);
         Sort sort = buildSort(request.getSort());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getPageSize(), sort);
-
-        Page<User> page = userRepository.findAll(spec, pageable);
-        Page<UserAdminDTO> dtoPage = page.map(this::convertToDTO);
-
-        return PageResponse.of(dtoPage);
+        if (request.isKeyset()) {
+            return KeysetPagination.search(userRepository, User.class, spec, sort, "username", request,
+                    this::convertToDTO);
+        }
+        return searchPageExecutor.search(userRepository, User.class, spec, sort, request, this::convertToDTO);
     }
 
     private Sort buildSort(SearchRequest.SortInfo sortInfo) {
@@ -197,6 +201,7 @@ public class UserAdminService {
         }
 
         User updatedUser = userRepository.save(user);
+        userDetailsService.evictUser(username);
         log.info("Admin updated user: {}", username);
 
         return convertToDTO(updatedUser);
@@ -217,8 +222,19 @@ public class UserAdminService {
                     "Cannot deactivate your own account");
         }
 
+        String oldStatus = user.getStatus();
         user.setStatus(request.getStatus());
         User updatedUser = userRepository.save(user);
+        userDetailsService.evictUser(username);
+
+        if (!request.getStatus().equals(oldStatus)) {
+            eventPublisher.publishEvent(DashboardEvent.userStatusChanged(username, oldStatus, request.getStatus()));
+        }
+
+        // Outstanding access tokens must stop working as soon as the user is deactivated
+        if (!"ACTIVE".equals(request.getStatus())) {
+            invalidationRegistry.invalidate(username);
+        }
 
         log.info("Admin changed user {} status to: {}", username, request.getStatus());
 
@@ -271,6 +287,7 @@ public class UserAdminService {
         userRole.setCreateUser(SecurityContextHolder.getContext().getAuthentication().getName());
 
         userRoleRepository.save(userRole);
+        userDetailsService.evictUser(username);
         log.info("Admin assigned role {} (entity: {}) to user: {}", request.getRole(), request.getEntity(), username);
     }
 
@@ -292,6 +309,8 @@ public class UserAdminService {
         }
 
         userRoleRepository.delete(userRole);
+        userDetailsService.evictUser(username);
+        invalidationRegistry.invalidate(username);
         log.info("Admin removed role {} (entity: {}) from user: {}", role, entity, username);
     }
 
@@ -311,6 +330,9 @@ public class UserAdminService {
         }
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(DashboardEvent.userDeleted(username, user.getStatus()));
+        userDetailsService.evictUser(username);
+        invalidationRegistry.invalidate(username);
         log.info("Admin deleted user: {}", username);
     }
 
@@ -326,9 +348,10 @@ public class UserAdminService {
                         entityName = ur.getRole().getEntity().getName();
                     } else {
                         // Fallback: lookup entity by ID if relationship not loaded
-                        entityName = entityRepository.findById(ur.getId().getEntity())
-                                .map(ApplicationEntity::getName)
-                                .orElse(ur.getId().getEntity()); // Fallback to ID if not found
+                        entityName = referenceDataCache.getEntityName(ur.getId().getEntity());
+                        if (entityName == null) {
+                            entityName = ur.getId().getEntity(); // Fallback to ID if not found
+                        }
                     }
 
                     return UserAdminDTO.UserRoleDTO.builder()
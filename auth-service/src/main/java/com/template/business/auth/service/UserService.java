@@ -2,12 +2,14 @@ package com.template.business.auth.service;
 
 import com.template.business.auth.dto.UserRegistrationRequest;
 import com.template.business.auth.entity.User;
+import com.template.business.auth.event.DashboardEvent;
 import com.template.business.auth.exception.ApiErrorResponse;
 import com.template.business.auth.exception.CustomValidationException;
 import com.template.business.auth.exception.ErrorCode;
 import com.template.business.auth.exception.ResourceNotFoundException;
 import com.template.business.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +34,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DatabaseUserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Registers a new user in the system.
@@ -66,7 +70,9 @@ public class UserService {
         user.setCreateUser("system");
         user.setTheme("dark");
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(DashboardEvent.userCreated(savedUser.getUsername(), savedUser.getStatus()));
+        return savedUser;
     }
 
     /**
@@ -97,7 +103,9 @@ public class UserService {
      */
     @Transactional
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        userDetailsService.evictUser(user.getUsername());
+        return updatedUser;
     }
 
     /**
@@ -115,5 +123,6 @@ public class UserService {
         user.setTheme(theme);
         user.setPaletteId(paletteId);
         userRepository.save(user);
+        userDetailsService.evictUser(username);
     }
 }
@@ -1,60 +1,210 @@
 package com.template.business.auth.task;
 
 import com.template.business.auth.service.RefreshTokenService;
+import com.template.business.auth.service.SchedulerLockService;
+import com.template.business.auth.util.MetricsSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
 /**
  * Scheduled task for cleaning up expired and old revoked refresh tokens.
  *
  * <p>Runs automatically to maintain database hygiene by removing:
  * <ul>
  *   <li>Expired refresh tokens (past their expiration date)</li>
- *   <li>Revoked tokens older than 30 days</li>
+ *   <li>Revoked tokens older than the retention period (30 days by default)</li>
  * </ul>
  *
- * <p>Cleanup schedules:
+ * <p>Tokens are deleted in chunks of {@code session.cleanup.batch-size} rows, each chunk
+ * committed in its own short transaction, with a pause between chunks. A run stops when
+ * nothing is left or its time budget is used up; the next run continues where it
+ * stopped. This keeps lock time and undo small, so the purge can run often without
+ * blocking logins and refreshes.
+ *
+ * <p>Cleanup schedules (configurable):
  * <ul>
- *   <li>Expired tokens: Every hour</li>
- *   <li>Old revoked tokens: Every Sunday at 3:00 AM</li>
+ *   <li>Expired tokens: every 5 minutes ({@code session.cleanup.expired-cron})</li>
+ *   <li>Old revoked tokens: every hour ({@code session.cleanup.revoked-cron})</li>
  * </ul>
+ *
+ * <p>When several instances run with {@code scheduler.lock.enabled=true},
+ * {@link SchedulerLockService} makes sure only one of them purges at a time; the others
+ * skip the run.
+ *
+ * <p>Progress counters are exposed under "tokenCleanup" in {@code /api/v1/healthMetrics}.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class TokenCleanupTask {
+public class TokenCleanupTask implements MetricsSource {
+
+    /**
+     * Oracle allows at most 1000 expressions in an IN list.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
 
     private final RefreshTokenService refreshTokenService;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${session.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${session.cleanup.time-budget-ms:30000}")
+    private long timeBudgetMs;
+
+    @Value("${session.cleanup.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${session.cleanup.revoked-retention-days:30}")
+    private int revokedRetentionDays;
+
+    private final PurgeStats expiredStats = new PurgeStats();
+    private final PurgeStats revokedStats = new PurgeStats();
 
     /**
      * Clean up expired refresh tokens.
-     * Runs every hour.
+     * Runs every 5 minutes by default.
      */
-    @Scheduled(cron = "0 0 * * * ?")
+    @Scheduled(cron = "${session.cleanup.expired-cron:0 */5 * * * ?}")
     public void cleanupExpiredTokens() {
-        log.info("Starting cleanup of expired refresh tokens...");
-        try {
-            int count = refreshTokenService.cleanupExpiredTokens();
-            log.info("Cleanup completed. Removed {} expired tokens", count);
-        } catch (Exception e) {
-            log.error("Error during expired token cleanup: {}", e.getMessage(), e);
-        }
+        schedulerLockService.runExclusively("tokenCleanup.expired", () -> {
+            Date now = new Date();
+            int chunk = effectiveBatchSize();
+            purge("expired", expiredStats, () -> refreshTokenService.deleteExpiredTokensChunk(now, chunk));
+        });
     }
 
     /**
-     * Clean up old revoked refresh tokens (older than 30 days).
-     * Runs every Sunday at 3:00 AM.
+     * Clean up old revoked refresh tokens (older than the retention period).
+     * Runs every hour by default.
      */
-    @Scheduled(cron = "0 0 3 ? * SUN")
+    @Scheduled(cron = "${session.cleanup.revoked-cron:0 30 * * * ?}")
     public void cleanupOldRevokedTokens() {
-        log.info("Starting cleanup of old revoked refresh tokens...");
+        schedulerLockService.runExclusively("tokenCleanup.revoked", () -> {
+            Date cutoffDate = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(revokedRetentionDays));
+            int chunk = effectiveBatchSize();
+            purge("old revoked", revokedStats, () -> refreshTokenService.deleteRevokedTokensChunk(cutoffDate, chunk));
+        });
+    }
+
+    /**
+     * Deletes chunks until a chunk comes back short or the time budget is used up.
+     *
+     * @param kind label for log messages
+     * @param stats counters to update
+     * @param deleteChunk deletes one chunk in its own transaction and returns the row count
+     */
+    private void purge(String kind, PurgeStats stats, IntSupplier deleteChunk) {
+        int chunk = effectiveBatchSize();
+        long start = System.currentTimeMillis();
+        long deadline = start + timeBudgetMs;
+        int deleted = 0;
+        int chunks = 0;
+        boolean finished = false;
+
+        log.debug("Starting cleanup of {} refresh tokens (batch size {})", kind, chunk);
         try {
-            int count = refreshTokenService.cleanupOldRevokedTokens();
-            log.info("Cleanup completed. Removed {} old revoked tokens", count);
+            while (true) {
+                int count = deleteChunk.getAsInt();
+                deleted += count;
+                chunks++;
+
+                if (count < chunk) {
+                    finished = true;
+                    break;
+                }
+                if (System.currentTimeMillis() + pauseMs >= deadline) {
+                    break;
+                }
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cleanup of {} refresh tokens interrupted after {} tokens", kind, deleted);
         } catch (Exception e) {
-            log.error("Error during old revoked token cleanup: {}", e.getMessage(), e);
+            stats.failures.increment();
+            log.error("Error during {} token cleanup after {} tokens: {}", kind, deleted, e.getMessage(), e);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        stats.record(deleted, chunks, elapsed, finished);
+
+        if (!finished) {
+            log.info("Cleanup paused. Removed {} {} tokens in {} chunks ({} ms); remaining rows follow on the next run",
+                    deleted, kind, chunks, elapsed);
+        } else if (deleted > 0) {
+            log.info("Cleanup completed. Removed {} {} tokens in {} chunks ({} ms)", deleted, kind, chunks, elapsed);
+        }
+    }
+
+    private int effectiveBatchSize() {
+        return Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "tokenCleanup";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("batchSize", effectiveBatchSize());
+        metrics.put("timeBudgetMs", timeBudgetMs);
+        metrics.put("expired", expiredStats.toMap());
+        metrics.put("revoked", revokedStats.toMap());
+        return metrics;
+    }
+
+    /**
+     * Progress counters for one kind of purge.
+     */
+    private static final class PurgeStats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder deleted = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder budgetExhausted = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicLong lastRunDeleted = new AtomicLong();
+        private final AtomicLong lastRunMs = new AtomicLong();
+        private final AtomicLong lastRunAt = new AtomicLong();
+
+        private void record(int runDeleted, int runChunks, long elapsedMs, boolean finished) {
+            runs.increment();
+            deleted.add(runDeleted);
+            chunks.add(runChunks);
+            if (!finished) {
+                budgetExhausted.increment();
+            }
+            lastRunDeleted.set(runDeleted);
+            lastRunMs.set(elapsedMs);
+            lastRunAt.set(System.currentTimeMillis());
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("runs", runs.sum());
+            map.put("deleted", deleted.sum());
+            map.put("chunks", chunks.sum());
+            map.put("unfinishedRuns", budgetExhausted.sum());
+            map.put("failures", failures.sum());
+            map.put("lastRunDeleted", lastRunDeleted.get());
+            map.put("lastRunMs", lastRunMs.get());
+            map.put("lastRunAt", lastRunAt.get() == 0 ? null : new Date(lastRunAt.get()));
+            return map;
         }
     }
 }
@@ -0,0 +1,31 @@
+package com.template.business.auth.util;
+
+import java.util.Map;
+
+/**
+ * Component that exposes runtime counters (cache hits, queue depths, timings, etc.).
+ * <p>
+ * All beans implementing this interface are collected by
+ * {@link com.template.business.auth.controller.HealthController} and returned by the
+ * {@code /api/v1/healthMetrics} endpoint, grouped by {@link #getMetricsName()}.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+public interface MetricsSource {
+
+    /**
+     * Returns the name the metrics are grouped under (e.g. "userCache").
+     *
+     * @return the metrics group name
+     */
+    String getMetricsName();
+
+    /**
+     * Returns a point-in-time snapshot of the component's counters.
+     *
+     * @return metric name to value
+     */
+    Map<String, Object> getMetrics();
+}
@@ -1,102 +1,391 @@
 package com.template.business.auth.util;
 
 import com.template.business.auth.dto.SearchRequest;
+import com.template.business.auth.exception.ApiErrorResponse;
+import com.template.business.auth.exception.CustomValidationException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EmbeddableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Builds JPA {@link Specification}s from a {@link SearchRequest}.
+ *
+ * <p>Each entity type is compiled once against the JPA metamodel into a plan of
+ * filterable fields (basic attributes and embedded/embedded-id parts, e.g. {@code id.role}).
+ * Every field gets a typed predicate builder chosen from its Java type, so no per-request
+ * parsing or reflection is needed. A field that is not in the plan (or not mapped) fails the
+ * request with a {@link CustomValidationException} (400) instead of being left out of the query:
+ * <ul>
+ *   <li>Text: {@code lower(col) LIKE '%x%'} by default, {@code col LIKE 'x%'} for
+ *       {@code startsWith} and {@code col = 'x'} for {@code equals}
+ *       (see {@link SearchRequest#getFilterModes()}) - the last two can use an index.
+ *       Identifier fields ({@code @Id} and {@code @EmbeddedId} parts) default to {@code equals};
+ *       {@code contains} can still be asked for</li>
+ *   <li>Numbers, booleans and enums: typed equality (a value of the wrong type matches nothing)</li>
+ *   <li>Ranges ({@link SearchRequest#getDateRanges()}): typed bounds on date and number fields;
+ *       a date range covers whole days ({@code >= from AND < to + 1 day})</li>
+ * </ul>
+ *
+ * <p>Request field names can be mapped to entity paths with a {@link FieldMapping}, which can
+ * also restrict filtering to the mapped fields only (e.g. to keep token hashes unsearchable).
+ */
+@Slf4j
 public class SpecificationBuilder {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final Map<Class<?>, EntityPlan> PLANS = new ConcurrentHashMap<>();
+
     public static <T> Specification<T> buildSpecification(SearchRequest searchRequest) {
+        return buildSpecification(searchRequest, FieldMapping.NONE);
+    }
+
+    public static <T> Specification<T> buildSpecification(SearchRequest searchRequest, FieldMapping mapping) {
         return (root, query, criteriaBuilder) -> {
+            EntityPlan plan = PLANS.computeIfAbsent(root.getJavaType(), type -> EntityPlan.compile(root.getModel()));
             List<Predicate> predicates = new ArrayList<>();
 
             // Apply text/number filters
             if (searchRequest.getFilters() != null) {
                 for (Map.Entry<String, String> entry : searchRequest.getFilters().entrySet()) {
-                    String field = entry.getKey();
                     String value = entry.getValue();
-
+                    FieldPlan field = plan.resolve(entry.getKey(), mapping);
                     if (value != null && !value.isEmpty()) {
-                        try {
-                            // Try to parse as number
-                            if (value.matches("-?\\d+(\\.\\d+)?")) {
-                                predicates.add(criteriaBuilder.equal(root.get(field), Double.parseDouble(value)));
-                            } else {
-                                // Text search with like
-                                predicates.add(criteriaBuilder.like(
-                                        criteriaBuilder.lower(root.get(field).as(String.class)),
-                                        "%" + value.toLowerCase() + "%"
-                                ));
-                            }
-                        } catch (Exception e) {
-                            // If field doesn't exist or type mismatch, skip
-                        }
+                        predicates.add(field.filter(root, criteriaBuilder, value, filterMode(searchRequest, entry.getKey(), field)));
                     }
                 }
             }
 
-            // Apply date range filters
+            // Apply date/number range filters
             if (searchRequest.getDateRanges() != null) {
                 for (Map.Entry<String, SearchRequest.DateRange> entry : searchRequest.getDateRanges().entrySet()) {
-                    String field = entry.getKey();
-                    SearchRequest.DateRange dateRange = entry.getValue();
-
-                    try {
-                        // Check if the field is of type Date or LocalDateTime
-                        Class<?> fieldType = root.get(field).getJavaType();
-
-                        if (Date.class.isAssignableFrom(fieldType)) {
-                            // Handle java.util.Date
-                            if (dateRange.getFrom() != null && !dateRange.getFrom().isEmpty()) {
-                                LocalDate fromDate = LocalDate.parse(dateRange.getFrom(), DATE_FORMATTER);
-                                Date fromDateValue = java.sql.Timestamp.valueOf(fromDate.atStartOfDay());
-                                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                                        root.get(field), fromDateValue
-                                ));
-                            }
+                    FieldPlan field = plan.resolve(entry.getKey(), mapping);
+                    if (entry.getValue() != null) {
+                        field.range(root, criteriaBuilder, entry.getValue(), predicates);
+                    }
+                }
+            }
 
-                            if (dateRange.getTo() != null && !dateRange.getTo().isEmpty()) {
-                                LocalDate toDate = LocalDate.parse(dateRange.getTo(), DATE_FORMATTER);
-                                Date toDateValue = java.sql.Timestamp.valueOf(toDate.atTime(23, 59, 59));
-                                predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                                        root.get(field), toDateValue
-                                ));
-                            }
-                        } else {
-                            // Handle LocalDateTime
-                            if (dateRange.getFrom() != null && !dateRange.getFrom().isEmpty()) {
-                                LocalDate fromDate = LocalDate.parse(dateRange.getFrom(), DATE_FORMATTER);
-                                LocalDateTime fromDateTime = fromDate.atStartOfDay();
-                                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                                        root.get(field), fromDateTime
-                                ));
-                            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static FilterMode filterMode(SearchRequest searchRequest, String field, FieldPlan plan) {
+        String mode = searchRequest.getFilterModes() != null ? searchRequest.getFilterModes().get(field) : null;
+        if ("startsWith".equalsIgnoreCase(mode)) {
+            return FilterMode.STARTS_WITH;
+        }
+        if ("equals".equalsIgnoreCase(mode)) {
+            return FilterMode.EQUALS;
+        }
+        if ("contains".equalsIgnoreCase(mode)) {
+            return FilterMode.CONTAINS;
+        }
+        return plan.defaultMode;
+    }
+
+    /**
+     * Maps request field names to entity attribute paths.
+     */
+    public static final class FieldMapping {
+
+        static final FieldMapping NONE = new FieldMapping(Collections.emptyMap(), false);
+
+        private final Map<String, String> paths;
+        private final boolean mappedOnly;
+
+        private FieldMapping(Map<String, String> paths, boolean mappedOnly) {
+            this.paths = Map.copyOf(paths);
+            this.mappedOnly = mappedOnly;
+        }
+
+        /**
+         * All entity fields are filterable; the given request fields are renamed
+         * (e.g. {@code "role" -> "id.role"}).
+         */
+        public static FieldMapping aliases(Map<String, String> paths) {
+            return new FieldMapping(paths, false);
+        }
+
+        /**
+         * Only the given request fields are filterable, mapped to their entity paths.
+         */
+        public static FieldMapping only(Map<String, String> paths) {
+            return new FieldMapping(paths, true);
+        }
+
+        String path(String field) {
+            String path = paths.get(field);
+            return path != null || mappedOnly ? path : field;
+        }
+    }
+
+    private enum FilterMode {
+        CONTAINS,
+        STARTS_WITH,
+        EQUALS
+    }
+
+    private enum FieldKind {
+        TEXT,
+        NUMBER,
+        BOOLEAN,
+        ENUM,
+        DATE,
+        LOCAL_DATE_TIME,
+        LOCAL_DATE,
+        OTHER
+    }
+
+    /**
+     * Filterable fields of one entity type, compiled once from the metamodel.
+     */
+    private static final class EntityPlan {
+
+        private final String entityName;
+        private final Map<String, FieldPlan> fields;
+
+        private EntityPlan(String entityName, Map<String, FieldPlan> fields) {
+            this.entityName = entityName;
+            this.fields = fields;
+        }
+
+        static EntityPlan compile(ManagedType<?> type) {
+            Map<String, FieldPlan> fields = new HashMap<>();
+            collect(type, "", false, fields);
+            String name = type.getJavaType().getSimpleName();
+            log.debug("Compiled search plan for {}: {}", name, fields.keySet());
+            return new EntityPlan(name, Map.copyOf(fields));
+        }
+
+        private static void collect(ManagedType<?> type, String prefix, boolean id, Map<String, FieldPlan> fields) {
+            for (SingularAttribute<?, ?> attribute : type.getSingularAttributes()) {
+                String path = prefix + attribute.getName();
+                boolean identifier = id || attribute.isId();
+                if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                    fields.put(path, new FieldPlan(path.split("\\."), attribute.getJavaType(), identifier));
+                } else if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED
+                        && attribute.getType() instanceof EmbeddableType<?> embeddable) {
+                    collect(embeddable, path + ".", identifier, fields);
+                }
+                // Associations are not filterable
+            }
+        }
+
+        /**
+         * @throws CustomValidationException if the field is not filterable
+         */
+        FieldPlan resolve(String field, FieldMapping mapping) {
+            String path = mapping.path(field);
+            FieldPlan plan = path != null ? fields.get(path) : null;
+            if (plan == null) {
+                log.debug("Rejecting unknown search field '{}' for {}", field, entityName);
+                throw new CustomValidationException("Invalid search field",
+                        List.of(new ApiErrorResponse.FieldError(field, "Unknown or non-filterable field")));
+            }
+            return plan;
+        }
+    }
 
-                            if (dateRange.getTo() != null && !dateRange.getTo().isEmpty()) {
-                                LocalDate toDate = LocalDate.parse(dateRange.getTo(), DATE_FORMATTER);
-                                LocalDateTime toDateTime = toDate.atTime(23, 59, 59);
-                                predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                                        root.get(field), toDateTime
-                                ));
+    /**
+     * Typed predicate builder for one field.
+     */
+    private static final class FieldPlan {
+
+        private final String[] path;
+        private final Class<?> javaType;
+        private final FieldKind kind;
+        private final FilterMode defaultMode;
+
+        FieldPlan(String[] path, Class<?> javaType, boolean identifier) {
+            this.path = path;
+            this.javaType = javaType;
+            this.kind = kindOf(javaType);
+            // An ID is looked up, not searched: equality can use the primary key index
+            this.defaultMode = identifier ? FilterMode.EQUALS : FilterMode.CONTAINS;
+        }
+
+        private static FieldKind kindOf(Class<?> type) {
+            if (type == String.class) {
+                return FieldKind.TEXT;
+            }
+            if (Number.class.isAssignableFrom(type) || (type.isPrimitive() && type != boolean.class && type != char.class)) {
+                return FieldKind.NUMBER;
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return FieldKind.BOOLEAN;
+            }
+            if (type.isEnum()) {
+                return FieldKind.ENUM;
+            }
+            if (Date.class.isAssignableFrom(type)) {
+                return FieldKind.DATE;
+            }
+            if (type == LocalDateTime.class) {
+                return FieldKind.LOCAL_DATE_TIME;
+            }
+            if (type == LocalDate.class) {
+                return FieldKind.LOCAL_DATE;
+            }
+            return FieldKind.OTHER;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <Y> Path<Y> path(Root<?> root) {
+            Path<?> current = root;
+            for (String segment : path) {
+                current = current.get(segment);
+            }
+            return (Path<Y>) current;
+        }
+
+        Predicate filter(Root<?> root, CriteriaBuilder cb, String value, FilterMode mode) {
+            switch (kind) {
+                case TEXT: {
+                    Path<String> column = path(root);
+                    return switch (mode) {
+                        case EQUALS -> cb.equal(column, value);
+                        case STARTS_WITH -> cb.like(column, escapeLike(value) + "%", '\\');
+                        default -> cb.like(cb.lower(column), "%" + escapeLike(value.toLowerCase(Locale.ROOT)) + "%", '\\');
+                    };
+                }
+                case NUMBER:
+                case BOOLEAN:
+                case ENUM: {
+                    Object typed = parse(value);
+                    return typed != null ? cb.equal(path(root), typed) : cb.disjunction();
+                }
+                case DATE:
+                case LOCAL_DATE_TIME:
+                case LOCAL_DATE: {
+                    // A single day
+                    List<Predicate> day = new ArrayList<>();
+                    range(root, cb, new SearchRequest.DateRange(value, value), day);
+                    return day.isEmpty() ? cb.disjunction() : cb.and(day.toArray(new Predicate[0]));
+                }
+                default:
+                    return cb.equal(path(root).as(String.class), value);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void range(Root<?> root, CriteriaBuilder cb, SearchRequest.DateRange range, List<Predicate> predicates) {
+            Comparable from = bound(range.getFrom(), false);
+            Comparable to = bound(range.getTo(), true);
+            if (from == null && to == null) {
+                return;
+            }
+
+            Expression<Comparable> column = (Expression<Comparable>) (Expression<?>) path(root);
+            if (from != null) {
+                predicates.add(cb.greaterThanOrEqualTo(column, from));
+            }
+            if (to != null) {
+                // Dates: exclusive start of the next day; numbers: inclusive
+                predicates.add(kind == FieldKind.NUMBER ? cb.lessThanOrEqualTo(column, to) : cb.lessThan(column, to));
+            }
+        }
+
+        /**
+         * Parses one range bound; date upper bounds become the start of the following day.
+         */
+        private Comparable<?> bound(String value, boolean upper) {
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            if (kind == FieldKind.NUMBER) {
+                return (Comparable<?>) parse(value);
+            }
+            LocalDate date;
+            try {
+                date = LocalDate.parse(value, DATE_FORMATTER);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+            if (upper) {
+                date = date.plusDays(1);
+            }
+            return switch (kind) {
+                case DATE -> java.sql.Timestamp.valueOf(date.atStartOfDay());
+                case LOCAL_DATE_TIME -> date.atStartOfDay();
+                case LOCAL_DATE -> date;
+                default -> null;
+            };
+        }
+
+        /**
+         * Converts a filter value to the field type, or returns null if it does not fit.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object parse(String value) {
+            String trimmed = value.trim();
+            try {
+                switch (kind) {
+                    case NUMBER:
+                        if (javaType == Long.class || javaType == long.class) {
+                            return Long.valueOf(trimmed);
+                        }
+                        if (javaType == Integer.class || javaType == int.class) {
+                            return Integer.valueOf(trimmed);
+                        }
+                        if (javaType == Short.class || javaType == short.class) {
+                            return Short.valueOf(trimmed);
+                        }
+                        if (javaType == BigDecimal.class) {
+                            return new BigDecimal(trimmed);
+                        }
+                        if (javaType == BigInteger.class) {
+                            return new BigInteger(trimmed);
+                        }
+                        if (javaType == Float.class || javaType == float.class) {
+                            return Float.valueOf(trimmed);
+                        }
+                        return Double.valueOf(trimmed);
+                    case BOOLEAN:
+                        if ("true".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed)) {
+                            return Boolean.valueOf(trimmed);
+                        }
+                        return null;
+                    case ENUM:
+                        for (Object constant : javaType.getEnumConstants()) {
+                            if (((Enum) constant).name().equalsIgnoreCase(trimmed)) {
+                                return constant;
                             }
                         }
-                    } catch (Exception e) {
-                        // If date parsing fails or field doesn't exist, skip
-                    }
+                        return null;
+                    default:
+                        return trimmed;
                 }
+            } catch (NumberFormatException e) {
+                return null;
             }
+        }
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        private static String escapeLike(String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
     }
 }
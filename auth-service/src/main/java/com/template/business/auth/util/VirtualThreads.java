@@ -0,0 +1,64 @@
+package com.template.business.auth.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the service's own background threads that follow the
+ * {@code spring.threads.virtual.enabled} setting.
+ * <p>
+ * Spring Boot switches Tomcat request handling and {@code @Scheduled} jobs to virtual
+ * threads when that property is set (the {@code virtual-threads} profile). Threads the
+ * service starts itself (log writers, count queries, mailing sends) are created through
+ * {@link #threadFactory(String, boolean)} so they follow the same setting. Virtual threads
+ * need Java 21 or later; on an older runtime a warning is logged and platform threads are
+ * used, so the profile can be enabled safely everywhere.
+ * </p>
+ * <p>
+ * Virtual threads are not a concurrency limit: code that starts them must bound the work
+ * it does against shared resources (database, SMTP, remote services) with a semaphore
+ * rather than relying on the number of threads.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    /**
+     * The Spring Boot property that enables virtual threads.
+     */
+    public static final String ENABLED_PROPERTY = "spring.threads.virtual.enabled";
+
+    private static volatile boolean unsupportedLogged;
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns a factory for threads named {@code prefix} followed by a sequence number.
+     *
+     * @param prefix the thread name prefix (e.g. "AppLogWriter-")
+     * @param virtual true to create virtual threads when the runtime supports them
+     * @return a virtual thread factory, or a platform thread factory if {@code virtual} is
+     *         false or virtual threads are not supported
+     */
+    public static ThreadFactory threadFactory(String prefix, boolean virtual) {
+        if (virtual) {
+            try {
+                return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+            } catch (UnsupportedOperationException e) {
+                if (!unsupportedLogged) {
+                    unsupportedLogged = true;
+                    log.warn("{}=true but virtual threads require Java 21 or later (running {}); " +
+                            "using platform threads", ENABLED_PROPERTY, System.getProperty("java.version"));
+                }
+            }
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
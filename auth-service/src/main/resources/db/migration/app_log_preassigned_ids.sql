@@ -0,0 +1,21 @@
+-- Let auth-service supply T_APP_LOG IDs itself.
+-- The ingestion pipeline reserves IDs from T_APP_LOG_SEQ01 in blocks and inserts rows in
+-- JDBC batches, so the trigger must only assign an ID when none is given (other writers
+-- that omit the ID keep working unchanged).
+-- This script should be run once before setting app-log.ingestion.preassigned-ids=true
+-- (TEMP_AUTH_SERVICE_APP_LOG_PREASSIGNED_IDS). The service does not inspect the trigger:
+-- with the property on and the old trigger in place, the trigger overwrites the reserved
+-- IDs and the IDs returned to callers do not match the stored rows. Without the property
+-- (the default) rows are inserted one at a time and the trigger's ID is read back.
+-- (PostgreSQL: see externalFiles/clean_auth_service_postgresql.sql)
+
+CREATE OR REPLACE TRIGGER "AP_LOG"."T_APP_LOG_BIFER"
+    BEFORE INSERT ON "AP_LOG"."T_APP_LOG"
+    FOR EACH ROW
+BEGIN
+    IF INSERTING AND :NEW.ID IS NULL THEN
+        SELECT T_APP_LOG_SEQ01.NEXTVAL INTO :NEW.ID FROM SYS.DUAL;
+    END IF;
+END;
+/
+ALTER TRIGGER "AP_LOG"."T_APP_LOG_BIFER" ENABLE;
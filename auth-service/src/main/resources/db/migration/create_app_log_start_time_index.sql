@@ -0,0 +1,9 @@
+-- Index for the admin log list, which is sorted by START_TIME DESC, ID DESC by default.
+-- Without it every page of T_APP_LOG (offset or keyset) is a full scan plus sort; with it
+-- the database walks the index backwards and stops after one page.
+-- This script should be run once on existing databases.
+-- (PostgreSQL: CREATE INDEX idx_t_app_log_start_time ON ap_log.t_app_log (start_time, id);)
+
+CREATE INDEX "AP_LOG"."IDX_T_APP_LOG_START_TIME"
+    ON "AP_LOG"."T_APP_LOG" ("START_TIME", "ID")
+    TABLESPACE "TBS_UTIL_APP";
@@ -0,0 +1,19 @@
+-- Create the lease table used by scheduled jobs (token cleanup, mailing queue)
+-- so that only one auth-service instance runs each job at a time.
+-- This script should be run once before deploying multiple instances.
+-- (PostgreSQL: see externalFiles/clean_auth_service_postgresql.sql)
+
+CREATE TABLE AP_APPLICATIONS.D_SCHEDULER_LOCKS
+(
+    NAME         VARCHAR2(100 BYTE) NOT NULL,
+    LOCKED_UNTIL TIMESTAMP(6)       NOT NULL,
+    LOCKED_AT    TIMESTAMP(6)       NOT NULL,
+    LOCKED_BY    VARCHAR2(255 BYTE) NOT NULL,
+    CONSTRAINT PK_D_SCHEDULER_LOCKS PRIMARY KEY (NAME)
+);
+
+COMMENT ON TABLE AP_APPLICATIONS.D_SCHEDULER_LOCKS IS 'Leases for scheduled jobs - one row per job';
+COMMENT ON COLUMN AP_APPLICATIONS.D_SCHEDULER_LOCKS.LOCKED_UNTIL IS 'Lease expiry - another node may take the job after this time';
+COMMENT ON COLUMN AP_APPLICATIONS.D_SCHEDULER_LOCKS.LOCKED_BY IS 'Node that holds (or last held) the lease';
+
+COMMIT;
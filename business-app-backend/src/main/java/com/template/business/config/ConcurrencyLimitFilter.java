@@ -0,0 +1,125 @@
+package com.template.business.config;
+
+import com.template.business.exception.ErrorCode;
+import com.template.business.exception.GlobalExceptionHandler;
+import com.template.business.exception.ServiceBusyException;
+import com.template.business.util.MetricsSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests processed at the same time.
+ *
+ * <p>With platform threads, Tomcat's thread pool ({@code server.tomcat.threads.max}) is what
+ * limits concurrent requests, and with it the load on the database and auth-service. With
+ * virtual threads every accepted connection gets its own thread, so that limit is gone.
+ * This filter restores it with a semaphore: a request waits up to
+ * {@code request.concurrency-limit.wait-ms} for a permit and is otherwise rejected with a
+ * {@link ServiceBusyException}, which {@link GlobalExceptionHandler} turns into the usual
+ * 503 error response with a {@code Retry-After} header, instead of queueing on the
+ * connection pool until the Hikari connection timeout. Health endpoints are never limited.
+ *
+ * <p>Disabled when {@code request.concurrency-limit.max-concurrent} is 0 (the default);
+ * the {@code virtual-threads} profile enables it.
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MetricsSource {
+
+    private static final String HEALTH_PATH = "/health";
+
+    private final int maxConcurrent;
+    private final long waitMs;
+    private final long retryAfterSeconds;
+    private final Semaphore permits;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    private final LongAdder limited = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitFilter(@Value("${request.concurrency-limit.max-concurrent:0}") int maxConcurrent,
+                                  @Value("${request.concurrency-limit.wait-ms:100}") long waitMs,
+                                  @Value("${request.concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds,
+                                  @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.maxConcurrent = maxConcurrent;
+        this.waitMs = waitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return permits == null || request.getServletPath().startsWith(HEALTH_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        limited.increment();
+        if (!permits.tryAcquire()) {
+            waited.increment();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejected.increment();
+                log.debug("Concurrency limit of {} reached, rejecting {} {}", maxConcurrent,
+                        request.getMethod(), request.getRequestURI());
+                // Outside the DispatcherServlet: hand the exception to the controller advice
+                exceptionResolver.resolveException(request, response, null,
+                        new ServiceBusyException(ErrorCode.SERVICE_BUSY, retryAfterSeconds));
+                return;
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "concurrencyLimit";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("maxConcurrent", maxConcurrent);
+        metrics.put("inFlight", permits != null ? maxConcurrent - permits.availablePermits() : 0);
+        metrics.put("requests", limited.sum());
+        metrics.put("waited", waited.sum());
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+}
@@ -1,22 +1,92 @@
 package com.template.business.config;
 
+import com.template.business.util.CircuitBreaker;
+import com.template.business.util.HttpRoute;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * RestTemplate configuration for external service calls.
  * Provides a properly configured, Spring-managed RestTemplate bean.
+ *
+ * <p>Calls to auth-service are split into two routes, each with its own pooled keep-alive
+ * JDK {@link HttpClient} (HTTP/2 where the server supports it) and its own {@link HttpRoute}
+ * bulkhead and circuit breaker:
+ * <ul>
+ *   <li>{@code restTemplate} (primary) - login, token refresh, theme updates</li>
+ *   <li>{@code logRestTemplate} - log shipping</li>
+ * </ul>
+ * so a flood of log traffic, or a failing log endpoint, cannot hold up user logins.
  */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${auth.service.client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${auth.service.client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${auth.service.client.log-read-timeout-ms:30000}")
+    private long logReadTimeoutMs;
+
+    @Value("${auth.service.client.max-concurrent:50}")
+    private int maxConcurrent;
+
+    @Value("${auth.service.client.log-max-concurrent:4}")
+    private int logMaxConcurrent;
+
+    @Value("${auth.service.client.bulkhead-wait-ms:1000}")
+    private long bulkheadWaitMs;
+
+    @Value("${auth.service.client.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${auth.service.client.breaker.open-ms:10000}")
+    private long breakerOpenMs;
+
+    @Value("${auth.service.client.gzip-min-bytes:-1}")
+    private int gzipMinBytes;
+
     @Bean
+    public HttpRoute authServiceRoute() {
+        return new HttpRoute("authServiceClient", maxConcurrent, bulkheadWaitMs,
+                new CircuitBreaker(breakerFailureThreshold, breakerOpenMs), gzipMinBytes);
+    }
+
+    @Bean
+    public HttpRoute authServiceLogRoute() {
+        return new HttpRoute("authServiceLogClient", logMaxConcurrent, bulkheadWaitMs,
+                new CircuitBreaker(breakerFailureThreshold, breakerOpenMs), gzipMinBytes);
+    }
+
+    @Bean
+    @Primary
     public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000);  // 10 seconds
-        factory.setReadTimeout(30000);     // 30 seconds
-        return new RestTemplate(factory);
+        return restTemplate(authServiceRoute(), readTimeoutMs);
+    }
+
+    @Bean
+    public RestTemplate logRestTemplate() {
+        return restTemplate(authServiceLogRoute(), logReadTimeoutMs);
+    }
+
+    private RestTemplate restTemplate(HttpRoute route, long readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeout));
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(route);
+        return restTemplate;
     }
 }
@@ -6,6 +6,7 @@ import com.template.business.demo.repository.DemoProductRepository;
 import com.template.business.dto.PageResponse;
 import com.template.business.dto.SearchRequest;
 import com.template.business.exception.ResourceNotFoundException;
+import com.template.business.util.KeysetPagination;
 import com.template.business.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,12 @@ public class DemoProductService {
         // Build sort
         Sort sort = buildSort(searchRequest.getSort());
 
+        // Keyset mode: seek past the cursor instead of OFFSET, no count query
+        if (searchRequest.isKeyset()) {
+            return KeysetPagination.search(productRepository, DemoProduct.class, spec, sort, "id", searchRequest,
+                    this::toDTO);
+        }
+
         // Build pageable
         Pageable pageable = PageRequest.of(
                 searchRequest.getPage(),
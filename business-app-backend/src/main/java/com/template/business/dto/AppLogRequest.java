@@ -70,4 +70,11 @@ public class AppLogRequest {
      * Example: "business-app-backend", "order-service"
      */
     private String createUser;
+
+    /**
+     * User the log entry belongs to.
+     * Auth-service takes the user from the JWT token and only uses this field for
+     * log shipper accounts, which send spooled entries on behalf of their users.
+     */
+    private String username;
 }
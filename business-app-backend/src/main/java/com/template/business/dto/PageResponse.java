@@ -21,6 +21,7 @@ public class PageResponse<T> {
     private boolean first;
     private boolean last;
     private boolean empty;
+    private String nextCursor; // keyset pagination only, null on the last page
 
     public static <T> PageResponse<T> of(Page<T> page) {
         return PageResponse.<T>builder()
@@ -1,6 +1,5 @@
 package com.template.business.security;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,22 +7,21 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * JWT Request Filter for validating tokens from auth-service.
  *
  * This filter validates JWT tokens issued by the external auth-service.
  * It extracts username and roles directly from the token claims,
- * without querying the local database.
+ * without querying the local database. Each token is verified once by
+ * {@link JwtUtil#verify(String)}; later requests with the same token reuse the
+ * cached claims and authority list.
  */
 @Slf4j
 @Component
@@ -44,61 +42,46 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            // Verify signature and expiration once; repeat requests with the same token are served from cache
+            VerifiedToken token = null;
             try {
-                username = jwtUtil.extractUsername(jwt);
+                token = jwtUtil.verify(jwt);
             } catch (Exception e) {
                 log.error("JWT token extraction failed", e);
             }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                // Validate token (signature and expiration)
-                if (jwtUtil.isTokenValid(jwt)) {
-                    // Validate entity name - token must be issued for this application
-                    String tokenEntityName = jwtUtil.extractEntityName(jwt);
-                    if (tokenEntityName != null && !tokenEntityName.equals(configuredEntityName)) {
-                        log.warn("JWT Filter: Token entity '{}' does not match configured entity '{}'",
-                                tokenEntityName, configuredEntityName);
-                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                        response.setContentType("application/json");
-                        response.getWriter().write("{\"success\":false,\"message\":\"Token not valid for this application\"}");
-                        return;
-                    }
-
-                    // Extract claims from token (username and roles)
-                    Claims claims = jwtUtil.extractAllClaims(jwt);
 
-                    // Extract roles from token claims
-                    @SuppressWarnings("unchecked")
-                    List<String> roles = claims.get("roles", List.class);
-
-                    // Convert roles to Spring Security authorities (add ROLE_ prefix if needed)
-                    List<SimpleGrantedAuthority> authorities = roles.stream()
-                            .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
+            if (token != null && token.getUsername() != null) {
+                // Validate entity name - token must be issued for this application
+                String tokenEntityName = token.getEntityName();
+                if (tokenEntityName != null && !tokenEntityName.equals(configuredEntityName)) {
+                    log.warn("JWT Filter: Token entity '{}' does not match configured entity '{}'",
+                            tokenEntityName, configuredEntityName);
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"success\":false,\"message\":\"Token not valid for this application\"}");
+                    return;
+                }
 
-                    // Create authentication token with username, JWT token, and authorities
+                if (token.getRoles() == null) {
+                    log.error("JWT token validation failed for user: {} (no roles claim)", token.getUsername());
+                } else {
+                    // Create authentication token with username, JWT token, and the token's prebuilt authorities
                     // The JWT token is stored as credentials so it can be used by services
                     // that need to forward it to other services (e.g., AppLogger -> auth-service)
                     UsernamePasswordAuthenticationToken authenticationToken =
-                            new UsernamePasswordAuthenticationToken(username, jwt, authorities);
+                            new UsernamePasswordAuthenticationToken(token.getUsername(), jwt, token.getAuthorities());
                     authenticationToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request));
 
                     // Set authentication in security context
                     SecurityContextHolder.getContext().setAuthentication(authenticationToken);
 
-                    log.debug("JWT token validated for user: {} with roles: {}", username, roles);
+                    log.debug("JWT token validated for user: {} with roles: {}", token.getUsername(), token.getRoles());
                 }
-            } catch (Exception e) {
-                log.error("JWT token validation failed for user: {}", username, e);
             }
         }
 
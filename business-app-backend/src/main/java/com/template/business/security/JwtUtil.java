@@ -1,14 +1,29 @@
 package com.template.business.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for JWT (JSON Web Token) validation.
@@ -19,7 +34,14 @@ import java.util.function.Function;
  * <p>
  * Note: Token generation is handled by auth-service. This class only validates tokens.
  * </p>
+ * <p>
+ * The signing key and parser are built once at startup. Verified tokens are cached
+ * under a SHA-256 digest of the token string until they expire, so repeated requests
+ * with the same access token skip HMAC verification, JSON parsing and building the
+ * authority list ({@code jwt.verified-cache.max-size} bounds the cache).
+ * </p>
  */
+@Slf4j
 @Component
 public class JwtUtil {
 
@@ -29,13 +51,114 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    /** Authority lists by role list, shared by all tokens with the same roles */
+    private final Map<List<String>, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the HMAC signing key and the JWT parser once at startup.
+     * Both objects are thread-safe and reused for every token.
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        log.info("JwtUtil initialized: verified token cache max size={}", verifiedCacheMaxSize);
+    }
+
+    /**
+     * Verifies a JWT token and returns an immutable view of its claims.
+     * <p>
+     * The token is parsed and its signature checked at most once while it is valid.
+     * Subsequent calls with the same token are served from the verified-token cache
+     * until the token expires.
+     * </p>
+     *
+     * @param token the JWT token to verify
+     * @return the verified token claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String cacheKey = digest(token);
+
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verifiedTokens.remove(cacheKey, cached);
+        }
+
+        // Throws ExpiredJwtException for expired tokens, SignatureException for tampered ones
+        Claims claims = extractAllClaims(token);
+        List<?> rawRoles = claims.get("roles", List.class);
+        List<String> roles = rawRoles == null ? null
+                : rawRoles.stream().map(String::valueOf).collect(Collectors.toUnmodifiableList());
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("entityName", String.class),
+                roles,
+                roles == null ? List.of() : authoritiesByRoles.computeIfAbsent(roles, JwtUtil::toAuthorities),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            evictVerifiedTokens(now);
+        }
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
+    }
+
+    /**
+     * Converts roles to Spring Security authorities (adds the ROLE_ prefix if needed)
+     */
+    private static List<GrantedAuthority> toAuthorities(List<String> roles) {
+        return roles.stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
     /**
-     * Generates the HMAC signing key from the configured secret.
+     * Removes expired entries from the verified-token cache and, if the cache is
+     * still full, drops entries until it is back under its size limit.
      *
-     * @return the signing key for JWT operations
+     * @param now the current time in epoch milliseconds
+     */
+    private void evictVerifiedTokens(long now) {
+        verifiedTokens.values().removeIf(token -> token.isExpired(now));
+
+        Iterator<String> iterator = verifiedTokens.keySet().iterator();
+        int target = verifiedCacheMaxSize - Math.max(1, verifiedCacheMaxSize / 10);
+        while (verifiedTokens.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        if (authoritiesByRoles.size() > verifiedCacheMaxSize) {
+            authoritiesByRoles.clear();
+        }
+    }
+
+    /**
+     * Computes the cache key for a token (Base64 SHA-256 digest of the token string).
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not found", e);
+        }
     }
 
     /**
@@ -45,7 +168,7 @@ public class JwtUtil {
      * @return the username contained in the token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getUsername();
     }
 
     /**
@@ -55,7 +178,8 @@ public class JwtUtil {
      * @return the expiration date of the token
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = verify(token).getExpiration();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     /**
@@ -70,8 +194,7 @@ public class JwtUtil {
      */
     public String extractEntityName(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("entityName", String.class);
+            return verify(token).getEntityName();
         } catch (Exception e) {
             return null;
         }
@@ -93,30 +216,19 @@ public class JwtUtil {
     /**
      * Extracts all claims from a JWT token.
      * <p>
-     * Uses JJWT 0.12.6+ API for parsing and validation.
+     * Uses JJWT 0.12.6+ API for parsing and validation. This always performs a
+     * full parse; prefer {@link #verify(String)} on hot paths.
      * </p>
      *
      * @param token the JWT token to parse
      * @return all claims from the token
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    /**
-     * Checks if a JWT token has expired.
-     *
-     * @param token the JWT token to check
-     * @return true if the token has expired, false otherwise
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     /**
      * Validates a JWT token for expiration.
      * <p>
@@ -130,10 +242,8 @@ public class JwtUtil {
      */
     public Boolean isTokenValid(String token) {
         try {
-            // extractAllClaims will throw exception if signature is invalid
-            extractAllClaims(token);
-            // Check if token is not expired
-            return !isTokenExpired(token);
+            // verify will throw exception if signature is invalid or the token has expired
+            return !verify(token).isExpired(System.currentTimeMillis());
         } catch (Exception e) {
             return false;
         }
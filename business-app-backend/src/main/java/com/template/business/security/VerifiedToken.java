@@ -0,0 +1,41 @@
+package com.template.business.security;
+
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified.
+ * <p>
+ * Produced by {@link JwtUtil#verify(String)} after a single parse of the token and cached
+ * until the token expires. Holds only what {@link JwtRequestFilter} needs, including the
+ * Spring Security authorities for the token's roles, built once and shared by all tokens
+ * with the same roles. The expiration is an {@link Instant} so that a cached instance
+ * cannot be changed by any of the callers it is shared with.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ * @see JwtUtil
+ */
+@Value
+public class VerifiedToken {
+
+    String username;
+    String entityName;
+    List<String> roles; // null if the token has no roles claim
+    List<GrantedAuthority> authorities;
+    Instant expiration;
+
+    /**
+     * Checks whether the token has expired at the given instant.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return true if the token is expired, false otherwise
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiration != null && expiration.toEpochMilli() <= nowMillis;
+    }
+}
@@ -19,7 +19,8 @@ import java.util.Date;
  * - For SLF4J only: Use standard @Slf4j annotation or LoggerFactory
  * - For SLF4J + DB logging: Use this AppLogger service
  *
- * All database logging is done asynchronously to avoid blocking the main thread.
+ * All database logging is queued in a bounded buffer and sent by {@link RemoteLogDispatcher},
+ * so it never blocks the main thread (ERROR and notifiable records are sent first).
  * If remote logging fails, it will be logged locally but won't affect business logic.
  */
 @Slf4j
@@ -36,7 +37,7 @@ public class AppLogger {
     @Value("${app.logging.enabled:true}")
     private boolean remoteLoggingEnabled;
 
-    private final AuthServiceLogClient authServiceLogClient;
+    private final RemoteLogDispatcher remoteLogDispatcher;
 
     /**
      * Log an INFO message to SLF4J and optionally to remote database.
@@ -270,6 +271,7 @@ public class AppLogger {
 
         // Get JWT token from current security context
         String jwtToken = getJwtToken();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (jwtToken == null) {
             log.trace("No JWT token available, skipping remote logging");
             return;
@@ -287,10 +289,11 @@ public class AppLogger {
                     .endTime(endTime != null ? endTime : new Date())
                     .notifiable(notifiable ? "Y" : "N")
                     .createUser(createUser)
+                    .username(authentication.getName())
                     .build();
 
-            // Send asynchronously - fire and forget
-            authServiceLogClient.sendLogAsync(logRequest, jwtToken);
+            // Queue for the dispatcher threads - fire and forget
+            remoteLogDispatcher.dispatch(logRequest, jwtToken);
 
         } catch (Exception e) {
             // Don't let remote logging failures affect business logic
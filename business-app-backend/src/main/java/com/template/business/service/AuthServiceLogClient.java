@@ -3,17 +3,19 @@ package com.template.business.service;
 import com.template.business.dto.AppLogRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
-
-import java.util.concurrent.CompletableFuture;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * REST client for sending logs to auth-service's logging API.
- * All calls are made asynchronously to avoid blocking the main thread.
+ * Called from the {@link RemoteLogDispatcher} and {@link RemoteLogSpool} threads, never from request threads.
  */
 @Slf4j
 @Service
@@ -26,23 +28,29 @@ public class AuthServiceLogClient {
     @Value("${auth.service.log-endpoint}")
     private String logEndpoint;
 
+    @Value("${auth.service.log-batch-endpoint:/api/v1/logs/batch}")
+    private String logBatchEndpoint;
+
     @Value("${app.logging.enabled:true}")
     private boolean loggingEnabled;
 
+    @Qualifier("logRestTemplate")
     private final RestTemplate restTemplate;
 
+    private final ObjectMapper objectMapper;
+
     /**
-     * Send log entry to auth-service asynchronously.
-     * Uses the current user's JWT token for authentication.
+     * Send log entry to auth-service synchronously.
+     * Use sparingly - prefer {@link RemoteLogDispatcher#dispatch} for better performance.
      *
      * @param logRequest The log entry to send
-     * @return CompletableFuture that completes when the log is sent
+     * @param jwtToken JWT token for authentication
+     * @return true if log was sent successfully, false otherwise
      */
-    @Async("appLogExecutor")
-    public CompletableFuture<Void> sendLogAsync(AppLogRequest logRequest, String jwtToken) {
+    public boolean sendLogSync(AppLogRequest logRequest, String jwtToken) {
         if (!loggingEnabled) {
             log.trace("Remote logging is disabled, skipping log entry");
-            return CompletableFuture.completedFuture(null);
+            return false;
         }
 
         try {
@@ -54,7 +62,7 @@ public class AuthServiceLogClient {
                 headers.setBearerAuth(jwtToken);
             } else {
                 log.warn("No JWT token available for remote logging, skipping");
-                return CompletableFuture.completedFuture(null);
+                return false;
             }
 
             // Create request entity
@@ -72,76 +80,115 @@ public class AuthServiceLogClient {
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.trace("Successfully sent log to auth-service: module={}, status={}",
                         logRequest.getModule(), logRequest.getStatus());
+                return true;
             } else {
                 log.warn("Auth-service returned non-success status for log: {}",
                         response.getStatusCode());
+                return false;
             }
 
         } catch (Exception e) {
             // Don't let logging failures affect business logic
             log.warn("Failed to send log to auth-service: {} - {}",
                     e.getClass().getSimpleName(), e.getMessage());
+            return false;
         }
-
-        return CompletableFuture.completedFuture(null);
     }
 
     /**
-     * Send log entry to auth-service synchronously.
-     * Use sparingly - prefer async logging for better performance.
+     * Send spooled log entries to auth-service's bulk endpoint in one request.
      *
-     * @param logRequest The log entry to send
-     * @param jwtToken JWT token for authentication
-     * @return true if log was sent successfully, false otherwise
+     * @param ndjson log entries, one JSON object per line
+     * @param jwtToken JWT token of the log shipper account
+     * @return whether the entries were delivered, should be retried later (with new credentials
+     *         if UNAUTHORIZED), or can never be delivered. For RETRY, how many leading entries
+     *         auth-service already accepted before its ingestion queue filled up
      */
-    public boolean sendLogSync(AppLogRequest logRequest, String jwtToken) {
-        if (!loggingEnabled) {
-            log.trace("Remote logging is disabled, skipping log entry");
-            return false;
-        }
-
+    public BatchResult sendLogBatch(byte[] ndjson, String jwtToken) {
         try {
-            // Create headers with JWT token
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            if (jwtToken != null && !jwtToken.isEmpty()) {
-                headers.setBearerAuth(jwtToken);
-            } else {
-                log.warn("No JWT token available for remote logging, skipping");
-                return false;
-            }
+            headers.setContentType(MediaType.APPLICATION_NDJSON);
+            headers.setBearerAuth(jwtToken);
 
-            // Create request entity
-            HttpEntity<AppLogRequest> requestEntity = new HttpEntity<>(logRequest, headers);
-
-            // Call auth-service log endpoint
-            String authServiceLogUrl = authServiceHost + logEndpoint;
+            String authServiceLogUrl = authServiceHost + logBatchEndpoint;
             ResponseEntity<String> response = restTemplate.exchange(
                     authServiceLogUrl,
                     HttpMethod.POST,
-                    requestEntity,
+                    new HttpEntity<>(ndjson, headers),
                     String.class
             );
+            log.trace("Auth-service accepted log batch: {}", response.getBody());
+            return new BatchResult(BatchOutcome.SENT, 0, 0);
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.trace("Successfully sent log to auth-service: module={}, status={}",
-                        logRequest.getModule(), logRequest.getStatus());
-                return true;
-            } else {
-                log.warn("Auth-service returned non-success status for log: {}",
-                        response.getStatusCode());
-                return false;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                return new BatchResult(BatchOutcome.RETRY, 0, retryAfterMs(e.getResponseHeaders()));
             }
-
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED || e.getStatusCode() == HttpStatus.FORBIDDEN) {
+                // Expired or revoked token, or an account that lost its role: the entries are fine
+                log.warn("Auth-service did not accept the log shipper credentials: {}", e.getStatusCode());
+                return new BatchResult(BatchOutcome.UNAUTHORIZED, 0, 0);
+            }
+            // Malformed body, too large: sending it again cannot succeed
+            log.warn("Auth-service rejected log batch: {}", e.getStatusCode());
+            return new BatchResult(BatchOutcome.REJECTED, 0, 0);
+        } catch (HttpServerErrorException e) {
+            // 503 when its ingestion queue is full: the entries before "received" were processed
+            log.debug("Auth-service could not take the whole log batch: {}", e.getStatusCode());
+            int processed = e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE ? processed(e.getResponseBodyAsString()) : 0;
+            return new BatchResult(BatchOutcome.RETRY, processed, retryAfterMs(e.getResponseHeaders()));
         } catch (Exception e) {
-            // Don't let logging failures affect business logic
-            log.warn("Failed to send log to auth-service: {} - {}",
+            // Unreachable, timeout
+            log.debug("Failed to send log batch to auth-service: {} - {}",
                     e.getClass().getSimpleName(), e.getMessage());
-            return false;
+            return new BatchResult(BatchOutcome.RETRY, 0, 0);
+        }
+    }
+
+    /**
+     * Number of records auth-service processed before it stopped, from a bulk upload response
+     */
+    private int processed(String body) {
+        if (body == null || body.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, objectMapper.readTree(body).path("data").path("received").asInt(0));
+        } catch (JacksonException e) {
+            return 0;
+        }
+    }
+
+    private static long retryAfterMs(HttpHeaders headers) {
+        String retryAfter = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0; // HTTP-date form: use the caller's own backoff
         }
     }
 
+    /**
+     * Result of {@link #sendLogBatch(byte[], String)}.
+     */
+    public enum BatchOutcome {
+        SENT, RETRY, UNAUTHORIZED, REJECTED
+    }
+
+    /**
+     * Outcome of a bulk upload, with the number of leading records auth-service processed
+     * (RETRY only) and the delay it asked for.
+     *
+     * @param outcome the outcome
+     * @param processed leading records already processed; they must not be sent again
+     * @param retryAfterMs the server's Retry-After in ms, or 0 if none
+     */
+    public record BatchResult(BatchOutcome outcome, int processed, long retryAfterMs) {
+    }
+
     /**
      * Check if remote logging is enabled.
      */
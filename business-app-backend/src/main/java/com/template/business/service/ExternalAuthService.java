@@ -7,6 +7,7 @@ import com.template.business.dto.ThemePreferencesRequest;
 import com.template.business.exception.CustomAuthenticationException;
 import com.template.business.exception.ErrorCode;
 import com.template.business.exception.ExternalServiceException;
+import com.template.business.util.MetricsSource;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,14 +18,31 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Service for calling external authentication API (auth-service)
  * All authentication is delegated to the external auth-service
+ *
+ * Token refreshes are single-flight: concurrent refreshes with the same refresh token
+ * (e.g. several browser tabs at token expiry) share one call to auth-service, and the
+ * rotated token pair is reused for {@code auth.service.refresh.reuse-ms} so late arrivals
+ * get the same result instead of presenting an already-rotated (revoked) refresh token.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ExternalAuthService {
+public class ExternalAuthService implements MetricsSource {
 
     @Value("${auth.service.host}")
     private String authServiceHost;
@@ -38,8 +56,23 @@ public class ExternalAuthService {
     @Value("${auth.service.theme-url:}")
     private String authServiceThemeUrl;
 
+    @Value("${auth.service.refresh.reuse-ms:5000}")
+    private long refreshReuseMs;
+
+    @Value("${auth.service.refresh.max-entries:10000}")
+    private int refreshMaxEntries;
+
     private final RestTemplate restTemplate;
 
+    /** In-flight and recently completed refreshes, keyed by SHA-256 of the refresh token */
+    private final ConcurrentHashMap<String, RefreshFlight> refreshFlights = new ConcurrentHashMap<>();
+
+    private final LongAdder refreshRequests = new LongAdder();
+    private final LongAdder refreshCalls = new LongAdder();
+    private final LongAdder refreshCoalesced = new LongAdder();
+    private final LongAdder refreshReused = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
     /**
      * Authenticate with external auth-service
      *
@@ -96,12 +129,67 @@ public class ExternalAuthService {
     }
 
     /**
-     * Refresh token with external auth-service
+     * Refresh token with external auth-service.
+     * Concurrent and repeated calls with the same refresh token within the reuse window
+     * share one call to auth-service and get the same rotated token pair.
      *
      * @param refreshToken Refresh token string
      * @return ExternalAuthResponse with new token and user data
      */
     public ExternalAuthResponse refreshToken(String refreshToken) {
+        refreshRequests.increment();
+        String key = sha256(refreshToken);
+        long now = System.currentTimeMillis();
+        if (refreshFlights.size() >= refreshMaxEntries) {
+            trimRefreshFlights(now);
+        }
+
+        RefreshFlight created = new RefreshFlight();
+        RefreshFlight flight = refreshFlights.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired(now) ? existing : created);
+
+        if (flight != created) {
+            if (flight.result.isDone()) {
+                refreshReused.increment();
+            } else {
+                refreshCoalesced.increment();
+            }
+            log.debug("Joining token refresh already made for this refresh token");
+            try {
+                return flight.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        refreshCalls.increment();
+        try {
+            ExternalAuthResponse response = callRefresh(refreshToken);
+            flight.expiresAt = System.currentTimeMillis() + refreshReuseMs;
+            flight.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Failures are not reused: callers waiting now get the error, later callers retry
+            refreshFailures.increment();
+            refreshFlights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (!flight.result.isDone()) {
+                refreshFlights.remove(key, flight);
+                flight.result.completeExceptionally(new ExternalServiceException(
+                        ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE, "Token refresh failed", null));
+            }
+        }
+    }
+
+    /**
+     * Call auth-service's refresh endpoint
+     */
+    private ExternalAuthResponse callRefresh(String refreshToken) {
         try {
             String authServiceRefreshUrl = authServiceHost + refreshEndpoint;
             log.debug("Refreshing token with external auth-service: {}", authServiceRefreshUrl);
@@ -215,4 +303,56 @@ public class ExternalAuthService {
             throw new ExternalServiceException(ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE, "Auth service unavailable for theme update: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Removes expired refreshes and, if still full, drops the oldest completed ones
+     */
+    private void trimRefreshFlights(long now) {
+        refreshFlights.values().removeIf(flight -> flight.isExpired(now));
+        Iterator<RefreshFlight> flights = refreshFlights.values().iterator();
+        int target = refreshMaxEntries - Math.max(1, refreshMaxEntries / 10);
+        while (refreshFlights.size() > target && flights.hasNext()) {
+            if (flights.next().result.isDone()) {
+                flights.remove();
+            }
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "tokenRefresh";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", refreshRequests.sum());
+        metrics.put("authServiceCalls", refreshCalls.sum());
+        metrics.put("coalesced", refreshCoalesced.sum());
+        metrics.put("reused", refreshReused.sum());
+        metrics.put("failures", refreshFailures.sum());
+        metrics.put("entries", refreshFlights.size());
+        return metrics;
+    }
+
+    /**
+     * One refresh call to auth-service and, once it succeeded, how long its result is reused.
+     */
+    private static final class RefreshFlight {
+        private final CompletableFuture<ExternalAuthResponse> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return result.isDone() && now >= expiresAt;
+        }
+    }
 }
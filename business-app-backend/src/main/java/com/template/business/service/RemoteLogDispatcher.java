@@ -0,0 +1,188 @@
+package com.template.business.service;
+
+import com.template.business.dto.AppLogRequest;
+import com.template.business.util.MetricsSource;
+import com.template.business.util.PriorityLogBuffer;
+import com.template.business.util.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ships {@link AppLogger} records to auth-service from a bounded in-memory buffer.
+ * <p>
+ * Request threads only place the record in a lock-free {@link PriorityLogBuffer} and return;
+ * dispatcher threads take records (ERROR and notifiable records first, from their own lane)
+ * and append them to the durable {@link RemoteLogSpool}, or send them with
+ * {@link AuthServiceLogClient#sendLogSync} when the spool is disabled. When a lane is full the
+ * {@code app.logging.dispatcher.overflow} policy applies (drop-newest, drop-oldest, or block
+ * for at most {@code app.logging.dispatcher.overflow-block-ms}), so a slow or unavailable
+ * auth-service can never stall a request thread. Queued records are sent on shutdown.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RemoteLogDispatcher implements MetricsSource {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    private final AuthServiceLogClient authServiceLogClient;
+    private final RemoteLogSpool remoteLogSpool;
+
+    @Value("${app.logging.dispatcher.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.logging.dispatcher.priority-capacity:2000}")
+    private int priorityCapacity;
+
+    @Value("${app.logging.dispatcher.overflow:drop-newest}")
+    private String overflow;
+
+    @Value("${app.logging.dispatcher.overflow-block-ms:5}")
+    private long overflowBlockMs;
+
+    @Value("${app.logging.dispatcher.threads:2}")
+    private int dispatcherThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private PriorityLogBuffer<PendingLog> buffer;
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new PriorityLogBuffer<>(priorityCapacity, capacity, PriorityLogBuffer.Overflow.parse(overflow),
+                overflowBlockMs, pending -> dropped.increment());
+        running = true;
+        ThreadFactory threadFactory = VirtualThreads.threadFactory("AppLog-", virtualThreads);
+        for (int i = 0; i < dispatcherThreads; i++) {
+            Thread dispatcher = threadFactory.newThread(this::drain);
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+        log.info("Remote log dispatcher started: threads={}, capacity={}, priorityCapacity={}, overflow={}",
+                dispatcherThreads, capacity, priorityCapacity, overflow);
+    }
+
+    /**
+     * Queue a log record for sending. Never throws and never waits longer than the
+     * configured overflow block time.
+     *
+     * @param logRequest the log record
+     * @param jwtToken the caller's JWT token, used to authenticate the record
+     * @return true if the record was queued
+     */
+    public boolean dispatch(AppLogRequest logRequest, String jwtToken) {
+        boolean priority = "ERROR".equalsIgnoreCase(logRequest.getStatus())
+                || "Y".equalsIgnoreCase(logRequest.getNotifiable());
+        if (!running || !buffer.offer(new PendingLog(logRequest, jwtToken), priority)) {
+            dropped.increment();
+            log.trace("Remote log buffer full, dropping log: module={}, status={}",
+                    logRequest.getModule(), logRequest.getStatus());
+            return false;
+        }
+        dispatched.increment();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Stopping remote log dispatcher, {} records queued", buffer.size());
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        for (Thread dispatcher : dispatchers) {
+            try {
+                dispatcher.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("{} remote log records were not sent before shutdown", buffer.size());
+        }
+    }
+
+    /**
+     * Dispatcher loop: send queued records until stopped and the buffer is empty
+     */
+    private void drain() {
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingLog pending = buffer.poll();
+                if (pending == null) {
+                    buffer.await(100, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                boolean delivered = remoteLogSpool.isEnabled()
+                        ? remoteLogSpool.append(pending.logRequest)
+                        : authServiceLogClient.sendLogSync(pending.logRequest, pending.jwtToken);
+                if (delivered) {
+                    sent.increment();
+                } else {
+                    failed.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Keep the dispatcher alive
+                failed.increment();
+                log.warn("Remote log dispatcher error: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "remoteLogDispatcher";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("dispatched", dispatched.sum());
+        metrics.put("sent", sent.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("dropped", dropped.sum());
+        if (buffer != null) {
+            metrics.put("buffer", buffer.getMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Queued log record with the token captured on the request thread.
+     */
+    private static final class PendingLog {
+        private final AppLogRequest logRequest;
+        private final String jwtToken;
+
+        private PendingLog(AppLogRequest logRequest, String jwtToken) {
+            this.logRequest = logRequest;
+            this.jwtToken = jwtToken;
+        }
+    }
+}
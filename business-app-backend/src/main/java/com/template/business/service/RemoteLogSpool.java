@@ -0,0 +1,352 @@
+package com.template.business.service;
+
+import com.template.business.dto.AppLogRequest;
+import com.template.business.util.LogSpool;
+import com.template.business.util.MetricsSource;
+import com.template.business.util.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Durable local spool between {@link RemoteLogDispatcher} and auth-service.
+ * <p>
+ * Log records are appended to a {@link LogSpool} on local disk (a memory-mapped append, no
+ * network call). A shipper thread reads them back in order and sends them to auth-service's
+ * bulk endpoint as NDJSON batches of up to {@code app.logging.spool.batch-size} records,
+ * acknowledging each batch only once auth-service has accepted it. While auth-service is slow
+ * or down, records stay in the spool and are retried with exponential backoff; after a restart
+ * shipping resumes at the last acknowledged record.
+ * </p>
+ * <p>
+ * User tokens are never written to disk. Records store the username they belong to, and the
+ * shipper authenticates as a dedicated log shipper account
+ * ({@code app.logging.spool.service-username}/{@code service-password}, holding auth-service's
+ * {@code app-log.shipper-role}), which lets auth-service attribute each record to its user.
+ * The shipper logs in when it starts sending, again after
+ * {@code app.logging.spool.service-token-max-age-ms}, and whenever auth-service answers 401/403;
+ * the batch is kept and retried in all these cases. Without a shipper account the spool is
+ * disabled and records are sent directly with the user's token.
+ * </p>
+ * <p>
+ * A batch auth-service refuses for good (any other 4xx: malformed body, too large, wrong
+ * endpoint) is not dropped: it is written as an NDJSON file to the {@code dead-letter}
+ * directory of the spool, named after its spool position, and only then acknowledged. The
+ * files can be inspected and posted to the bulk endpoint again by hand. When the dead-letter
+ * files reach {@code app.logging.spool.dead-letter-max-size-mb}, the shipper stops
+ * acknowledging refused batches and keeps retrying them with backoff instead, so records are
+ * held in the spool rather than lost.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RemoteLogSpool implements MetricsSource {
+
+    private static final long IDLE_POLL_MS = 200;
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    private static final String DEAD_LETTER_DIRECTORY = "dead-letter";
+
+    private final AuthServiceLogClient authServiceLogClient;
+    private final ExternalAuthService externalAuthService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.logging.spool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.logging.spool.directory:${user.home}/.business-app-backend/log-spool}")
+    private String directory;
+
+    @Value("${app.logging.spool.segment-size-mb:16}")
+    private int segmentSizeMb;
+
+    @Value("${app.logging.spool.max-size-mb:512}")
+    private long maxSizeMb;
+
+    @Value("${app.logging.spool.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.logging.spool.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${app.logging.spool.dead-letter-max-size-mb:64}")
+    private long deadLetterMaxSizeMb;
+
+    @Value("${app.logging.spool.service-username:}")
+    private String serviceUsername;
+
+    @Value("${app.logging.spool.service-password:}")
+    private String servicePassword;
+
+    @Value("${app.logging.spool.service-token-max-age-ms:600000}")
+    private long serviceTokenMaxAgeMs;
+
+    @Value("${app.logging.entity-name}")
+    private String entityName;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private LogSpool spool;
+    private Path deadLetterDirectory;
+    private Thread shipper;
+    private volatile boolean running;
+
+    // Shipper thread only
+    private String serviceToken;
+    private long serviceTokenAt;
+    private volatile long deadLetterBytes;
+
+    private final LongAdder spooled = new LongAdder();
+    private final LongAdder notSpooled = new LongAdder();
+    private final LongAdder shipped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder deadLetterFull = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder loginFailures = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Remote log spool is disabled, logs are sent to auth-service directly");
+            return;
+        }
+        if (serviceUsername == null || serviceUsername.isBlank()) {
+            log.warn("Remote log spool needs a log shipper account (app.logging.spool.service-username), " +
+                    "logs are sent to auth-service directly");
+            return;
+        }
+        try {
+            long segmentSize = Math.min(segmentSizeMb * 1024L * 1024L, Integer.MAX_VALUE);
+            spool = LogSpool.open(Path.of(directory), (int) segmentSize, Math.max(maxSizeMb * 1024L * 1024L, segmentSize));
+            // Inside the owner-only spool directory
+            deadLetterDirectory = Files.createDirectories(Path.of(directory).resolve(DEAD_LETTER_DIRECTORY));
+            deadLetterBytes = sizeOf(deadLetterDirectory);
+        } catch (IOException e) {
+            if (spool != null) {
+                spool.close();
+                spool = null;
+            }
+            log.error("Cannot open remote log spool at {}, logs are sent to auth-service directly: {}",
+                    directory, e.getMessage());
+            return;
+        }
+        running = true;
+        shipper = VirtualThreads.threadFactory("AppLogShipper-", virtualThreads).newThread(this::ship);
+        shipper.start();
+    }
+
+    /**
+     * @return true if records should be appended to the spool instead of sent directly
+     */
+    public boolean isEnabled() {
+        return spool != null;
+    }
+
+    /**
+     * Append a log record to the spool
+     *
+     * @param logRequest the log record, with the username it belongs to
+     * @return false if the record could not be spooled (spool full or I/O error)
+     */
+    public boolean append(AppLogRequest logRequest) {
+        try {
+            if (spool.append(objectMapper.writeValueAsBytes(logRequest))) {
+                spooled.increment();
+                return true;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to spool log: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+        notSpooled.increment();
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (spool == null) {
+            return;
+        }
+        running = false;
+        shipper.interrupt();
+        try {
+            shipper.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spool.close();
+        if (spool.hasUnread()) {
+            log.info("Unsent logs remain in the spool at {} and will be sent after restart", directory);
+        }
+    }
+
+    /**
+     * Shipper loop: send the records after the checkpoint in batches
+     */
+    private void ship() {
+        long backoffMs = 0;
+        while (running) {
+            try {
+                if (backoffMs > 0) {
+                    Thread.sleep(backoffMs);
+                }
+                long from = spool.getCheckpoint();
+                List<LogSpool.Record> records = spool.read(from, batchSize);
+                if (records.isEmpty()) {
+                    Thread.sleep(IDLE_POLL_MS);
+                    continue;
+                }
+
+                ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+                for (LogSpool.Record record : records) {
+                    ndjson.write(record.getPayload());
+                    ndjson.write('\n');
+                }
+
+                AuthServiceLogClient.BatchResult result = authServiceLogClient.sendLogBatch(ndjson.toByteArray(), serviceToken());
+                AuthServiceLogClient.BatchOutcome outcome = result.outcome();
+                if (outcome == AuthServiceLogClient.BatchOutcome.UNAUTHORIZED) {
+                    // Log in again before the next attempt; the batch stays in the spool
+                    serviceToken = null;
+                }
+                if (outcome == AuthServiceLogClient.BatchOutcome.RETRY
+                        || outcome == AuthServiceLogClient.BatchOutcome.UNAUTHORIZED) {
+                    int processed = Math.min(result.processed(), records.size());
+                    if (processed > 0) {
+                        // Auth-service took these before its queue filled up: do not send them twice
+                        shipped.add(processed);
+                        spool.acknowledge(records.get(processed - 1).getNext());
+                    }
+                    retries.increment();
+                    backoffMs = backoffMs == 0 ? INITIAL_BACKOFF_MS : Math.min(backoffMs * 2, maxBackoffMs);
+                    backoffMs = Math.max(backoffMs, result.retryAfterMs());
+                    continue;
+                }
+                if (outcome == AuthServiceLogClient.BatchOutcome.SENT) {
+                    shipped.add(records.size());
+                    batches.increment();
+                } else {
+                    if (!deadLetter(from, ndjson.toByteArray())) {
+                        // Keep the batch in the spool until there is room for it
+                        backoffMs = maxBackoffMs;
+                        continue;
+                    }
+                    rejected.add(records.size());
+                }
+                spool.acknowledge(records.get(records.size() - 1).getNext());
+                backoffMs = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Keep the shipper alive; unacknowledged records are read again
+                log.warn("Remote log shipper error: {}", e.getMessage());
+                backoffMs = Math.max(backoffMs, INITIAL_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Token of the log shipper account, logging in when there is none or it is getting old
+     */
+    private String serviceToken() {
+        long now = System.currentTimeMillis();
+        if (serviceToken == null || now - serviceTokenAt >= serviceTokenMaxAgeMs) {
+            try {
+                serviceToken = externalAuthService.authenticate(serviceUsername, servicePassword, entityName)
+                        .getData().getToken();
+                serviceTokenAt = now;
+                logins.increment();
+            } catch (RuntimeException e) {
+                serviceToken = null;
+                loginFailures.increment();
+                throw e;
+            }
+        }
+        return serviceToken;
+    }
+
+    /**
+     * Write a batch auth-service refused to the dead-letter directory
+     *
+     * @param position spool position of the first record, names the file so a batch written
+     *                 again after a crash replaces its earlier copy
+     * @param ndjson the batch as it was sent
+     * @return false if the batch was not written (dead-letter directory full or I/O error)
+     */
+    private boolean deadLetter(long position, byte[] ndjson) {
+        if (deadLetterBytes + ndjson.length > deadLetterMaxSizeMb * 1024L * 1024L) {
+            deadLetterFull.increment();
+            log.error("Dead-letter directory {} is full ({} bytes), refused log batch kept in the spool",
+                    deadLetterDirectory, deadLetterBytes);
+            return false;
+        }
+        Path file = deadLetterDirectory.resolve(String.format("batch-%016x.ndjson", position));
+        try {
+            Files.write(file, ndjson, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            log.error("Cannot write refused log batch to {}, kept in the spool: {}", file, e.getMessage());
+            return false;
+        }
+        deadLetterBytes += ndjson.length;
+        log.warn("Auth-service refused a log batch, saved to {}", file);
+        return true;
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            long size = 0;
+            for (Path file : (Iterable<Path>) files::iterator) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "remoteLogSpool";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", isEnabled());
+        metrics.put("spooled", spooled.sum());
+        metrics.put("notSpooled", notSpooled.sum());
+        metrics.put("shipped", shipped.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("deadLetterFull", deadLetterFull.sum());
+        metrics.put("deadLetterBytes", deadLetterBytes);
+        metrics.put("retries", retries.sum());
+        metrics.put("logins", logins.sum());
+        metrics.put("loginFailures", loginFailures.sum());
+        if (spool != null) {
+            metrics.putAll(spool.getMetrics());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,90 @@
+package com.template.business.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the breaker opens and
+ * {@link #allowRequest()} returns false for {@code openMs}. After that a single trial
+ * request is let through (half-open): its success closes the breaker, its failure opens it
+ * again for another {@code openMs}.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    /**
+     * @param failureThreshold consecutive failures that open the breaker
+     * @param openMs how long the breaker stays open before a trial request
+     */
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * @return true if a request may be sent now; false means fail fast
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openMs
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return true; // The trial request
+        }
+        shortCircuited.increment();
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            if (state.compareAndSet(current, State.OPEN)) {
+                openedAt = System.currentTimeMillis();
+                opened.increment();
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("state", state.get().name());
+        metrics.put("consecutiveFailures", consecutiveFailures.get());
+        metrics.put("opened", opened.sum());
+        metrics.put("shortCircuited", shortCircuited.sum());
+        return metrics;
+    }
+}
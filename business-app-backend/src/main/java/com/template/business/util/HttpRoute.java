@@ -0,0 +1,270 @@
+package com.template.business.util;
+
+import com.template.business.exception.ErrorCode;
+import com.template.business.exception.ExternalServiceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulkhead, circuit breaker, request compression and metrics for one group of outgoing calls.
+ * <p>
+ * Each route limits how many requests may be in flight at once (waiting up to
+ * {@code bulkheadWaitMs} for a slot), so one kind of traffic cannot use up the connections
+ * another kind needs. Connection failures and 5xx responses feed a {@link CircuitBreaker};
+ * while it is open, requests fail immediately with {@link ExternalServiceException} instead
+ * of waiting for timeouts. Request bodies of at least {@code gzipMinBytes} are sent with
+ * {@code Content-Encoding: gzip}.
+ * </p>
+ * <p>
+ * A 400 or 415 answer to a compressed body is taken to mean the peer does not accept gzip
+ * (an auth-service with {@code request.gzip.enabled=false}, or a proxy in between), not that
+ * the request is wrong: the request is sent again uncompressed, and the route stops
+ * compressing until the application restarts.
+ * </p>
+ * <p>
+ * A 429, or a 503 with {@code Retry-After}, means auth-service is up but shedding load, so
+ * it does not count as a breaker failure. Instead the route fails fast until the requested
+ * delay has passed.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+public final class HttpRoute implements ClientHttpRequestInterceptor, MetricsSource {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMs;
+    private final CircuitBreaker circuitBreaker;
+    private final int gzipMinBytes;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder bodyBytes = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    private final LongAdder gzipRefused = new LongAdder();
+
+    private volatile long retryAfterUntil; // Epoch ms before which auth-service asked not to be called
+    private volatile boolean gzipDisabled; // The peer refused a compressed body
+
+    /**
+     * @param name the metrics name of the route
+     * @param maxConcurrent max requests in flight (including reading the response)
+     * @param bulkheadWaitMs how long a request waits for a free slot before it is rejected
+     * @param circuitBreaker the route's circuit breaker
+     * @param gzipMinBytes smallest request body that is compressed (negative: never)
+     */
+    public HttpRoute(String name, int maxConcurrent, long bulkheadWaitMs, CircuitBreaker circuitBreaker, int gzipMinBytes) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.circuitBreaker = circuitBreaker;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                bulkheadRejected.increment();
+                throw new ExternalServiceException(ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE,
+                        "Too many concurrent requests to auth-service (" + name + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException(ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE,
+                    "Interrupted while waiting for a connection to auth-service", e);
+        }
+
+        boolean released = false;
+        try {
+            if (System.currentTimeMillis() < retryAfterUntil) {
+                throttled.increment();
+                throw new ExternalServiceException(ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE,
+                        "Auth-service asked to retry later (" + name + ")");
+            }
+            if (!circuitBreaker.allowRequest()) {
+                throw new ExternalServiceException(ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE,
+                        "Auth-service is unavailable (" + name + " circuit open)");
+            }
+            requests.increment();
+            bodyBytes.add(body.length);
+            boolean gzipped = false;
+            if (gzipMinBytes >= 0 && !gzipDisabled && body.length >= gzipMinBytes
+                    && !request.getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+                gzipped = true;
+                request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                compressed.increment();
+            }
+
+            ClientHttpResponse response = execute(request, gzipped ? gzip(body) : body, execution);
+            if (gzipped && refusesGzip(response.getStatusCode())) {
+                // Not accepted compressed: send the same request plain, and stop compressing
+                response.close();
+                gzipRefused.increment();
+                gzipDisabled = true;
+                request.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+                response = execute(request, body, execution);
+            }
+            long retryAfterMs = retryAfterMs(response);
+            if (retryAfterMs >= 0) {
+                // Overloaded, not down: back off as asked without opening the breaker
+                retryAfterUntil = Math.max(retryAfterUntil, System.currentTimeMillis() + retryAfterMs);
+                circuitBreaker.onSuccess();
+            } else if (response.getStatusCode().is5xxServerError()) {
+                failures.increment();
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            // The slot is held until the response has been read and closed
+            released = true;
+            return new ReleasingResponse(response);
+        } finally {
+            if (!released) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private ClientHttpResponse execute(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        sentBytes.add(body.length);
+        long start = System.nanoTime();
+        try {
+            return execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            circuitBreaker.onFailure();
+            throw e;
+        } finally {
+            latencyNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean refusesGzip(HttpStatusCode status) {
+        return status.value() == HttpStatus.BAD_REQUEST.value()
+                || status.value() == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return name;
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long count = requests.sum();
+        metrics.put("requests", count);
+        metrics.put("failures", failures.sum());
+        metrics.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+        metrics.put("maxConcurrent", maxConcurrent);
+        metrics.put("bulkheadRejected", bulkheadRejected.sum());
+        metrics.put("throttled", throttled.sum());
+        metrics.put("avgLatencyMs", count > 0 ? latencyNanos.sum() / count / 1_000_000 : 0);
+        metrics.put("compressed", compressed.sum());
+        metrics.put("gzipRefused", gzipRefused.sum());
+        metrics.put("gzipDisabled", gzipDisabled);
+        metrics.put("bodyBytes", bodyBytes.sum());
+        metrics.put("sentBytes", sentBytes.sum());
+        metrics.put("circuitBreaker", circuitBreaker.getMetrics());
+        return metrics;
+    }
+
+    /**
+     * The delay asked for by a 429 or by a 503 with Retry-After, or -1 for any other response.
+     * A 429 without a usable Retry-After gets no delay.
+     */
+    private static long retryAfterMs(ClientHttpResponse response) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        boolean tooManyRequests = status.value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        if (!tooManyRequests && status.value() != HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            return -1;
+        }
+        String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                // HTTP-date form is not used by auth-service
+            }
+        }
+        return tooManyRequests ? 0 : -1;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Releases the bulkhead slot once the response is closed.
+     */
+    private final class ReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ReleasingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.template.business.util;
+
+import com.template.business.dto.PageResponse;
+import com.template.business.dto.SearchRequest;
+import com.template.business.exception.CustomValidationException;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Id;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination for search endpoints ({@link SearchRequest#isKeyset()}).
+ *
+ * <p>Instead of {@code OFFSET n}, each page continues after the last row of the previous one:
+ * <pre>
+ *   WHERE sort &lt;= :sort AND (sort &lt; :sort OR (sort = :sort AND id &lt; :id))
+ *   ORDER BY sort DESC, id DESC
+ * </pre>
+ * so with an index on {@code (sort, id)} the database seeks to the cursor, walks the index in
+ * order and stops after one page: page 10,000 costs the same as page 1. The entity ID is
+ * always appended to the sort as tie-breaker. The leading {@code sort <= :sort} bound is
+ * redundant but gives the optimizer an index range to start from.
+ *
+ * <p>NULL sort values keep the database's default placement (Oracle and PostgreSQL order
+ * NULL above every value: last when ascending, first when descending), so the ORDER BY
+ * matches an ascending B-tree index read in either direction, and the leading sort key
+ * always gets a plain range without an {@code OR ... IS NULL} that would stop the index from
+ * being used. For an ascending sort on a nullable leading column, the NULL rows that follow
+ * the last non-NULL value are read by a second {@code IS NULL} query once the range is
+ * exhausted. Nullability comes from the mapping: {@code @Id}, primitives and
+ * {@code @Column(nullable = false)} cannot be NULL.
+ *
+ * <p>The position is returned to the client as an opaque cursor ({@link PageResponse#getNextCursor()})
+ * and sent back as {@link SearchRequest#getAfter()}. Cursor values are converted back to the
+ * attribute types from the JPA metamodel. No count query runs in this mode, so
+ * {@code totalElements} and {@code totalPages} are -1.
+ */
+public final class KeysetPagination {
+
+    private static final String CURSOR_VERSION = "k1";
+    private static final String NULL_VALUE = "~";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Run one keyset page of a search.
+     *
+     * @param repository the repository to query
+     * @param domainClass the entity class (its mapping tells which sort columns can be NULL)
+     * @param spec the filter specification
+     * @param sort the requested sort (the ID is appended as tie-breaker)
+     * @param idAttribute the entity ID attribute
+     * @param request the search request (page size and {@code after} cursor)
+     * @param mapper converts entities to DTOs
+     * @return the page, with a cursor for the next one if there is more
+     */
+    public static <T, R> PageResponse<R> search(JpaSpecificationExecutor<T> repository, Class<T> domainClass,
+                                                Specification<T> spec, Sort sort, String idAttribute,
+                                                SearchRequest request, Function<T, R> mapper) {
+        int pageSize = Math.max(1, request.getPageSize());
+        List<Sort.Order> orders = withTieBreaker(sort, idAttribute);
+        boolean first = request.getAfter() == null || request.getAfter().isEmpty();
+        String[] after = first ? null : decode(request.getAfter(), orders.size());
+
+        // One extra row tells whether there is a next page
+        List<T> rows = new ArrayList<>(repository.findBy(seek(spec, orders, after, domainClass),
+                query -> query.limit(pageSize + 1).all()));
+
+        Sort.Order leading = orders.get(0);
+        if (rows.size() <= pageSize && after != null && after[0] != null
+                && leading.isAscending() && isNullable(domainClass, leading.getProperty())) {
+            // Non-NULL values are exhausted; continue with the NULLs ordered last
+            int remaining = pageSize + 1 - rows.size();
+            rows.addAll(repository.findBy(nullTail(spec, orders),
+                    query -> query.limit(remaining).all()));
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<T> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<R> content = pageRows.stream().map(mapper).toList();
+
+        return PageResponse.<R>builder()
+                .content(content)
+                .pageNumber(-1)
+                .pageSize(pageSize)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(first)
+                .last(!hasMore)
+                .empty(content.isEmpty())
+                .nextCursor(hasMore ? encode(pageRows.get(pageRows.size() - 1), orders) : null)
+                .build();
+    }
+
+    private static List<Sort.Order> withTieBreaker(Sort sort, String idAttribute) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction lastDirection = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (order.getProperty().equals(idAttribute)) {
+                orders.add(order);
+                return orders; // Already unique
+            }
+            orders.add(order);
+            lastDirection = order.getDirection();
+        }
+        orders.add(new Sort.Order(lastDirection, idAttribute));
+        return orders;
+    }
+
+    /**
+     * Filter specification plus ordering and the seek condition for the given cursor.
+     */
+    private static <T> Specification<T> seek(Specification<T> spec, List<Sort.Order> orders, String[] after,
+                                             Class<T> domainClass) {
+        Specification<T> ordered = (root, query, cb) -> {
+            query.orderBy(orderBy(root, cb, orders));
+            return after != null ? afterPredicate(root, cb, orders, after, domainClass) : null;
+        };
+        return spec.and(ordered);
+    }
+
+    /**
+     * Filter specification plus ordering, restricted to rows whose leading sort key is NULL.
+     */
+    private static <T> Specification<T> nullTail(Specification<T> spec, List<Sort.Order> orders) {
+        Specification<T> ordered = (root, query, cb) -> {
+            query.orderBy(orderBy(root, cb, orders));
+            return cb.isNull(path(root, orders.get(0).getProperty()));
+        };
+        return spec.and(ordered);
+    }
+
+    private static List<Order> orderBy(Root<?> root, CriteriaBuilder cb, List<Sort.Order> orders) {
+        List<Order> jpaOrders = new ArrayList<>();
+        for (Sort.Order order : orders) {
+            Expression<?> path = path(root, order.getProperty());
+            jpaOrders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        return jpaOrders;
+    }
+
+    /**
+     * k1 &gt;= v1 AND ((k1 &gt; v1) OR (k1 = v1 AND k2 &gt; v2) OR ...), with NULLs in the
+     * database's default position (after all values ascending, before them descending).
+     * NULLs after a non-NULL leading key are left to {@link #nullTail}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate afterPredicate(Root<?> root, CriteriaBuilder cb, List<Sort.Order> orders, String[] values,
+                                            Class<?> domainClass) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        Predicate leadingBound = null;
+
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            Path path = path(root, order.getProperty());
+            Comparable value = (Comparable) parse(values[i], path.getJavaType());
+            boolean nullsAfter = i > 0 && order.isAscending() && isNullable(domainClass, order.getProperty());
+
+            if (value == null) {
+                if (!order.isAscending()) {
+                    // NULLs come first descending: every non-NULL value follows
+                    List<Predicate> alternative = new ArrayList<>(equalPrefix);
+                    alternative.add(cb.isNotNull(path));
+                    alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+                }
+                equalPrefix.add(cb.isNull(path));
+                continue;
+            }
+
+            Predicate beyond = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            if (nullsAfter) {
+                beyond = cb.or(beyond, cb.isNull(path));
+            } else if (i == 0) {
+                leadingBound = order.isAscending()
+                        ? cb.greaterThanOrEqualTo(path, value)
+                        : cb.lessThanOrEqualTo(path, value);
+            }
+            List<Predicate> alternative = new ArrayList<>(equalPrefix);
+            alternative.add(beyond);
+            alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+            equalPrefix.add(cb.equal(path, value));
+        }
+
+        Predicate after = cb.or(alternatives.toArray(new Predicate[0]));
+        return leadingBound != null ? cb.and(leadingBound, after) : after;
+    }
+
+    /**
+     * Whether a sort attribute can hold NULL, judged from its mapping: IDs, primitives and
+     * {@code @Column(nullable = false)} cannot.
+     */
+    private static boolean isNullable(Class<?> domainClass, String property) {
+        Class<?> type = domainClass;
+        String[] segments = property.split("\\.");
+        for (int i = 0; i < segments.length; i++) {
+            Field field = ReflectionUtils.findField(type, segments[i]);
+            if (field == null) {
+                return true;
+            }
+            if (field.getType().isPrimitive() || field.isAnnotationPresent(Id.class)
+                    || field.isAnnotationPresent(EmbeddedId.class)) {
+                return false;
+            }
+            Column column = field.getAnnotation(Column.class);
+            if (i == segments.length - 1) {
+                return column == null || column.nullable();
+            }
+            type = field.getType();
+        }
+        return true;
+    }
+
+    private static Path<?> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\.")) {
+            path = path.get(segment);
+        }
+        return path;
+    }
+
+    private static String encode(Object row, List<Sort.Order> orders) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(row);
+        StringBuilder cursor = new StringBuilder(CURSOR_VERSION);
+        for (Sort.Order order : orders) {
+            cursor.append('.').append(format(wrapper.getPropertyValue(order.getProperty())));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, int keys) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.", -1);
+            if (parts.length != keys + 1 || !CURSOR_VERSION.equals(parts[0])) {
+                throw new CustomValidationException("Invalid pagination cursor");
+            }
+            String[] values = new String[keys];
+            for (int i = 0; i < keys; i++) {
+                values[i] = NULL_VALUE.equals(parts[i + 1])
+                        ? null
+                        : new String(Base64.getUrlDecoder().decode(parts[i + 1]), StandardCharsets.UTF_8);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            // Cursor is not valid base64, e.g. truncated or edited by the client
+            throw new CustomValidationException("Invalid pagination cursor");
+        }
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        String text;
+        if (value instanceof Timestamp timestamp) {
+            // Keep sub-millisecond precision, otherwise rows could be skipped
+            text = timestamp.getTime() + ":" + timestamp.getNanos();
+        } else if (value instanceof Date date) {
+            text = Long.toString(date.getTime());
+        } else if (value instanceof Enum<?> constant) {
+            text = constant.name();
+        } else {
+            text = value.toString();
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(String text, Class<?> type) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return text;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(text);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(text);
+            }
+            if (type == Short.class || type == short.class) {
+                return Short.valueOf(text);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(text);
+            }
+            if (type == BigInteger.class) {
+                return new BigInteger(text);
+            }
+            if (type == Double.class || type == double.class) {
+                return Double.valueOf(text);
+            }
+            if (type == Float.class || type == float.class) {
+                return Float.valueOf(text);
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return Boolean.valueOf(text);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(text);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(text);
+            }
+            if (Date.class.isAssignableFrom(type)) {
+                int separator = text.indexOf(':');
+                if (separator < 0) {
+                    return new Timestamp(Long.parseLong(text));
+                }
+                Timestamp timestamp = new Timestamp(Long.parseLong(text.substring(0, separator)));
+                timestamp.setNanos(Integer.parseInt(text.substring(separator + 1)));
+                return timestamp;
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, text);
+            }
+        } catch (RuntimeException e) {
+            throw new CustomValidationException("Invalid pagination cursor");
+        }
+        throw new CustomValidationException("Keyset pagination is not supported for sort type " + type.getSimpleName());
+    }
+}
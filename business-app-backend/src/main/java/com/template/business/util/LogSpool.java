@@ -0,0 +1,457 @@
+package com.template.business.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented record spool on local disk.
+ * <p>
+ * Records are appended to fixed-size, memory-mapped segment files
+ * ({@code segment-<number>.spool}). Each record is stored as {@code [length][crc32][payload]};
+ * a length of -1 marks the end of a segment. A single reader reads records from the last
+ * acknowledged position and acknowledges them once they have been processed: the position is
+ * saved to a {@code checkpoint} file (replaced atomically) and fully acknowledged segments are
+ * deleted. After a restart, reading resumes at the checkpoint and appending resumes after the
+ * last record with a valid CRC.
+ * </p>
+ * <p>
+ * Appended records survive a process crash (they are in the OS page cache as soon as
+ * {@link #append(byte[])} returns) and are forced to disk when a segment is full and on
+ * {@link #close()}. The total size of the segment files is capped; when the cap is reached
+ * appends are refused until the reader catches up.
+ * </p>
+ * <p>
+ * On POSIX file systems the directory and the segment files are only accessible to the
+ * owner of the process.
+ * </p>
+ * <p>
+ * Positions are {@code segment << 32 | offset}, so they compare in spool order.
+ * {@link #append(byte[])} is thread-safe; {@link #read}, {@link #acknowledge} must be called
+ * from a single reader thread.
+ * </p>
+ *
+ * @author Template Business
+ * @version 1.0
+ */
+@Slf4j
+public final class LogSpool implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+    private static final Set<StandardOpenOption> SEGMENT_OPEN_OPTIONS =
+            Set.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxBytes;
+
+    // Writer state, guarded by writeLock (not synchronized: rolling a segment creates and maps
+    // a file, which would pin the carrier of a virtual thread for the duration)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private long writeSegment;
+    private int writeOffset;
+    private MappedByteBuffer writeBuffer;
+    private volatile long writePosition;
+
+    // Reader state
+    private volatile long checkpoint;
+    private volatile long oldestSegment;
+    private long readSegment = -1;
+    private MappedByteBuffer readBuffer;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder rejectedTooLarge = new LongAdder();
+    private final LongAdder corruptSegments = new LongAdder();
+
+    private LogSpool(Path directory, int segmentSize, long maxBytes) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Open (or create) a spool directory and recover its read and write positions
+     *
+     * @param directory the spool directory
+     * @param segmentSize size of each segment file in bytes
+     * @param maxBytes cap on the total size of the segment files
+     */
+    public static LogSpool open(Path directory, int segmentSize, long maxBytes) throws IOException {
+        LogSpool spool = new LogSpool(directory, segmentSize, maxBytes);
+        spool.recover();
+        return spool;
+    }
+
+    /**
+     * Append a record
+     *
+     * @param payload the record bytes
+     * @return false if the record is larger than a segment or the spool is full
+     */
+    public boolean append(byte[] payload) throws IOException {
+        writeLock.lock();
+        try {
+            int needed = HEADER_BYTES + payload.length;
+            if (needed > segmentSize) {
+                rejectedTooLarge.increment();
+                return false;
+            }
+            if (writeOffset + needed > segmentSize && !roll()) {
+                rejectedFull.increment();
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            writeBuffer.putInt(writeOffset + 4, (int) crc.getValue());
+            writeBuffer.put(writeOffset + HEADER_BYTES, payload);
+            // Length last: a record is only complete once its length is set
+            writeBuffer.putInt(writeOffset, payload.length);
+            writeOffset += needed;
+            writePosition = position(writeSegment, writeOffset);
+            appended.increment();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Read up to {@code maxRecords} records starting at a position
+     *
+     * @param from position to start at, normally {@link #getCheckpoint()}
+     * @return the records in spool order (empty if there is nothing after the position)
+     */
+    public List<Record> read(long from, int maxRecords) throws IOException {
+        List<Record> records = new ArrayList<>();
+        long position = from;
+        while (records.size() < maxRecords) {
+            long limit = writePosition;
+            if (position >= limit) {
+                break;
+            }
+            long segment = segmentOf(position);
+            int offset = offsetOf(position);
+            ByteBuffer buffer = readBuffer(segment);
+            if (buffer == null || offset + HEADER_BYTES > segmentSize) {
+                position = position(segment + 1, 0);
+                continue;
+            }
+            int length = buffer.getInt(offset);
+            if (length == END_OF_SEGMENT || (length == 0 && segment < segmentOf(limit))) {
+                position = position(segment + 1, 0);
+                continue;
+            }
+            byte[] payload = length > 0 && offset + HEADER_BYTES + length <= segmentSize ? new byte[length] : null;
+            if (payload != null) {
+                buffer.get(offset + HEADER_BYTES, payload);
+            }
+            if (payload == null || crc(payload) != buffer.getInt(offset + 4)) {
+                // Damaged on disk: the rest of the segment cannot be framed, skip it
+                corruptSegments.increment();
+                log.warn("Corrupt record in spool segment {} at offset {}, skipping the rest of the segment", segment, offset);
+                position = position(segment + 1, 0);
+                continue;
+            }
+            position = position(segment, offset + HEADER_BYTES + length);
+            records.add(new Record(payload, position));
+        }
+        return records;
+    }
+
+    /**
+     * Mark everything before a position as processed: saves the checkpoint and deletes
+     * the segments that are no longer needed
+     *
+     * @param position the {@link Record#getNext()} of the last processed record
+     */
+    public void acknowledge(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer content = ByteBuffer.allocate(12).putLong(position).putInt(crc(longBytes(position)));
+        Files.write(temp, content.array());
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = position;
+
+        long keep = segmentOf(position);
+        while (oldestSegment < keep) {
+            if (oldestSegment == readSegment) {
+                readSegment = -1;
+                readBuffer = null;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(oldestSegment));
+            } catch (IOException e) {
+                // Still mapped on some platforms, retried on the next acknowledge
+                log.debug("Could not delete spool segment {}: {}", oldestSegment, e.getMessage());
+                break;
+            }
+            oldestSegment++;
+        }
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * @return true if records were appended after the checkpoint
+     */
+    public boolean hasUnread() {
+        return checkpoint < writePosition;
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (writeBuffer != null) {
+                writeBuffer.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Segment counts, positions and append counters
+     */
+    public Map<String, Object> getMetrics() {
+        long current = writePosition;
+        long segments = segmentOf(current) - oldestSegment + 1;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("directory", directory.toString());
+        metrics.put("segments", segments);
+        metrics.put("usedBytes", segments * segmentSize);
+        metrics.put("maxBytes", maxBytes);
+        metrics.put("writeSegment", segmentOf(current));
+        metrics.put("writeOffset", offsetOf(current));
+        metrics.put("checkpointSegment", segmentOf(checkpoint));
+        metrics.put("checkpointOffset", offsetOf(checkpoint));
+        metrics.put("appended", appended.sum());
+        metrics.put("rejectedFull", rejectedFull.sum());
+        metrics.put("rejectedTooLarge", rejectedTooLarge.sum());
+        metrics.put("corruptSegments", corruptSegments.sum());
+        return metrics;
+    }
+
+    private void recover() throws IOException {
+        createOwnerOnlyDirectory();
+        List<Long> segments = listSegments();
+        writeSegment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        oldestSegment = segments.isEmpty() ? writeSegment : segments.get(0);
+        writeBuffer = map(writeSegment);
+
+        // Append after the last complete record of the newest segment
+        int offset = 0;
+        boolean clean = true;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = writeBuffer.getInt(offset);
+            if (length == 0 || length == END_OF_SEGMENT) {
+                break;
+            }
+            if (length < 0 || offset + HEADER_BYTES + length > segmentSize) {
+                clean = false;
+                break;
+            }
+            byte[] payload = new byte[length];
+            writeBuffer.get(offset + HEADER_BYTES, payload);
+            if (crc(payload) != writeBuffer.getInt(offset + 4)) {
+                clean = false;
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        if (!clean) {
+            // Torn write from a crash: clear it so it is not mistaken for a record later
+            log.warn("Discarding incomplete record at the end of spool segment {} (offset {})", writeSegment, offset);
+            for (int i = offset; i < segmentSize; i++) {
+                writeBuffer.put(i, (byte) 0);
+            }
+        }
+        writeOffset = offset;
+        writePosition = position(writeSegment, writeOffset);
+        if (offset + HEADER_BYTES <= segmentSize && writeBuffer.getInt(offset) == END_OF_SEGMENT) {
+            writeBuffer = map(++writeSegment);
+            writeOffset = 0;
+            writePosition = position(writeSegment, 0);
+        }
+
+        checkpoint = Math.min(Math.max(readCheckpoint(), position(oldestSegment, 0)), writePosition);
+        acknowledge(checkpoint);
+        log.info("Log spool opened at {}: {} segment(s), checkpoint {}:{}, write position {}:{}",
+                directory, writeSegment - oldestSegment + 1, segmentOf(checkpoint), offsetOf(checkpoint),
+                writeSegment, writeOffset);
+    }
+
+    /**
+     * Start a new segment, unless that would exceed the size cap
+     */
+    private boolean roll() throws IOException {
+        if ((writeSegment + 2 - oldestSegment) * segmentSize > maxBytes) {
+            return false;
+        }
+        if (writeOffset + 4 <= segmentSize) {
+            writeBuffer.putInt(writeOffset, END_OF_SEGMENT);
+        }
+        writeBuffer.force();
+        writeBuffer = map(writeSegment + 1);
+        writeSegment++;
+        writeOffset = 0;
+        writePosition = position(writeSegment, 0);
+        return true;
+    }
+
+    private ByteBuffer readBuffer(long segment) throws IOException {
+        if (segment != readSegment) {
+            readBuffer = null;
+            readSegment = -1;
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                readBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+                readSegment = segment;
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+        return readBuffer;
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        FileAttribute<?>[] attributes = isPosix()
+                ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE)}
+                : new FileAttribute<?>[0];
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), SEGMENT_OPEN_OPTIONS, attributes)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    /**
+     * Create the spool directory accessible to the owner only, and restrict an existing one
+     */
+    private void createOwnerOnlyDirectory() throws IOException {
+        if (!isPosix()) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (Files.isDirectory(directory)) {
+            Files.setPosixFilePermissions(directory, OWNER_ONLY_DIRECTORY);
+            return;
+        }
+        Path parent = directory.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+        // The umask may have removed owner bits from the requested permissions
+        Files.setPosixFilePermissions(directory, OWNER_ONLY_DIRECTORY);
+    }
+
+    private boolean isPosix() {
+        return directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private long readCheckpoint() {
+        try {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(CHECKPOINT_FILE)));
+            if (content.remaining() == 12) {
+                long position = content.getLong();
+                if (crc(longBytes(position)) == content.getInt()) {
+                    return position;
+                }
+            }
+            log.warn("Invalid spool checkpoint in {}, reading from the oldest segment", directory);
+        } catch (NoSuchFileException e) {
+            // New spool
+        } catch (IOException e) {
+            log.warn("Could not read spool checkpoint in {}: {}", directory, e.getMessage());
+        }
+        return 0;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static long position(long segment, int offset) {
+        return segment << 32 | offset;
+    }
+
+    private static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(8).putLong(value).array();
+    }
+
+    /**
+     * A record read from the spool and the position just after it.
+     */
+    public static final class Record {
+        private final byte[] payload;
+        private final long next;
+
+        private Record(byte[] payload, long next) {
+            this.payload = payload;
+            this.next = next;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        /**
+         * @return the position to {@link #acknowledge(long)} once this record is processed
+         */
+        public long getNext() {
+            return next;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.template.business.util;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free buffer for log records with a priority lane and a normal lane.
+ * <p>
+ * Each lane is a preallocated ring of slots. Producers claim a slot with a CAS on the tail
+ * position and are then the only writer of that slot; a per-slot sequence number publishes
+ * the record to consumers (and the free slot back to producers). Offering never takes a
+ * lock, so logging cannot stall a request thread beyond the configured overflow wait.
+ * </p>
+ * <p>
+ * Consumers always drain the priority lane first, and the lanes have separate capacities,
+ * so ERROR and notifiable records are never dropped or delayed because of a burst of
+ * INFO/SUCCESS records. When a lane is full the {@link Overflow} policy applies:
+ * <ul>
+ *   <li>{@code DROP_NEWEST}: the new record is dropped</li>
+ *   <li>{@code DROP_OLDEST}: the oldest record of the lane is discarded to make room</li>
+ *   <li>{@code BLOCK}: the producer waits up to the block time for room, then drops the new record</li>
+ * </ul>
+ * </p>
+ *
+ * @param <E> the record type
+ * @author Template Business
+ * @version 1.0
+ */
+public final class PriorityLogBuffer<E> {
+
+    /**
+     * What to do when a lane is full.
+     */
+    public enum Overflow {
+        DROP_NEWEST, DROP_OLDEST, BLOCK;
+
+        /**
+         * Parse a property value such as {@code drop-oldest}
+         */
+        public static Overflow parse(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private static final int DROP_OLDEST_ATTEMPTS = 3;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Lane<E> priorityLane;
+    private final Lane<E> normalLane;
+    private final Overflow overflow;
+    private final long blockNanos;
+    private final Consumer<E> onDiscard;
+
+    private final ConcurrentLinkedQueue<Thread> waitingConsumers = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder droppedNewest = new LongAdder();
+    private final LongAdder droppedOldest = new LongAdder();
+    private final LongAdder droppedPriority = new LongAdder();
+    private final LongAdder blockedOffers = new LongAdder();
+
+    /**
+     * @param priorityCapacity slots of the priority lane (rounded up to a power of two)
+     * @param normalCapacity slots of the normal lane (rounded up to a power of two)
+     * @param overflow the default overflow policy
+     * @param blockMs how long {@link Overflow#BLOCK} waits for room
+     * @param onDiscard called with records discarded by {@link Overflow#DROP_OLDEST} (may be null)
+     */
+    public PriorityLogBuffer(int priorityCapacity, int normalCapacity, Overflow overflow, long blockMs,
+                             Consumer<E> onDiscard) {
+        this.priorityLane = new Lane<>(priorityCapacity);
+        this.normalLane = new Lane<>(normalCapacity);
+        this.overflow = overflow;
+        this.blockNanos = TimeUnit.MILLISECONDS.toNanos(blockMs);
+        this.onDiscard = onDiscard;
+    }
+
+    /**
+     * Add a record using the default overflow policy
+     *
+     * @param record the record
+     * @param priority true for the priority lane
+     * @return true if the record was added
+     */
+    public boolean offer(E record, boolean priority) {
+        return offer(record, priority, overflow, blockNanos);
+    }
+
+    /**
+     * Add a record using the given overflow policy
+     *
+     * @param record the record
+     * @param priority true for the priority lane
+     * @param policy what to do if the lane is full
+     * @param blockNanos how long {@link Overflow#BLOCK} waits for room
+     * @return true if the record was added
+     */
+    public boolean offer(E record, boolean priority, Overflow policy, long blockNanos) {
+        Lane<E> lane = priority ? priorityLane : normalLane;
+        offered.increment();
+        if (lane.offer(record)) {
+            signalConsumer();
+            return true;
+        }
+
+        if (policy == Overflow.DROP_OLDEST) {
+            for (int attempt = 0; attempt < DROP_OLDEST_ATTEMPTS; attempt++) {
+                E oldest = lane.poll();
+                if (oldest != null) {
+                    droppedOldest.increment();
+                    if (priority) {
+                        droppedPriority.increment();
+                    }
+                    if (onDiscard != null) {
+                        onDiscard.accept(oldest);
+                    }
+                }
+                if (lane.offer(record)) {
+                    signalConsumer();
+                    return true;
+                }
+            }
+        } else if (policy == Overflow.BLOCK && blockNanos > 0) {
+            blockedOffers.increment();
+            signalConsumer();
+            long deadline = System.nanoTime() + blockNanos;
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                if (lane.offer(record)) {
+                    signalConsumer();
+                    return true;
+                }
+            }
+        }
+
+        droppedNewest.increment();
+        if (priority) {
+            droppedPriority.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Take the next record, priority lane first
+     *
+     * @return the record, or null if both lanes are empty
+     */
+    public E poll() {
+        E record = priorityLane.poll();
+        return record != null ? record : normalLane.poll();
+    }
+
+    /**
+     * Move up to {@code max} records into the target, priority lane first
+     *
+     * @return the number of records moved
+     */
+    public int drainTo(Collection<? super E> target, int max) {
+        int drained = 0;
+        E record;
+        while (drained < max && (record = poll()) != null) {
+            target.add(record);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Wait until a record is available (consumers only)
+     *
+     * @return true if a record is available, false on timeout
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!isEmpty()) {
+            return true;
+        }
+        Thread current = Thread.currentThread();
+        waitingConsumers.add(current);
+        try {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            // Re-checked after registering, so a record offered in between is not missed
+            while (isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return true;
+        } finally {
+            waitingConsumers.remove(current);
+        }
+    }
+
+    public boolean isEmpty() {
+        return priorityLane.size() == 0 && normalLane.size() == 0;
+    }
+
+    public int size() {
+        return priorityLane.size() + normalLane.size();
+    }
+
+    /**
+     * Lane sizes, capacities and overflow counters
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("overflow", overflow.name());
+        metrics.put("priorityDepth", priorityLane.size());
+        metrics.put("priorityCapacity", priorityLane.capacity());
+        metrics.put("normalDepth", normalLane.size());
+        metrics.put("normalCapacity", normalLane.capacity());
+        metrics.put("offered", offered.sum());
+        metrics.put("droppedNewest", droppedNewest.sum());
+        metrics.put("droppedOldest", droppedOldest.sum());
+        metrics.put("droppedPriority", droppedPriority.sum());
+        metrics.put("blockedOffers", blockedOffers.sum());
+        return metrics;
+    }
+
+    private void signalConsumer() {
+        Thread waiting = waitingConsumers.peek();
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    /**
+     * Bounded multi-producer/multi-consumer ring. A slot's sequence equals its position when it
+     * is free for that position, and position + 1 once the record has been published.
+     */
+    private static final class Lane<E> {
+        private final int mask;
+        private final Object[] slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        private Lane(int capacity) {
+            int size = 2;
+            while (size < capacity) {
+                size <<= 1;
+            }
+            mask = size - 1;
+            slots = new Object[size];
+            sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        private boolean offer(E record) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) position & mask;
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        // Slot is exclusively ours until the sequence store publishes it
+                        slots[index] = record;
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    return false; // Full: the slot still holds a record from the previous lap
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private E poll() {
+            long position = head.get();
+            while (true) {
+                int index = (int) position & mask;
+                long difference = sequences.get(index) - (position + 1);
+                if (difference == 0) {
+                    if (head.compareAndSet(position, position + 1)) {
+                        E record = (E) slots[index];
+                        slots[index] = null;
+                        sequences.set(index, position + mask + 1);
+                        return record;
+                    }
+                    position = head.get();
+                } else if (difference < 0) {
+                    return null; // Empty
+                } else {
+                    position = head.get();
+                }
+            }
+        }
+
+        private int size() {
+            long size = tail.get() - head.get();
+            return (int) Math.max(0, Math.min(size, slots.length));
+        }
+
+        private int capacity() {
+            return slots.length;
+        }
+    }
+}
@@ -176,6 +176,16 @@
   BUFFER_POOL DEFAULT FLASH_CACHE DEFAULT CELL_FLASH_CACHE DEFAULT)
   TABLESPACE "TBS_UTIL_APP" ;
 --------------------------------------------------------
+--  DDL for Index IDX_T_APP_LOG_START_TIME
+--------------------------------------------------------
+
+  CREATE INDEX "AP_LOG"."IDX_T_APP_LOG_START_TIME" ON "AP_LOG"."T_APP_LOG" ("START_TIME", "ID") 
+  PCTFREE 10 INITRANS 2 MAXTRANS 255 COMPUTE STATISTICS 
+  STORAGE(INITIAL 65536 NEXT 1048576 MINEXTENTS 1 MAXEXTENTS 2147483645
+  PCTINCREASE 0 FREELISTS 1 FREELIST GROUPS 1
+  BUFFER_POOL DEFAULT FLASH_CACHE DEFAULT CELL_FLASH_CACHE DEFAULT)
+  TABLESPACE "TBS_UTIL_APP" ;
+--------------------------------------------------------
 --  DDL for Index T_LOG_PK
 --------------------------------------------------------
 
@@ -263,7 +273,7 @@
 BEFORE INSERT ON T_APP_LOG 
 FOR EACH ROW 
 BEGIN
-    IF INSERTING THEN
+    IF INSERTING AND :NEW.ID IS NULL THEN
       SELECT T_APP_LOG_SEQ01.NEXTVAL INTO :NEW.ID FROM SYS.DUAL;
     END IF;
 END;
@@ -292,7 +302,7 @@ ALTER TRIGGER "AP_LOG"."T_LOG_BIFER" ENABLE;
 BEFORE INSERT ON T_APP_LOG 
 FOR EACH ROW 
 BEGIN
-    IF INSERTING THEN
+    IF INSERTING AND :NEW.ID IS NULL THEN
       SELECT T_APP_LOG_SEQ01.NEXTVAL INTO :NEW.ID FROM SYS.DUAL;
     END IF;
 END;
@@ -16,7 +16,8 @@
 --   Sequences : D_ENTITIES_SEQ01, D_REFRESH_TOKENS_SEQ, T_MAILING_SEQ
 --   Tables    : D_USER_STATUS, D_ENTITY_TYPES, D_MAILING_LISTS, D_USERS,
 --               D_ENTITIES, D_ROLES, D_ENTITY_ATTRIBUTES, D_USER_ROLES,
---               D_MAILING_LIST_USERS, D_REFRESH_TOKENS, T_MAILING
+--               D_MAILING_LIST_USERS, D_REFRESH_TOKENS, T_MAILING,
+--               D_SCHEDULER_LOCKS
 --   Indexes   : Primary keys, unique constraints, performance indexes
 --   Triggers  : D_ENTITIES_BIFER, TRG_D_REFRESH_TOKENS_ID,
 --               TRG_D_REFRESH_TOKENS_DATE, T_MAILING_TRG
@@ -24,6 +25,7 @@
 -- Objects created (AP_LOG):
 --   Sequences : T_APP_LOG_SEQ01
 --   Tables    : D_LOG_STATUS, T_APP_LOG
+--   Indexes   : Primary keys, IDX_T_APP_LOG_START_TIME
 --   Triggers  : T_APP_LOG_BIFER
 -- ============================================================================
 
@@ -183,6 +185,16 @@ CREATE TABLE "AP_APPLICATIONS"."D_REFRESH_TOKENS"
 )
 TABLESPACE "TBS_UTIL_APP";
 
+-- Scheduled job leases (one node runs each job at a time)
+CREATE TABLE "AP_APPLICATIONS"."D_SCHEDULER_LOCKS"
+(
+    "NAME"         VARCHAR2(100 BYTE) NOT NULL,
+    "LOCKED_UNTIL" TIMESTAMP(6)       NOT NULL,
+    "LOCKED_AT"    TIMESTAMP(6)       NOT NULL,
+    "LOCKED_BY"    VARCHAR2(255 BYTE) NOT NULL
+)
+TABLESPACE "TBS_UTIL_APP";
+
 -- Email / notification queue
 CREATE TABLE "AP_APPLICATIONS"."T_MAILING"
 (
@@ -246,6 +258,10 @@ ALTER TABLE "AP_APPLICATIONS"."D_REFRESH_TOKENS"
     ADD CONSTRAINT "PK_D_REFRESH_TOKENS" PRIMARY KEY ("ID")
     USING INDEX TABLESPACE "TBS_UTIL_APP" ENABLE;
 
+ALTER TABLE "AP_APPLICATIONS"."D_SCHEDULER_LOCKS"
+    ADD CONSTRAINT "PK_D_SCHEDULER_LOCKS" PRIMARY KEY ("NAME")
+    USING INDEX TABLESPACE "TBS_UTIL_APP" ENABLE;
+
 ALTER TABLE "AP_APPLICATIONS"."D_REFRESH_TOKENS"
     ADD CONSTRAINT "UK_D_REFRESH_TOKENS_TOKEN" UNIQUE ("TOKEN_HASH")
     USING INDEX TABLESPACE "TBS_UTIL_APP" ENABLE;
@@ -441,16 +457,27 @@ ALTER TABLE "AP_LOG"."T_APP_LOG"
     USING INDEX TABLESPACE "TBS_UTIL_APP" ENABLE;
 
 
+-- ============================================================================
+-- AP_LOG: Performance Indexes
+-- ============================================================================
+
+-- Serves the admin log list (ORDER BY START_TIME DESC, ID DESC) and its keyset pages
+CREATE INDEX "AP_LOG"."IDX_T_APP_LOG_START_TIME"
+    ON "AP_LOG"."T_APP_LOG" ("START_TIME", "ID")
+    TABLESPACE "TBS_UTIL_APP";
+
+
 -- ============================================================================
 -- AP_LOG: Trigger
 -- ============================================================================
 
--- T_APP_LOG: Auto-generate ID from sequence (Hibernate uses insertable=false — DB generates ID)
+-- T_APP_LOG: Generate ID from sequence unless supplied (lets auth-service reserve IDs in blocks
+-- with app-log.ingestion.preassigned-ids=true)
 CREATE OR REPLACE TRIGGER "AP_LOG"."T_APP_LOG_BIFER"
     BEFORE INSERT ON "AP_LOG"."T_APP_LOG"
     FOR EACH ROW
 BEGIN
-    IF INSERTING THEN
+    IF INSERTING AND :NEW.ID IS NULL THEN
         SELECT T_APP_LOG_SEQ01.NEXTVAL INTO :NEW.ID FROM SYS.DUAL;
     END IF;
 END;
@@ -27,7 +27,8 @@
 --   Sequences  : d_entities_seq01, d_refresh_tokens_seq, t_mailing_seq
 --   Tables     : d_user_status, d_entity_types, d_mailing_lists, d_users,
 --                d_entities, d_roles, d_entity_attributes, d_user_roles,
---                d_mailing_list_users, d_refresh_tokens, t_mailing
+--                d_mailing_list_users, d_refresh_tokens, t_mailing,
+--                d_scheduler_locks
 --   Indexes    : Primary keys, unique constraints, performance indexes
 --   Functions  : d_entities_bifer(), trg_d_refresh_tokens_id(),
 --                trg_d_refresh_tokens_date(), t_mailing_trg()
@@ -37,6 +38,7 @@
 -- Objects created (ap_log):
 --   Sequences  : t_app_log_seq01
 --   Tables     : d_log_status, t_app_log
+--   Indexes    : Primary keys, idx_t_app_log_start_time
 --   Functions  : t_app_log_bifer()
 --   Triggers   : t_app_log_bifer
 -- ============================================================================
@@ -191,6 +193,15 @@ CREATE TABLE ap_applications.d_refresh_tokens
     creation_type VARCHAR(20)
 );
 
+-- Scheduled job leases (one node runs each job at a time)
+CREATE TABLE ap_applications.d_scheduler_locks
+(
+    name         VARCHAR(100) NOT NULL,
+    locked_until TIMESTAMP    NOT NULL,
+    locked_at    TIMESTAMP    NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL
+);
+
 -- Email / notification queue
 CREATE TABLE ap_applications.t_mailing
 (
@@ -241,6 +252,9 @@ ALTER TABLE ap_applications.d_user_roles
 ALTER TABLE ap_applications.d_refresh_tokens
     ADD CONSTRAINT pk_d_refresh_tokens PRIMARY KEY (id);
 
+ALTER TABLE ap_applications.d_scheduler_locks
+    ADD CONSTRAINT pk_d_scheduler_locks PRIMARY KEY (name);
+
 ALTER TABLE ap_applications.d_refresh_tokens
     ADD CONSTRAINT uk_d_refresh_tokens_token UNIQUE (token_hash);
 
@@ -415,7 +429,7 @@ CREATE TABLE ap_log.d_log_status
 );
 
 -- Application log entries (cross-application audit/integration log)
--- Note: id is DB-generated via trigger (Hibernate uses insertable=false on this column)
+-- Note: id is assigned by auth-service from t_app_log_seq01, or by the trigger when omitted
 CREATE TABLE ap_log.t_app_log
 (
     id                BIGINT,
@@ -445,16 +459,28 @@ ALTER TABLE ap_log.t_app_log
     ADD CONSTRAINT t_app_log_pk PRIMARY KEY (id);
 
 
+-- ============================================================================
+-- ap_log: Performance Indexes
+-- ============================================================================
+
+-- Serves the admin log list (ORDER BY start_time DESC, id DESC) and its keyset pages
+CREATE INDEX idx_t_app_log_start_time
+    ON ap_log.t_app_log (start_time, id);
+
+
 -- ============================================================================
 -- ap_log: Trigger Function and Trigger
 -- ============================================================================
 
--- t_app_log: Auto-generate id from sequence (Hibernate uses insertable=false — DB generates ID)
+-- t_app_log: Generate id from sequence unless supplied (lets auth-service reserve ids in blocks
+-- with app-log.ingestion.preassigned-ids=true)
 CREATE OR REPLACE FUNCTION ap_log.t_app_log_bifer()
     RETURNS TRIGGER AS
 $$
 BEGIN
-    NEW.id := NEXTVAL('ap_log.t_app_log_seq01');
+    IF NEW.id IS NULL THEN
+        NEW.id := NEXTVAL('ap_log.t_app_log_seq01');
+    END IF;
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;